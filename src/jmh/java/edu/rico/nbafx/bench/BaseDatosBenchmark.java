@@ -0,0 +1,75 @@
+package edu.rico.nbafx.bench;
+
+import edu.rico.nbafx.dao.DaoFactory;
+import edu.rico.nbafx.dao.JugadorCriteria;
+import edu.rico.nbafx.dao.JugadorDAO;
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+import edu.rico.nbafx.util.DatabaseBackend;
+import edu.rico.nbafx.util.DatabaseConnection;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base de datos H2 embebida (modo MySQL) para los benchmarks.
+ * <p>
+ * Selecciona el motor H2 de la aplicación con una base en memoria; el esquema lo crea la propia
+ * aplicación desde {@code sql/init_jugadores.sql} al abrir el pool, y los datos se siembran con
+ * los DAO. JMH ejecuta cada combinación de parámetros en una JVM nueva, así que cada prueba parte
+ * de una base limpia.
+ * <p>
+ * Con {@code -jvmArgs -Ddb.backend=memoria} las mismas pruebas se ejecutan contra el almacén en
+ * memoria, sin JDBC, para comparar.
+ */
+final class BaseDatosBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:nbafx;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final int LOTE = 10_000;
+
+    private BaseDatosBenchmark() {
+    }
+
+    /**
+     * Configura la aplicación contra H2 y crea el esquema, salvo que se haya elegido el almacén en
+     * memoria. Debe llamarse antes de usar cualquier DAO.
+     */
+    static void iniciar() throws SQLException {
+        if (DatabaseBackend.MEMORIA.name().equalsIgnoreCase(System.getProperty("db.backend"))) {
+            return;
+        }
+        System.setProperty("db.backend", "h2");
+        System.setProperty("db.h2.url", URL);
+        // Primer acceso al pool: lo crea junto con el esquema
+        DatabaseConnection.getConnection().close();
+    }
+
+    /**
+     * Inserta jugadores sintéticos hasta alcanzar el número de filas indicado.
+     */
+    static void sembrarJugadores(int filas) throws SQLException {
+        JugadorDAO dao = DaoFactory.jugadores();
+        Posicion[] posiciones = Posicion.values();
+        int existentes = (int) dao.count(new JugadorCriteria());
+        List<Jugador> lote = new ArrayList<>(LOTE);
+        for (int i = existentes; i < filas; i++) {
+            lote.add(new Jugador("Jugador " + i, i % 100, "Equipo " + (i % 30), posiciones[i % posiciones.length],
+                    i % 7, 1.80 + (i % 40) / 100.0, 80 + i % 50, "https://example.org/" + i + ".png"));
+            if (lote.size() == LOTE) {
+                dao.saveAll(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            dao.saveAll(lote);
+        }
+    }
+
+    /**
+     * Cierra el pool de conexiones de la aplicación.
+     */
+    static void cerrar() {
+        DatabaseConnection.shutdown();
+    }
+}
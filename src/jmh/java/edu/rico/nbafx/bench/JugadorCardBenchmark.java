@@ -0,0 +1,81 @@
+package edu.rico.nbafx.bench;
+
+import edu.rico.nbafx.controller.JugadorCardController;
+import edu.rico.nbafx.controller.JugadorCardFactory;
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Permiso;
+import edu.rico.nbafx.model.Posicion;
+import edu.rico.nbafx.model.Rol;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarjetas de jugador por segundo: cargando {@code jugador-card.fxml} con un FXMLLoader nuevo por
+ * tarjeta (lo que hacía la rejilla de jugadores) frente a {@link JugadorCardFactory}. Cada tarjeta
+ * se rellena como en la rejilla, con un jugador y los permisos de un usuario.
+ * <p>
+ * Los nodos se crean fuera del hilo de JavaFX, que está permitido mientras no formen parte de una
+ * escena, pero el toolkit tiene que estar arrancado. Se usa Monocle en modo headless para que el
+ * benchmark no necesite pantalla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Dglass.platform=Monocle", "-Dmonocle.platform=Headless", "-Dprism.order=sw"})
+public class JugadorCardBenchmark {
+
+    private static final URL PLANTILLA = JugadorCardController.class.getResource("/fxml/jugador-card.fxml");
+
+    private final Set<Permiso> permisos = Permiso.de(Rol.USER);
+    private Jugador jugador;
+
+    @Setup
+    public void preparar() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // El toolkit ya estaba arrancado
+        }
+        // Sin imagen: se muestra la imagen por defecto, ya decodificada, y no se mide la red
+        jugador = new Jugador("Jugador", 23, "Equipo", Posicion.ALERO, 4, 2.06, 113, null);
+        jugador.setId(1);
+    }
+
+    @Benchmark
+    public Parent fxmlLoader() throws IOException {
+        FXMLLoader loader = new FXMLLoader(PLANTILLA);
+        Parent nodo = loader.load();
+        rellenar(loader.getController());
+        return nodo;
+    }
+
+    @Benchmark
+    public Parent factoria() {
+        JugadorCardFactory.Tarjeta tarjeta = JugadorCardFactory.crear();
+        rellenar(tarjeta.controller());
+        return tarjeta.nodo();
+    }
+
+    private void rellenar(JugadorCardController controller) {
+        controller.setJugador(jugador, j -> { }, j -> { }, (j, seleccionado) -> { });
+        controller.configurarPermisos(permisos, false);
+    }
+}
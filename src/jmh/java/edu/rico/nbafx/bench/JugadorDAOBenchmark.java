@@ -0,0 +1,63 @@
+package edu.rico.nbafx.bench;
+
+import edu.rico.nbafx.dao.DaoFactory;
+import edu.rico.nbafx.dao.JugadorDAO;
+import edu.rico.nbafx.model.Jugador;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JugadorDAO#findAll()} y {@link JugadorDAO#findById(int)} sobre H2 (o sobre el almacén en
+ * memoria) con 10k, 100k y 1M jugadores. Va directamente al DAO, sin la caché de jugadores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JugadorDAOBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int filas;
+
+    private JugadorDAO dao;
+
+    @Setup
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.iniciar();
+        dao = DaoFactory.jugadores();
+        BaseDatosBenchmark.sembrarJugadores(filas);
+    }
+
+    @TearDown
+    public void cerrar() {
+        BaseDatosBenchmark.cerrar();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Jugador> findAll() {
+        return dao.findAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<Jugador> findById() {
+        return dao.findById(ThreadLocalRandom.current().nextInt(1, filas + 1));
+    }
+}
@@ -0,0 +1,65 @@
+package edu.rico.nbafx.bench;
+
+import edu.rico.nbafx.model.Rol;
+import edu.rico.nbafx.service.QuintetoService;
+import edu.rico.nbafx.service.UsuarioService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QuintetoService#agregarJugador(int, int)}: la operación transaccional con comprobación
+ * de capacidad. Cada invocación añade y vuelve a quitar el jugador para que el estado no cambie
+ * entre iteraciones; el tiempo se da por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class QuintetoServiceBenchmark {
+
+    private QuintetoService service;
+    private int usuarioId;
+
+    @Setup
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.iniciar();
+        service = new QuintetoService();
+        BaseDatosBenchmark.sembrarJugadores(1_000);
+        UsuarioService usuarios = new UsuarioService();
+        usuarios.registrarUsuario("bench", "bench", Rol.USER);
+        usuarioId = usuarios.obtenerTodosLosUsuarios().stream()
+                .filter(u -> u.getNombre().equals("bench"))
+                .findFirst().orElseThrow().getId();
+        service.cargarQuinteto(usuarioId);
+        // Cuatro jugadores ya en el quinteto: la comprobación de capacidad trabaja con el caso límite
+        for (int jugadorId = 1; jugadorId <= 4; jugadorId++) {
+            service.agregarJugador(usuarioId, jugadorId);
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        BaseDatosBenchmark.cerrar();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void agregarYQuitarJugador() throws Exception {
+        service.agregarJugador(usuarioId, 5);
+        service.eliminarJugador(usuarioId, 5);
+    }
+}
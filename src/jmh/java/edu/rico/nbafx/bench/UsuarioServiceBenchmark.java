@@ -0,0 +1,66 @@
+package edu.rico.nbafx.bench;
+
+import edu.rico.nbafx.model.Rol;
+import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.service.UsuarioService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UsuarioService#login(String, String)}: búsqueda por nombre más verificación del hash,
+ * con credenciales correctas e incorrectas. El coste de PBKDF2 se fija bajo para que el resultado
+ * refleje la búsqueda y el paso por el pool de hash, no las iteraciones (que se calibran aparte).
+ * Tras la primera vuelta las credenciales salen de la caché de {@code AutenticacionService}; el
+ * limitador de intentos se desactiva porque el benchmark repite usuarios sin pausa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Dauth.hash.iterations=1000", "-Dauth.rate.enabled=false"})
+public class UsuarioServiceBenchmark {
+
+    private static final int USUARIOS = 1_000;
+
+    private UsuarioService service;
+
+    @Setup
+    public void preparar() throws Exception {
+        BaseDatosBenchmark.iniciar();
+        service = new UsuarioService();
+        for (int i = 0; i < USUARIOS; i++) {
+            service.registrarUsuario("usuario" + i, "clave" + i, Rol.USER);
+        }
+    }
+
+    @TearDown
+    public void cerrar() {
+        BaseDatosBenchmark.cerrar();
+    }
+
+    @Benchmark
+    public Optional<Usuario> loginCorrecto() {
+        int i = ThreadLocalRandom.current().nextInt(USUARIOS);
+        return service.login("usuario" + i, "clave" + i);
+    }
+
+    @Benchmark
+    public Optional<Usuario> loginIncorrecto() {
+        int i = ThreadLocalRandom.current().nextInt(USUARIOS);
+        return service.login("usuario" + i, "incorrecta");
+    }
+}
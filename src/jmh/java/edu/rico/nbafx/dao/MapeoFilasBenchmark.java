@@ -0,0 +1,111 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por fila del mapeo de 'jugadores': por nombre de columna con {@code Posicion.valueOf}
+ * (como antes) frente a por posición ({@link JdbcJugadorDAO#mapResultSetToJugador}).
+ * <p>
+ * Las 100.000 filas sintéticas se cargan en un {@link CachedRowSet} para medir solo el mapeo,
+ * sin red ni base de datos. Se ejecuta con {@code mvn -Pjmh test-compile exec:exec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoFilasBenchmark {
+
+    private static final int FILAS = 100_000;
+    private static final String[] COLUMNAS = JdbcJugadorDAO.COLUMNAS.split(", ");
+    private static final int[] TIPOS = {Types.INTEGER, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.INTEGER, Types.DOUBLE, Types.DOUBLE, Types.VARCHAR, Types.INTEGER};
+
+    private CachedRowSet filas;
+
+    @Setup
+    public void preparar() throws SQLException {
+        RowSetMetaDataImpl metadatos = new RowSetMetaDataImpl();
+        metadatos.setColumnCount(COLUMNAS.length);
+        for (int i = 0; i < COLUMNAS.length; i++) {
+            metadatos.setColumnName(i + 1, COLUMNAS[i]);
+            metadatos.setColumnType(i + 1, TIPOS[i]);
+        }
+        filas = RowSetProvider.newFactory().createCachedRowSet();
+        filas.setMetaData(metadatos);
+
+        Posicion[] valores = Posicion.values();
+        for (int i = 0; i < FILAS; i++) {
+            filas.moveToInsertRow();
+            filas.updateInt(1, i + 1);
+            filas.updateString(2, "Jugador " + i);
+            filas.updateInt(3, i % 100);
+            filas.updateString(4, "Equipo " + (i % 30));
+            filas.updateString(5, valores[i % valores.length].name());
+            filas.updateInt(6, i % 7);
+            filas.updateDouble(7, 1.80 + (i % 40) / 100.0);
+            filas.updateDouble(8, 80 + i % 50);
+            filas.updateString(9, "img/" + i + ".png");
+            filas.updateInt(10, i % 3);
+            filas.insertRow();
+            filas.moveToCurrentRow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public void mapeoPorNombre(Blackhole bh) throws SQLException {
+        filas.beforeFirst();
+        while (filas.next()) {
+            bh.consume(mapearPorNombre(filas));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public void mapeoPorPosicion(Blackhole bh) throws SQLException {
+        filas.beforeFirst();
+        while (filas.next()) {
+            bh.consume(JdbcJugadorDAO.mapResultSetToJugador(filas));
+        }
+    }
+
+    /**
+     * Mapeo anterior, conservado como referencia.
+     */
+    private static Jugador mapearPorNombre(ResultSet rs) throws SQLException {
+        Jugador jugador = new Jugador();
+        jugador.setId(rs.getInt("id"));
+        jugador.setNombre(rs.getString("nombre"));
+        jugador.setDorsal(rs.getInt("dorsal"));
+        jugador.setEquipo(rs.getString("equipo"));
+        jugador.setPosicion(Posicion.valueOf(rs.getString("posicion")));
+        jugador.setNumeroAnillos(rs.getInt("numero_anillos"));
+        jugador.setAltura(rs.getDouble("altura"));
+        jugador.setPeso(rs.getDouble("peso"));
+        jugador.setImageUrl(rs.getString("image_url"));
+        return jugador;
+    }
+}
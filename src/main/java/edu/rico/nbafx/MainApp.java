@@ -1,6 +1,7 @@
 package edu.rico.nbafx;
 
 import edu.rico.nbafx.util.AppShell;
+import edu.rico.nbafx.util.MetricasArranque;
 import edu.rico.nbafx.util.View;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -10,14 +11,27 @@ import java.io.IOException;
 public class MainApp extends Application {
     @Override
     public void start(Stage stage) throws IOException {
+        MetricasArranque.marcar(MetricasArranque.START);
+
         // Inicializamos el AppShell con el Stage principal
         AppShell.getInstance().init(stage);
+        MetricasArranque.medirPrimerFrame(stage.getScene());
         
         // Cargamos la vista inicial (Login)
         AppShell.getInstance().loadView(View.LOGIN);
+
+        // Mientras el usuario escribe, se abre el pool y se cargan las plantillas en segundo plano
+        AppShell.getInstance().precalentar();
+    }
+
+    @Override
+    public void stop() {
+        // Esperamos a las tareas en curso y cerramos las conexiones del pool al salir
+        AppShell.getInstance().shutdown();
     }
 
     public static void main(String[] args) {
+        MetricasArranque.marcar(MetricasArranque.MAIN);
         launch();
     }
 }
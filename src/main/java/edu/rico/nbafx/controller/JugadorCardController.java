@@ -1,19 +1,21 @@
 package edu.rico.nbafx.controller;
 
 import edu.rico.nbafx.model.Jugador;
-import edu.rico.nbafx.model.Rol;
-import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.model.Permiso;
+import edu.rico.nbafx.util.AppShell;
+import edu.rico.nbafx.util.ImageCache;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 
-import java.io.File;
-import java.net.URL;
-import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -36,8 +38,36 @@ public class JugadorCardController {
     private Consumer<Jugador> onEliminarListener;
     private BiConsumer<Jugador, Boolean> onFavoritoChangeListener; // Callback para notificar al padre
 
-    private static final String DEFAULT_IMAGE_RESOURCE = "/imagenes/default.png";
-    private static final String FALLBACK_ONLINE = "https://via.placeholder.com/150";
+    private static final int TAMANO_IMAGEN = 150;
+
+    // URL de la última imagen pedida, para descartar cargas de un jugador anterior
+    private String imagenSolicitada;
+
+    /**
+     * Constructor usado por FXMLLoader al cargar {@code jugador-card.fxml}.
+     */
+    public JugadorCardController() {
+    }
+
+    /**
+     * Constructor usado por {@link JugadorCardFactory}: recibe los nodos ya creados y enlaza los
+     * botones sin la inyección por reflexión de FXMLLoader.
+     */
+    JugadorCardController(ImageView imagenJugador, Label lblNombre, Label lblEquipo, Label lblPosicion,
+                          Label lblFisico, Label lblAnillos, HBox accionesContainer, ToggleButton btnFavorito,
+                          Button btnEditar, Button btnEliminar) {
+        this.imagenJugador = imagenJugador;
+        this.lblNombre = lblNombre;
+        this.lblEquipo = lblEquipo;
+        this.lblPosicion = lblPosicion;
+        this.lblFisico = lblFisico;
+        this.lblAnillos = lblAnillos;
+        this.accionesContainer = accionesContainer;
+        this.btnFavorito = btnFavorito;
+        btnFavorito.setOnAction(e -> handleFavorito());
+        btnEditar.setOnAction(e -> handleEditar());
+        btnEliminar.setOnAction(e -> handleEliminar());
+    }
 
     /**
      * Configura los datos de la tarjeta.
@@ -63,84 +93,46 @@ public class JugadorCardController {
     }
 
     /**
-     * Configura la visibilidad de los botones de acción según el rol del usuario.
-     * @param currentUser El usuario actual de la sesión.
+     * Configura la visibilidad de los botones de acción según los permisos de la sesión.
+     * @param permisos Los permisos del usuario actual.
      * @param esFavorito Indica si el jugador ya está en el quinteto del usuario.
      */
-    public void configurarPermisos(Usuario currentUser, boolean esFavorito) {
-        if (currentUser != null && currentUser.getRol() == Rol.USER) {
-            accionesContainer.setVisible(false);
-            accionesContainer.setManaged(false);
-            
-            btnFavorito.setVisible(true);
-            btnFavorito.setManaged(true);
+    public void configurarPermisos(Set<Permiso> permisos, boolean esFavorito) {
+        boolean editar = permisos.contains(Permiso.EDITAR_JUGADORES);
+        accionesContainer.setVisible(editar);
+        accionesContainer.setManaged(editar);
+
+        boolean quinteto = permisos.contains(Permiso.TENER_QUINTETO);
+        btnFavorito.setVisible(quinteto);
+        btnFavorito.setManaged(quinteto);
+        if (quinteto) {
             btnFavorito.setSelected(esFavorito);
             btnFavorito.setText(esFavorito ? "En mi Quinteto" : "Añadir a Quinteto");
-        } else { // ADMIN
-            accionesContainer.setVisible(true);
-            accionesContainer.setManaged(true);
-            
-            btnFavorito.setVisible(false);
-            btnFavorito.setManaged(false);
         }
     }
 
+    /**
+     * Muestra la foto del jugador usando la caché compartida de imágenes.
+     * Si no está en memoria se muestra la imagen por defecto hasta que termine la carga;
+     * como la tarjeta se reutiliza al hacer scroll, solo se aplica si sigue mostrando la misma URL.
+     */
     private void cargarImagen(String url) {
-        String urlParaCargar = null;
-
-        if (url != null && !url.trim().isEmpty()) {
-            String urlTrimmed = url.trim();
-            
-            if (urlTrimmed.startsWith("http")) {
-                urlParaCargar = urlTrimmed;
-            } else if (urlTrimmed.startsWith("file:")) {
-                urlParaCargar = urlTrimmed;
-            } else {
-                try {
-                    File file = new File(urlTrimmed);
-                    if (!file.isAbsolute()) {
-                        file = Paths.get(System.getProperty("user.dir"), urlTrimmed).toFile();
-                    }
-
-                    if (file.exists()) {
-                        urlParaCargar = file.toURI().toString();
-                    } else {
-                        System.err.println("Imagen local no encontrada: " + file.getAbsolutePath());
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
+        ImageCache imageCache = AppShell.getInstance().getImageCache();
+        imagenSolicitada = url;
+
+        CompletableFuture<Image> futura = imageCache.load(url, TAMANO_IMAGEN, TAMANO_IMAGEN);
+        Image lista = futura.getNow(null);
+        if (lista != null) {
+            imagenJugador.setImage(lista);
+            return;
         }
 
-        if (urlParaCargar == null) {
-            URL resource = getClass().getResource(DEFAULT_IMAGE_RESOURCE);
-            if (resource != null) {
-                urlParaCargar = resource.toExternalForm();
-            } else {
-                urlParaCargar = FALLBACK_ONLINE;
+        imagenJugador.setImage(imageCache.getPlaceholder());
+        futura.thenAccept(image -> Platform.runLater(() -> {
+            if (Objects.equals(imagenSolicitada, url)) {
+                imagenJugador.setImage(image);
             }
-        }
-
-        final String finalUrl = urlParaCargar;
-
-        Image image = new Image(finalUrl, 150, 150, true, true, true);
-        
-        image.errorProperty().addListener((obs, oldErr, newErr) -> {
-            if (newErr) {
-                System.err.println("Error cargando imagen: " + finalUrl);
-                Platform.runLater(() -> {
-                    URL res = getClass().getResource(DEFAULT_IMAGE_RESOURCE);
-                    if (res != null) {
-                        imagenJugador.setImage(new Image(res.toExternalForm()));
-                    } else {
-                        imagenJugador.setImage(new Image(FALLBACK_ONLINE));
-                    }
-                });
-            }
-        });
-
-        imagenJugador.setImage(image);
+        }));
     }
 
     @FXML
@@ -0,0 +1,116 @@
+package edu.rico.nbafx.controller;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Construye tarjetas de jugador en código, sin {@code FXMLLoader}.
+ * <p>
+ * Cargar {@code jugador-card.fxml} por cada tarjeta supone analizar el XML, resolver las clases
+ * importadas e inyectar los campos {@code @FXML} por reflexión cada vez que la rejilla necesita un
+ * hueco nuevo. Aquí el grafo de nodos de la plantilla se crea directamente y el
+ * {@link JugadorCardController} recibe sus nodos por constructor, que también enlaza los botones.
+ * <p>
+ * El resultado es el mismo que el de la plantilla FXML, que se conserva como referencia de diseño
+ * (y como punto de comparación del benchmark {@code JugadorCardBenchmark}): cualquier cambio en
+ * ella debe reflejarse aquí. La hoja de estilos no se añade a cada tarjeta porque ya la aplica la
+ * vista que las contiene.
+ */
+public final class JugadorCardFactory {
+
+    private static final Insets PADDING = new Insets(15.0);
+    private static final String ESTILO_MARCO_IMAGEN = "-fx-background-color: #f8f9fa; -fx-background-radius: 5;";
+
+    /**
+     * Tarjeta construida: su nodo raíz y el controlador ya enlazado a él.
+     *
+     * @param nodo Nodo raíz de la tarjeta.
+     * @param controller Controlador de la tarjeta.
+     */
+    public record Tarjeta(VBox nodo, JugadorCardController controller) {
+    }
+
+    /**
+     * Constructor privado para evitar instanciación de la clase utilitaria.
+     */
+    private JugadorCardFactory() { }
+
+    /**
+     * Crea una tarjeta vacía, lista para rellenarse con {@link JugadorCardController#setJugador}.
+     * Como cualquier nodo que aún no forma parte de una escena, puede crearse fuera del hilo de JavaFX.
+     *
+     * @return La tarjeta con su controlador.
+     */
+    public static Tarjeta crear() {
+        ImageView imagenJugador = new ImageView();
+        imagenJugador.setFitWidth(150.0);
+        imagenJugador.setFitHeight(150.0);
+        imagenJugador.setPickOnBounds(true);
+        imagenJugador.setPreserveRatio(true);
+
+        StackPane marcoImagen = new StackPane(imagenJugador);
+        marcoImagen.setPrefSize(150.0, 150.0);
+        marcoImagen.setStyle(ESTILO_MARCO_IMAGEN);
+
+        Label lblNombre = etiqueta("card-title", "Nombre Jugador");
+        lblNombre.setWrapText(true);
+        lblNombre.setTextAlignment(TextAlignment.CENTER);
+        Label lblEquipo = etiqueta("card-subtitle", "Equipo - #00");
+        lblEquipo.setWrapText(true);
+        lblEquipo.setTextAlignment(TextAlignment.CENTER);
+
+        Label lblPosicion = etiqueta("card-text", "Posición: ");
+        Label lblFisico = etiqueta("card-text", "Altura: - | Peso: -");
+        Label lblAnillos = etiqueta("card-text", "Anillos: 0");
+        VBox datos = new VBox(5.0, lblPosicion, lblFisico, lblAnillos);
+        datos.setAlignment(Pos.CENTER_LEFT);
+        VBox.setVgrow(datos, Priority.ALWAYS);
+
+        // Botón de Favorito para Usuarios
+        ToggleButton btnFavorito = new ToggleButton("Añadir a Quinteto");
+        btnFavorito.setMnemonicParsing(false);
+        btnFavorito.setMaxWidth(Double.MAX_VALUE);
+        btnFavorito.getStyleClass().add("button");
+
+        // Botones de Admin
+        Button btnEditar = boton("button-warning", "Editar");
+        Button btnEliminar = boton("button-danger", "Eliminar");
+        HBox accionesContainer = new HBox(10.0, btnEditar, btnEliminar);
+        accionesContainer.setAlignment(Pos.CENTER);
+
+        VBox nodo = new VBox(10.0, marcoImagen, lblNombre, lblEquipo, datos, btnFavorito, accionesContainer);
+        nodo.setAlignment(Pos.TOP_CENTER);
+        nodo.setPadding(PADDING);
+        nodo.setMinSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        nodo.setPrefSize(JugadorGridCell.ANCHO_TARJETA, JugadorGridCell.ALTO_TARJETA);
+        nodo.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+        nodo.getStyleClass().add("card");
+
+        JugadorCardController controller = new JugadorCardController(imagenJugador, lblNombre, lblEquipo,
+                lblPosicion, lblFisico, lblAnillos, accionesContainer, btnFavorito, btnEditar, btnEliminar);
+        return new Tarjeta(nodo, controller);
+    }
+
+    private static Label etiqueta(String claseEstilo, String texto) {
+        Label label = new Label(texto);
+        label.getStyleClass().add(claseEstilo);
+        return label;
+    }
+
+    private static Button boton(String claseEstilo, String texto) {
+        Button button = new Button(texto);
+        button.setMnemonicParsing(false);
+        button.getStyleClass().add(claseEstilo);
+        return button;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.rico.nbafx.controller;
+
+import edu.rico.nbafx.model.Jugador;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Celda de la rejilla virtualizada de jugadores. Cada celda representa una fila de tarjetas.
+ * <p>
+ * El ListView solo crea las celdas visibles y las reutiliza al hacer scroll, por lo que las
+ * tarjetas (nodo + {@link JugadorCardController}) se construyen con {@link JugadorCardFactory}
+ * una única vez por hueco y después solo se rellenan con el jugador correspondiente.
+ */
+class JugadorGridCell extends ListCell<JugadorGridCell.Fila> {
+
+    static final double ANCHO_TARJETA = 260.0;
+    static final double ALTO_TARJETA = 420.0;
+    static final double ESPACIO = 20.0;
+    static final double ALTO_FILA = ALTO_TARJETA + ESPACIO;
+
+    // Margen horizontal reservado para el padding de la fila y la barra de scroll
+    private static final double MARGEN_HORIZONTAL = 2 * ESPACIO + 20.0;
+
+    private final HBox fila = new HBox(ESPACIO);
+    private final List<Parent> nodos = new ArrayList<>();
+    private final List<JugadorCardController> tarjetas = new ArrayList<>();
+    private final BiConsumer<JugadorCardController, Jugador> configurador;
+    private final IntSupplier columnas;
+    private final IntConsumer alMostrarFila;
+
+    /**
+     * Fila de la rejilla. Se compara por identidad: sustituir una fila por otra nueva con los
+     * mismos jugadores (p. ej. tras editar uno) fuerza el repintado de su celda, y solo de esa.
+     */
+    static final class Fila {
+        private final List<Jugador> jugadores;
+
+        Fila(List<Jugador> jugadores) {
+            this.jugadores = List.copyOf(jugadores);
+        }
+
+        List<Jugador> getJugadores() {
+            return jugadores;
+        }
+    }
+
+    /**
+     * @param configurador Rellena una tarjeta reutilizada con los datos de un jugador.
+     * @param columnas Número actual de columnas de la rejilla.
+     * @param alMostrarFila Recibe el índice de cada fila que se pinta (para cargar más páginas).
+     */
+    JugadorGridCell(BiConsumer<JugadorCardController, Jugador> configurador, IntSupplier columnas,
+                    IntConsumer alMostrarFila) {
+        this.configurador = configurador;
+        this.columnas = columnas;
+        this.alMostrarFila = alMostrarFila;
+        fila.setAlignment(Pos.TOP_CENTER);
+        fila.setPadding(new Insets(ESPACIO / 2, ESPACIO, ESPACIO / 2, ESPACIO));
+        getStyleClass().add("jugador-grid-cell");
+    }
+
+    /**
+     * Calcula cuántas tarjetas caben en una fila para un ancho dado.
+     *
+     * @param anchoDisponible Ancho del ListView.
+     * @return Número de columnas (mínimo 1).
+     */
+    static int calcularColumnas(double anchoDisponible) {
+        return Math.max(1, (int) ((anchoDisponible - MARGEN_HORIZONTAL + ESPACIO) / (ANCHO_TARJETA + ESPACIO)));
+    }
+
+    @Override
+    protected void updateItem(Fila item, boolean empty) {
+        super.updateItem(item, empty);
+        if (empty || item == null) {
+            setGraphic(null);
+            return;
+        }
+
+        List<Jugador> jugadores = item.getJugadores();
+
+        while (tarjetas.size() < jugadores.size()) {
+            crearTarjeta();
+        }
+
+        int columnasActuales = columnas.getAsInt();
+        for (int i = 0; i < tarjetas.size(); i++) {
+            Parent nodo = nodos.get(i);
+            boolean ocupado = i < jugadores.size();
+            nodo.setVisible(ocupado);
+            // Los huecos vacíos de la última fila siguen ocupando espacio para mantener la alineación
+            nodo.setManaged(i < columnasActuales);
+            if (ocupado) {
+                configurador.accept(tarjetas.get(i), jugadores.get(i));
+            }
+        }
+        setGraphic(fila);
+        alMostrarFila.accept(getIndex());
+    }
+
+    private void crearTarjeta() {
+        JugadorCardFactory.Tarjeta tarjeta = JugadorCardFactory.crear();
+        nodos.add(tarjeta.nodo());
+        tarjetas.add(tarjeta.controller());
+        fila.getChildren().add(tarjeta.nodo());
+    }
+}
@@ -1,186 +1,635 @@
 package edu.rico.nbafx.controller;
 
+import edu.rico.nbafx.dao.JugadorCriteria;
+import edu.rico.nbafx.dao.Page;
 import edu.rico.nbafx.model.Jugador;
 import edu.rico.nbafx.model.Posicion;
-import edu.rico.nbafx.model.Rol;
-import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.model.Permiso;
+import edu.rico.nbafx.service.ExportacionService;
+import edu.rico.nbafx.service.ImportacionService;
 import edu.rico.nbafx.service.JugadorService;
 import edu.rico.nbafx.service.QuintetoService;
+import edu.rico.nbafx.util.AppConfig;
 import edu.rico.nbafx.util.AppShell;
+import edu.rico.nbafx.util.EscritorFilas;
+import edu.rico.nbafx.util.Sesion;
 import edu.rico.nbafx.util.View;
+import edu.rico.nbafx.util.VistaRefrescable;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
-import javafx.scene.layout.TilePane;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
 
 import java.io.File;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Controlador para la vista de gestión de jugadores.
+ * {@link AppShell} la conserva durante la sesión; al volver a ella solo se refrescan el contador
+ * del quinteto y, si el catálogo ha cambiado, la primera página.
  */
-public class JugadoresController {
+public class JugadoresController implements VistaRefrescable {
 
-    @FXML private TilePane jugadoresContainer;
+    private static final Logger LOGGER = Logger.getLogger(JugadoresController.class.getName());
+
+    @FXML private ListView<JugadorGridCell.Fila> jugadoresGrid;
     @FXML private Button btnUsuarios;
     @FXML private Button btnNuevoJugador;
     @FXML private Label lblContadorQuinteto;
+    @FXML private TextField txtBuscar;
+    @FXML private Label lblTotalJugadores;
+    @FXML private Button btnImportar;
+    @FXML private MenuItem menuExportarUsuarios;
+    @FXML private MenuItem menuExportarQuintetos;
+    @FXML private HBox panelTarea;
+    @FXML private ProgressBar barraTarea;
+    @FXML private Label lblTarea;
 
     private final JugadorService jugadorService = new JugadorService();
     private final QuintetoService quintetoService = new QuintetoService();
+    private final ImportacionService importacionService = new ImportacionService();
+    private final ExportacionService exportacionService = new ExportacionService();
     private File imagenSeleccionadaTemp = null;
     
-    // Cache de IDs de jugadores en el quinteto del usuario actual
-    private List<Integer> quintetoIds = new ArrayList<>();
 
+    // Jugadores cargados y número de columnas con el que se agrupan en filas de la rejilla
+    private List<Jugador> jugadores = new ArrayList<>();
+    private int columnas = 1;
+
+    // Paginación bajo demanda: solo se consulta la siguiente página al llegar al final de la rejilla
+    private static final int TAMANO_PAGINA = AppConfig.getInt("jugadores.pageSize", 48);
+    private String filtroNombre;
+    private JugadorCriteria.Cursor siguientePagina;
+    private boolean hayMasPaginas;
+    private boolean cargandoPagina;
+    private long totalJugadores;
+
+    /**
+     * Estado de la vista que se conserva en la sesión al navegar a otra y volver.
+     */
+    private record EstadoJugadores(String filtroNombre) {
+    }
+
+    // Tarea larga (importación/exportación) que se muestra con progreso en la barra de herramientas
+    private Task<?> tareaEnCurso;
+
+    /**
+     * Configura los nodos. Puede ejecutarse fuera del hilo de JavaFX si la vista se precarga: las
+     * consultas se lanzan en el hilo de JavaFX y solo si la sesión de la vista sigue abierta.
+     */
     @FXML
     public void initialize() {
+        configurarGrid();
         configurarPermisos();
-        cargarDatosIniciales();
+        AppShell.getInstance().ejecutarEnSesion(AppShell.getInstance().getSesion(), this::cargarDatosIniciales);
+    }
+
+    /**
+     * Al volver a la vista conservada: los nodos, el filtro y las páginas cargadas siguen ahí; solo
+     * se comprueba si el catálogo ha cambiado (huella en memoria) y se actualiza el contador.
+     */
+    @Override
+    public void refrescar() {
+        actualizarContadorQuinteto();
+        reconciliarCatalogo();
+    }
+
+    /**
+     * Configura la rejilla virtualizada: solo se construyen las filas visibles y sus tarjetas
+     * se reutilizan al hacer scroll. Al cambiar el ancho se reagrupan los jugadores en filas.
+     */
+    private void configurarGrid() {
+        jugadoresGrid.setCellFactory(lv -> new JugadorGridCell(this::configurarTarjeta, () -> columnas, this::filaMostrada));
+        jugadoresGrid.setFixedCellSize(JugadorGridCell.ALTO_FILA);
+        jugadoresGrid.setPlaceholder(new Label("No hay jugadores registrados"));
+        jugadoresGrid.widthProperty().addListener((obs, oldWidth, newWidth) -> {
+            int nuevasColumnas = JugadorGridCell.calcularColumnas(newWidth.doubleValue());
+            if (nuevasColumnas != columnas) {
+                columnas = nuevasColumnas;
+                actualizarFilas();
+            }
+        });
     }
 
+    /**
+     * Muestra u oculta las acciones según los permisos calculados al iniciar sesión.
+     */
     private void configurarPermisos() {
-        Usuario currentUser = AppShell.getInstance().getCurrentUser();
-        
-        if (currentUser != null && currentUser.getRol() == Rol.USER) {
-            btnUsuarios.setVisible(false);
-            btnUsuarios.setManaged(false);
-            btnNuevoJugador.setVisible(false);
-            btnNuevoJugador.setManaged(false);
-            lblContadorQuinteto.setVisible(true);
-        } else {
-            btnUsuarios.setVisible(true);
-            btnUsuarios.setManaged(true);
-            btnNuevoJugador.setVisible(true);
-            btnNuevoJugador.setManaged(true);
-            lblContadorQuinteto.setVisible(false); // Admin no tiene quinteto
-        }
+        mostrar(btnUsuarios, puede(Permiso.GESTIONAR_USUARIOS));
+        mostrar(btnNuevoJugador, puede(Permiso.EDITAR_JUGADORES));
+        mostrar(btnImportar, puede(Permiso.IMPORTAR_JUGADORES));
+        menuExportarUsuarios.setVisible(puede(Permiso.EXPORTAR_USUARIOS));
+        menuExportarQuintetos.setVisible(puede(Permiso.EXPORTAR_QUINTETOS));
+        lblContadorQuinteto.setVisible(puede(Permiso.TENER_QUINTETO)); // Admin no tiene quinteto
     }
 
+    private static void mostrar(Control control, boolean visible) {
+        control.setVisible(visible);
+        control.setManaged(visible);
+    }
+
+    private boolean puede(Permiso permiso) {
+        Sesion sesion = AppShell.getInstance().getSesion();
+        return sesion != null && sesion.puede(permiso);
+    }
+
+    /**
+     * Pinta la vista sin consultar nada nuevo: el quinteto se cargó al iniciar sesión y el filtro
+     * se recupera de la visita anterior a esta vista.
+     */
     private void cargarDatosIniciales() {
-        Usuario currentUser = AppShell.getInstance().getCurrentUser();
-        
-        Task<Void> task = new Task<>() {
+        Sesion sesion = AppShell.getInstance().getSesion();
+        EstadoJugadores estado = sesion != null ? sesion.getEstado(View.JUGADORES, EstadoJugadores.class) : null;
+        if (estado != null) {
+            filtroNombre = estado.filtroNombre();
+            txtBuscar.setText(filtroNombre);
+        }
+        actualizarContadorQuinteto();
+        cargarJugadores();
+        reconciliarCatalogo();
+    }
+
+    /**
+     * Carga la primera página de jugadores (con el total) y descarta las páginas en curso.
+     */
+    private void cargarJugadores() {
+        AppShell.getInstance().getExecutor().cancel("jugadores.pagina");
+        cargandoPagina = false;
+        JugadorCriteria criteria = nuevoCriterio(null).setConTotal(true);
+
+        Task<Page<Jugador>> task = new Task<>() {
             @Override
-            protected Void call() throws Exception {
-                // Si es usuario, cargamos su quinteto primero
-                if (currentUser != null && currentUser.getRol() == Rol.USER) {
-                    quintetoIds = quintetoService.obtenerIdsQuinteto(currentUser.getId());
-                }
-                return null;
+            protected Page<Jugador> call() throws Exception {
+                return jugadorService.buscarJugadores(criteria);
             }
         };
 
         task.setOnSucceeded(e -> {
-            actualizarContadorQuinteto();
-            cargarJugadores(); // Cargamos las tarjetas después de tener los datos del quinteto
+            Page<Jugador> pagina = task.getValue();
+            jugadores = new ArrayList<>(pagina.items());
+            totalJugadores = pagina.total();
+            siguientePagina = pagina.siguiente();
+            hayMasPaginas = pagina.hayMas();
+            actualizarFilas();
+            jugadoresGrid.scrollTo(0);
+            actualizarTotal();
         });
-        
-        task.setOnFailed(e -> showAlert(Alert.AlertType.ERROR, "Error", "Error al cargar datos iniciales"));
-        
-        new Thread(task).start();
+
+        task.setOnFailed(e -> showAlert(Alert.AlertType.ERROR, "Error", "No se pudieron cargar los jugadores: " + task.getException().getMessage()));
+        AppShell.getInstance().getExecutor().submit("jugadores.cargar", task);
     }
 
-    private void cargarJugadores() {
-        Task<List<Jugador>> task = new Task<>() {
+    /**
+     * Contrasta en segundo plano el catálogo leído de disco con la base de datos. Las tarjetas ya
+     * se han pintado a partir de él; solo si ha cambiado se vuelve a cargar la primera página.
+     */
+    private void reconciliarCatalogo() {
+        Task<Boolean> task = new Task<>() {
             @Override
-            protected List<Jugador> call() throws Exception {
-                return jugadorService.obtenerTodosLosJugadores();
+            protected Boolean call() throws Exception {
+                return jugadorService.reconciliarCatalogo();
             }
         };
 
         task.setOnSucceeded(e -> {
-            jugadoresContainer.getChildren().clear();
-            List<Jugador> jugadores = task.getValue();
-            Usuario currentUser = AppShell.getInstance().getCurrentUser();
-            
-            for (Jugador jugador : jugadores) {
-                try {
-                    FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/jugador-card.fxml"));
-                    Parent cardNode = loader.load();
-                    JugadorCardController cardController = loader.getController();
-                    
-                    // Pasamos el callback de favorito
-                    cardController.setJugador(jugador, this::handleEditarJugador, this::handleEliminarJugador, this::handleFavoritoChange);
-                    
-                    // Configuramos estado inicial (si está en el quinteto)
-                    boolean esFavorito = quintetoIds.contains(jugador.getId());
-                    cardController.configurarPermisos(currentUser, esFavorito);
-                    
-                    jugadoresContainer.getChildren().add(cardNode);
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                }
+            if (task.getValue()) {
+                cargarJugadores();
             }
         });
 
-        task.setOnFailed(e -> showAlert(Alert.AlertType.ERROR, "Error", "No se pudieron cargar los jugadores: " + task.getException().getMessage()));
-        new Thread(task).start();
+        // Sin reconciliar se sigue con la copia de disco hasta que caduque
+        task.setOnFailed(e -> LOGGER.log(Level.WARNING, "No se pudo reconciliar el catálogo de jugadores", task.getException()));
+        AppShell.getInstance().getExecutor().submit("jugadores.reconciliar", task);
+    }
+
+    /**
+     * Pide la página siguiente y añade sus jugadores al final de la rejilla.
+     */
+    private void cargarSiguientePagina() {
+        if (!hayMasPaginas || cargandoPagina) {
+            return;
+        }
+        cargandoPagina = true;
+        JugadorCriteria criteria = nuevoCriterio(siguientePagina);
+
+        Task<Page<Jugador>> task = new Task<>() {
+            @Override
+            protected Page<Jugador> call() throws Exception {
+                return jugadorService.buscarJugadores(criteria);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            cargandoPagina = false;
+            Page<Jugador> pagina = task.getValue();
+            int primeraFila = jugadores.size() / columnas;
+            jugadores.addAll(pagina.items());
+            siguientePagina = pagina.siguiente();
+            hayMasPaginas = pagina.hayMas();
+
+            // Solo se rehace la última fila incompleta y se añaden las nuevas
+            int numeroFilas = (jugadores.size() + columnas - 1) / columnas;
+            List<JugadorGridCell.Fila> filas = new ArrayList<>();
+            for (int fila = primeraFila; fila < numeroFilas; fila++) {
+                filas.add(crearFila(fila));
+            }
+            jugadoresGrid.getItems().remove(Math.min(primeraFila, jugadoresGrid.getItems().size()), jugadoresGrid.getItems().size());
+            jugadoresGrid.getItems().addAll(filas);
+            actualizarTotal();
+        });
+
+        task.setOnFailed(e -> {
+            cargandoPagina = false;
+            showAlert(Alert.AlertType.ERROR, "Error", "No se pudieron cargar más jugadores: " + task.getException().getMessage());
+        });
+        AppShell.getInstance().getExecutor().submit("jugadores.pagina", task);
+    }
+
+    /**
+     * Criterio de la vista: filtro por nombre actual, orden por ID (el de la tabla) y cursor.
+     */
+    private JugadorCriteria nuevoCriterio(JugadorCriteria.Cursor despuesDe) {
+        return new JugadorCriteria()
+                .setNombrePrefijo(filtroNombre)
+                .setTamanoPagina(TAMANO_PAGINA)
+                .setDespuesDe(despuesDe);
+    }
+
+    /**
+     * Llamado por las celdas al pintar una fila: al acercarse al final se pide otra página.
+     */
+    private void filaMostrada(int fila) {
+        if (fila >= jugadoresGrid.getItems().size() - 2) {
+            cargarSiguientePagina();
+        }
+    }
+
+    @FXML
+    private void handleBuscar() {
+        String texto = txtBuscar.getText();
+        filtroNombre = texto == null || texto.trim().isEmpty() ? null : texto.trim();
+        Sesion sesion = AppShell.getInstance().getSesion();
+        if (sesion != null) {
+            sesion.setEstado(View.JUGADORES, filtroNombre != null ? new EstadoJugadores(filtroNombre) : null);
+        }
+        cargarJugadores();
+    }
+
+    private void actualizarTotal() {
+        lblTotalJugadores.setText(jugadores.size() + " de " + totalJugadores + " jugadores");
+    }
+
+    /**
+     * Agrupa los jugadores en filas según el número de columnas actual.
+     * Solo se crean listas de referencias; los nodos los genera el ListView bajo demanda.
+     */
+    private void actualizarFilas() {
+        int numeroFilas = (jugadores.size() + columnas - 1) / columnas;
+        List<JugadorGridCell.Fila> filas = new ArrayList<>(numeroFilas);
+        for (int fila = 0; fila < numeroFilas; fila++) {
+            filas.add(crearFila(fila));
+        }
+        jugadoresGrid.getItems().setAll(filas);
+    }
+
+    private JugadorGridCell.Fila crearFila(int fila) {
+        int desde = fila * columnas;
+        return new JugadorGridCell.Fila(jugadores.subList(desde, Math.min(desde + columnas, jugadores.size())));
+    }
+
+    /**
+     * Posición de un jugador en la lista cargada (búsqueda en memoria, sin consultar la BD).
+     */
+    private int indiceDe(int jugadorId) {
+        for (int i = 0; i < jugadores.size(); i++) {
+            if (jugadores.get(i).getId() == jugadorId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Vuelve a pintar solo la fila que contiene al jugador indicado.
+     */
+    private void refrescarFila(int indiceJugador) {
+        int fila = indiceJugador / columnas;
+        if (fila < jugadoresGrid.getItems().size()) {
+            jugadoresGrid.getItems().set(fila, crearFila(fila));
+        } else {
+            jugadoresGrid.getItems().add(crearFila(fila));
+        }
+    }
+
+    /**
+     * Añade un jugador recién creado al final de la rejilla sin recargar el resto.
+     * Si quedan páginas por cargar no se pinta todavía: llegará con la última página
+     * (el orden es por ID), y así no aparece duplicado.
+     */
+    private void insertarJugador(Jugador jugador) {
+        if (!nuevoCriterio(null).test(jugador)) {
+            return;
+        }
+        totalJugadores++;
+        if (!hayMasPaginas) {
+            jugadores.add(jugador);
+            refrescarFila(jugadores.size() - 1);
+        }
+        actualizarTotal();
+    }
+
+    /**
+     * Sustituye la tarjeta de un jugador editado; solo se repinta su fila. Si con los cambios ya no
+     * cumple el filtro, se quita. Si no estaba cargado solo se añade cuando ya están todas las
+     * páginas (antes no cumplía el filtro); si no, puede estar en una página pendiente, donde ya se
+     * cuenta en el total.
+     */
+    private void reemplazarJugador(Jugador jugador) {
+        boolean cumpleFiltro = nuevoCriterio(null).test(jugador);
+        int indice = indiceDe(jugador.getId());
+        if (indice < 0) {
+            if (cumpleFiltro && !hayMasPaginas) {
+                insertarJugador(jugador);
+            }
+            return;
+        }
+        if (!cumpleFiltro) {
+            quitarJugador(jugador.getId());
+            return;
+        }
+        jugadores.set(indice, jugador);
+        refrescarFila(indice);
+    }
+
+    /**
+     * Quita un jugador eliminado. Las filas posteriores se desplazan una posición,
+     * pero el ListView solo repinta las que están visibles.
+     */
+    private void quitarJugador(int jugadorId) {
+        int indice = indiceDe(jugadorId);
+        if (indice < 0) {
+            return;
+        }
+        jugadores.remove(indice);
+        totalJugadores--;
+        actualizarTotal();
+
+        int primeraFila = indice / columnas;
+        int numeroFilas = (jugadores.size() + columnas - 1) / columnas;
+        List<JugadorGridCell.Fila> filas = new ArrayList<>();
+        for (int fila = primeraFila; fila < numeroFilas; fila++) {
+            filas.add(crearFila(fila));
+        }
+        jugadoresGrid.getItems().remove(primeraFila, jugadoresGrid.getItems().size());
+        jugadoresGrid.getItems().addAll(filas);
+    }
+
+    /**
+     * Rellena una tarjeta reutilizada de la rejilla con los datos de un jugador.
+     */
+    private void configurarTarjeta(JugadorCardController cardController, Jugador jugador) {
+        // Pasamos el callback de favorito
+        cardController.setJugador(jugador, this::handleEditarJugador, this::handleEliminarJugador, this::handleFavoritoChange);
+
+        // Configuramos estado inicial (si está en el quinteto)
+        Sesion sesion = AppShell.getInstance().getSesion();
+        boolean esFavorito = sesion != null && quintetoService.estaEnQuinteto(sesion.getUsuarioId(), jugador.getId());
+        cardController.configurarPermisos(sesion != null ? sesion.getPermisos() : Set.of(), esFavorito);
     }
 
     private void handleFavoritoChange(Jugador jugador, Boolean isSelected) {
-        Usuario currentUser = AppShell.getInstance().getCurrentUser();
-        if (currentUser == null) return;
+        Sesion sesion = AppShell.getInstance().getSesion();
+        if (sesion == null) return;
+        int usuarioId = sesion.getUsuarioId();
+
+        // El cambio se aplica en memoria al instante y se confirma en segundo plano
+        try {
+            quintetoService.marcarJugador(usuarioId, jugador.getId(), isSelected);
+        } catch (Exception ex) {
+            showAlert(Alert.AlertType.WARNING, "Aviso", ex.getMessage());
+            int indice = indiceDe(jugador.getId());
+            if (indice >= 0) {
+                refrescarFila(indice);
+            }
+            return;
+        }
+        actualizarContadorQuinteto();
 
-        Task<Void> task = new Task<>() {
+        Task<List<Integer>> task = new Task<>() {
             @Override
-            protected Void call() throws Exception {
-                if (isSelected) {
-                    quintetoService.agregarJugador(currentUser.getId(), jugador.getId());
-                } else {
-                    quintetoService.eliminarJugador(currentUser.getId(), jugador.getId());
-                }
-                // Actualizamos la lista local para mantener consistencia
-                quintetoIds = quintetoService.obtenerIdsQuinteto(currentUser.getId());
-                return null;
+            protected List<Integer> call() throws Exception {
+                return quintetoService.confirmarJugador(usuarioId, jugador.getId(), isSelected);
             }
         };
 
         task.setOnSucceeded(e -> {
             actualizarContadorQuinteto();
-            // Opcional: Mostrar feedback sutil
+            // La base de datos puede haber corregido la copia en memoria: se repintan esas tarjetas
+            for (int jugadorId : task.getValue()) {
+                int indice = indiceDe(jugadorId);
+                if (indice >= 0) {
+                    refrescarFila(indice);
+                }
+            }
         });
 
         task.setOnFailed(e -> {
             // Revertir visualmente si falló (ej. por límite de 5)
             showAlert(Alert.AlertType.WARNING, "Aviso", e.getSource().getException().getMessage());
-            // Recargamos todo para asegurar consistencia visual
-            cargarJugadores(); 
+            actualizarContadorQuinteto();
+            // Repintamos solo la tarjeta afectada con el estado real del quinteto
+            int indice = indiceDe(jugador.getId());
+            if (indice >= 0) {
+                refrescarFila(indice);
+            }
         });
 
-        new Thread(task).start();
+        AppShell.getInstance().getExecutor().submit(task);
     }
 
     private void actualizarContadorQuinteto() {
         if (lblContadorQuinteto.isVisible()) {
-            lblContadorQuinteto.setText("Quinteto: " + quintetoIds.size() + "/5");
+            Sesion sesion = AppShell.getInstance().getSesion();
+            int total = sesion != null ? quintetoService.contarJugadores(sesion.getUsuarioId()) : 0;
+            lblContadorQuinteto.setText("Quinteto: " + total + "/" + QuintetoService.MAX_JUGADORES);
         }
     }
 
     @FXML private void handleAgregarJugador() { mostrarDialogoJugador(null); }
     @FXML private void handleIrAUsuarios() { AppShell.getInstance().loadView(View.USUARIOS); }
-    @FXML private void handleLogout() {
-        AppShell.getInstance().setCurrentUser(null);
-        AppShell.getInstance().loadView(View.LOGIN);
-    }
+    @FXML private void handleLogout() { AppShell.getInstance().cerrarSesion(null); }
 
     private void handleEditarJugador(Jugador jugador) { mostrarDialogoJugador(jugador); }
 
+    /**
+     * Importa jugadores desde un fichero CSV o JSON en segundo plano, mostrando el progreso.
+     */
+    @FXML
+    private void handleImportar() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importar Jugadores");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV, JSON o NBAC", "*.csv", "*.json", "*.nbac"));
+        File fichero = fileChooser.showOpenDialog(jugadoresGrid.getScene().getWindow());
+        if (fichero == null) return;
+
+        Task<ImportacionService.ResultadoImportacion> task = new Task<>() {
+            @Override
+            protected ImportacionService.ResultadoImportacion call() throws Exception {
+                updateMessage("Importando " + fichero.getName() + "...");
+                return importacionService.importarJugadores(fichero.toPath(), progreso -> {
+                    updateProgress(progreso.bytesLeidos(), progreso.bytesTotales());
+                    updateMessage(progreso.importadas() + " importados, " + progreso.erroneas() + " con errores");
+                }, this::isCancelled);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            cargarJugadores();
+            mostrarInformeImportacion(task.getValue());
+        });
+        // Los lotes guardados antes de cancelar o fallar se conservan: se recarga la vista
+        task.setOnCancelled(e -> cargarJugadores());
+        task.setOnFailed(e -> {
+            cargarJugadores();
+            showAlert(Alert.AlertType.ERROR, "Error", "Error al importar: " + task.getException().getMessage());
+        });
+
+        ejecutarConProgreso(task);
+    }
+
+    @FXML
+    private void handleExportarJugadores() {
+        exportar(ExportacionService.Entidad.JUGADORES);
+    }
+
+    @FXML
+    private void handleExportarUsuarios() {
+        exportar(ExportacionService.Entidad.USUARIOS);
+    }
+
+    @FXML
+    private void handleExportarQuintetos() {
+        exportar(ExportacionService.Entidad.QUINTETOS);
+    }
+
+    private void exportar(ExportacionService.Entidad entidad) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Exportar " + entidad.getNombreFichero());
+        fileChooser.setInitialFileName(entidad.getNombreFichero() + ".csv");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON", "*.json"),
+                new FileChooser.ExtensionFilter("Columnar NBAC", "*.nbac"));
+        File elegido = fileChooser.showSaveDialog(jugadoresGrid.getScene().getWindow());
+        if (elegido == null) return;
+
+        // El formato lo decide la extensión; si no tiene una conocida, el filtro seleccionado
+        EscritorFilas.Formato formato = EscritorFilas.Formato.desdeFichero(elegido.toPath());
+        if (formato == null) {
+            formato = EscritorFilas.Formato.CSV;
+            FileChooser.ExtensionFilter filtro = fileChooser.getSelectedExtensionFilter();
+            if (filtro != null && filtro.getDescription().startsWith("JSON")) {
+                formato = EscritorFilas.Formato.JSON;
+            } else if (filtro != null && filtro.getDescription().startsWith("Columnar")) {
+                formato = EscritorFilas.Formato.COLUMNAR;
+            }
+            elegido = new File(elegido.getPath() + formato.getExtension());
+        }
+        File fichero = elegido;
+        EscritorFilas.Formato formatoFinal = formato;
+
+        Task<ExportacionService.ResultadoExportacion> task = new Task<>() {
+            @Override
+            protected ExportacionService.ResultadoExportacion call() throws Exception {
+                updateMessage("Exportando " + fichero.getName() + "...");
+                return exportacionService.exportar(entidad, fichero.toPath(), formatoFinal, (filas, total) -> {
+                    updateProgress(filas, total);
+                    updateMessage(filas + " de " + total + " filas");
+                }, this::isCancelled);
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            ExportacionService.ResultadoExportacion resultado = task.getValue();
+            showAlert(Alert.AlertType.INFORMATION, "Exportación completada",
+                    String.format("%d filas exportadas a %s (%.1f KB) en %.1f s", resultado.filas(),
+                            fichero.getName(), resultado.bytes() / 1024.0, resultado.duracionMillis() / 1000.0));
+        });
+        task.setOnFailed(e -> showAlert(Alert.AlertType.ERROR, "Error",
+                "Error al exportar: " + task.getException().getMessage()));
+
+        ejecutarConProgreso(task);
+    }
+
+    private void mostrarInformeImportacion(ImportacionService.ResultadoImportacion resultado) {
+        StringBuilder informe = new StringBuilder()
+                .append("Leídos: ").append(resultado.leidas())
+                .append("\nImportados: ").append(resultado.importadas())
+                .append("\nCon errores: ").append(resultado.erroneas())
+                .append(String.format("\nTiempo: %.1f s (%.0f filas/s)",
+                        resultado.duracionMillis() / 1000.0, resultado.filasPorSegundo()));
+        int mostrados = Math.min(10, resultado.errores().size());
+        for (int i = 0; i < mostrados; i++) {
+            ImportacionService.ErrorFila error = resultado.errores().get(i);
+            informe.append("\nLínea ").append(error.linea()).append(": ").append(error.mensaje());
+        }
+        if (resultado.erroneas() > mostrados) {
+            informe.append("\n... y ").append(resultado.erroneas() - mostrados).append(" errores más");
+        }
+        showAlert(resultado.erroneas() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING,
+                "Importación finalizada", informe.toString());
+    }
+
+    /**
+     * Lanza una tarea larga mostrando su progreso y mensaje en la barra de herramientas.
+     * Solo se permite una a la vez; el panel se oculta al terminar, fallar o cancelarse.
+     */
+    private void ejecutarConProgreso(Task<?> task) {
+        if (tareaEnCurso != null && !tareaEnCurso.isDone()) {
+            showAlert(Alert.AlertType.WARNING, "Aviso", "Ya hay una tarea en curso.");
+            return;
+        }
+        tareaEnCurso = task;
+        barraTarea.progressProperty().bind(task.progressProperty());
+        lblTarea.textProperty().bind(task.messageProperty());
+        panelTarea.setVisible(true);
+        panelTarea.setManaged(true);
+
+        task.stateProperty().addListener((obs, anterior, estado) -> {
+            if (estado == Worker.State.SUCCEEDED || estado == Worker.State.FAILED || estado == Worker.State.CANCELLED) {
+                barraTarea.progressProperty().unbind();
+                lblTarea.textProperty().unbind();
+                panelTarea.setVisible(false);
+                panelTarea.setManaged(false);
+            }
+        });
+        AppShell.getInstance().getExecutor().submit(task);
+    }
+
+    @FXML
+    private void handleCancelarTarea() {
+        if (tareaEnCurso != null) {
+            // Sin interrumpir el hilo: la importación y la exportación comprueban isCancelled() entre
+            // lotes, y una interrupción a mitad de escritura cerraría el fichero o la conexión del pool
+            tareaEnCurso.cancel(false);
+        }
+    }
+
     private void handleEliminarJugador(Jugador jugador) {
         Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
         alert.setTitle("Confirmar eliminación");
@@ -197,11 +646,11 @@ public class JugadoresController {
                 }
             };
             task.setOnSucceeded(e -> {
-                cargarJugadores();
+                quitarJugador(jugador.getId());
                 showAlert(Alert.AlertType.INFORMATION, "Éxito", "Jugador eliminado.");
             });
             task.setOnFailed(e -> showAlert(Alert.AlertType.ERROR, "Error", task.getException().getMessage()));
-            new Thread(task).start();
+            AppShell.getInstance().getExecutor().submit(task);
         }
     }
 
@@ -313,11 +762,12 @@ public class JugadoresController {
         Optional<Jugador> result = dialog.showAndWait();
         result.ifPresent(jugador -> {
             final File archivoParaCopiar = imagenSeleccionadaTemp;
+            final boolean esNuevo = jugador.getId() == 0;
             
             Platform.runLater(() -> {
-                Task<Void> task = new Task<>() {
+                Task<Jugador> task = new Task<>() {
                     @Override
-                    protected Void call() throws Exception {
+                    protected Jugador call() throws Exception {
                         if (archivoParaCopiar != null) {
                             File carpetaImagenes = new File("imagenes");
                             if (!carpetaImagenes.exists()) {
@@ -337,14 +787,15 @@ public class JugadoresController {
                             jugador.setImageUrl("imagenes" + File.separator + nombreArchivo);
                         }
 
-                        if (jugador.getId() == 0) jugadorService.registrarJugador(jugador);
-                        else jugadorService.actualizarJugador(jugador);
-                        return null;
+                        if (esNuevo) return jugadorService.registrarJugador(jugador);
+                        else return jugadorService.actualizarJugador(jugador);
                     }
                 };
                 
                 task.setOnSucceeded(e -> {
-                    cargarJugadores();
+                    // Solo se actualiza la tarjeta afectada, sin volver a consultar todos los jugadores
+                    if (esNuevo) insertarJugador(task.getValue());
+                    else reemplazarJugador(task.getValue());
                     showAlert(Alert.AlertType.INFORMATION, "Éxito", "Jugador guardado correctamente.");
                 });
                 
@@ -353,7 +804,7 @@ public class JugadoresController {
                     showAlert(Alert.AlertType.ERROR, "Error", "Error al guardar: " + task.getException().getMessage());
                 });
                 
-                new Thread(task).start();
+                AppShell.getInstance().getExecutor().submit(task);
             });
         });
     }
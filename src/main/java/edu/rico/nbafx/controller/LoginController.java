@@ -2,20 +2,31 @@ package edu.rico.nbafx.controller;
 
 import edu.rico.nbafx.model.Rol;
 import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.service.LimiteIntentosException;
 import edu.rico.nbafx.service.UsuarioService;
 import edu.rico.nbafx.util.AppShell;
+import edu.rico.nbafx.util.Sesion;
+import edu.rico.nbafx.util.TaskExecutor;
 import edu.rico.nbafx.util.View;
+import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 
+import java.sql.SQLException;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * Controlador para la vista de inicio de sesión.
  * Gestiona la autenticación y el registro de usuarios de forma asíncrona.
  */
 public class LoginController {
+    private static final Logger LOGGER = Logger.getLogger(LoginController.class.getName());
+
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private Label errorLabel;
@@ -23,9 +34,20 @@ public class LoginController {
     // Inyección de dependencia del servicio
     private UsuarioService usuarioService = new UsuarioService();
 
+    /**
+     * Muestra, si lo hay, el motivo por el que se cerró la sesión anterior (p. ej. inactividad).
+     */
+    @FXML
+    public void initialize() {
+        String aviso = AppShell.getInstance().tomarAvisoLogin();
+        if (aviso != null) {
+            errorLabel.setText(aviso);
+        }
+    }
+
     /**
      * Maneja el evento de inicio de sesión.
-     * Ejecuta la validación en un hilo separado para no congelar la UI.
+     * Ejecuta la validación fuera del hilo de JavaFX para no congelar la UI.
      */
     @FXML
     private void handleLogin() {
@@ -41,45 +63,50 @@ public class LoginController {
         errorLabel.setText("Verificando credenciales...");
         setInputsDisabled(true);
 
-        // Tarea asíncrona para el login
-        Task<Optional<Usuario>> loginTask = new Task<>() {
-            @Override
-            protected Optional<Usuario> call() throws Exception {
-                return usuarioService.login(username, password);
-            }
-        };
-
-        loginTask.setOnSucceeded(event -> {
-            setInputsDisabled(false);
-            Optional<Usuario> usuarioOpt = loginTask.getValue();
-            
-            if (usuarioOpt.isPresent()) {
-                Usuario usuario = usuarioOpt.get();
-                errorLabel.setText("Login correcto");
-                
-                // Guardar usuario en sesión
-                AppShell.getInstance().setCurrentUser(usuario);
-                
-                // Redirección basada en Rol
-                if (usuario.getRol() == Rol.ADMIN) {
-                    abrirVista(View.USUARIOS, usuario);
-                } else {
-                    abrirVista(View.JUGADORES, usuario);
-                }
-                
-            } else {
-                errorLabel.setText("Usuario o contraseña incorrectos");
-            }
-        });
-
-        loginTask.setOnFailed(event -> {
-            setInputsDisabled(false);
-            errorLabel.setText("Error de conexión");
-            Throwable ex = loginTask.getException();
-            ex.printStackTrace(); // En producción usar logger
-        });
-
-        new Thread(loginTask).start();
+        // Búsqueda en el ejecutor de tareas y verificación en el pool de hash, sin bloquear la UI
+        TaskExecutor executor = AppShell.getInstance().getExecutor();
+        usuarioService.loginAsync(username, password, UsuarioService.CLIENTE_LOCAL, executor)
+                .thenApplyAsync(usuario -> {
+                    // La sesión (quinteto, permisos) se prepara una sola vez, antes de volver a la UI
+                    try {
+                        return usuario.isPresent() ? Sesion.abrir(usuario.get()) : null;
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor)
+                .whenComplete((sesion, error) -> Platform.runLater(() -> {
+                    setInputsDisabled(false);
+                    if (error != null) {
+                        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        if (causa instanceof LimiteIntentosException) {
+                            // Límite de intentos: no es un error de la aplicación
+                            errorLabel.setText(causa.getMessage());
+                            return;
+                        }
+                        errorLabel.setText(causa instanceof RejectedExecutionException
+                                ? "Demasiados intentos en curso, inténtelo de nuevo" : "Error de conexión");
+                        LOGGER.log(Level.WARNING, "Error al iniciar sesión", causa);
+                        return;
+                    }
+
+                    if (sesion != null) {
+                        Usuario usuario = sesion.getUsuario();
+                        errorLabel.setText("Login correcto");
+
+                        // Instalar la sesión (vigila también la inactividad)
+                        AppShell.getInstance().iniciarSesion(sesion);
+
+                        // Redirección basada en Rol
+                        if (usuario.getRol() == Rol.ADMIN) {
+                            abrirVista(View.USUARIOS);
+                        } else {
+                            abrirVista(View.JUGADORES);
+                        }
+
+                    } else {
+                        errorLabel.setText("Usuario o contraseña incorrectos");
+                    }
+                }));
     }
 
     /**
@@ -139,19 +166,14 @@ public class LoginController {
             showAlert(Alert.AlertType.ERROR, "Error", "Fallo al registrar: " + registerTask.getException().getMessage())
         );
 
-        new Thread(registerTask).start();
+        AppShell.getInstance().getExecutor().submit(registerTask);
     }
 
     /**
-     * Carga y muestra la vista correspondiente usando AppShell.
+     * Carga y muestra la vista correspondiente usando AppShell. Las vistas toman el usuario de la sesión.
      */
-    private void abrirVista(View view, Usuario usuario) {
-        Object controller = AppShell.getInstance().loadView(view);
-        
-        // Configuramos el controlador si es necesario
-        if (controller instanceof UsuariosController) {
-            ((UsuariosController) controller).setUsuario(usuario);
-        } 
+    private void abrirVista(View view) {
+        AppShell.getInstance().loadView(view);
     }
 
     private void setInputsDisabled(boolean disabled) {
@@ -4,7 +4,9 @@ import edu.rico.nbafx.model.Rol;
 import edu.rico.nbafx.model.Usuario;
 import edu.rico.nbafx.service.UsuarioService;
 import edu.rico.nbafx.util.AppShell;
+import edu.rico.nbafx.util.Sesion;
 import edu.rico.nbafx.util.View;
+import edu.rico.nbafx.util.VistaRefrescable;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
@@ -23,7 +25,7 @@ import java.util.Optional;
  * Controlador para la vista de gestión de usuarios (usuarios-view.fxml).
  * Maneja la lógica de visualización según el rol del usuario y las operaciones CRUD.
  */
-public class UsuariosController {
+public class UsuariosController implements VistaRefrescable {
 
     @FXML private Label welcomeLabel;
     @FXML private VBox adminPanel;
@@ -37,6 +39,12 @@ public class UsuariosController {
     private Usuario currentUser;
     private ObservableList<Usuario> usuariosList = FXCollections.observableArrayList();
 
+    /**
+     * Estado de la vista que se conserva en la sesión: la última lista de usuarios cargada.
+     */
+    private record EstadoUsuarios(List<Usuario> usuarios) {
+    }
+
     /**
      * Inicializa el controlador. Configura las columnas de la tabla.
      */
@@ -59,10 +67,11 @@ public class UsuariosController {
         // Enlazar la lista observable a la tabla
         usuariosTable.setItems(usuariosList);
         
-        // Recuperar usuario de la sesión si existe (al volver de otra pantalla)
-        Usuario sessionUser = AppShell.getInstance().getCurrentUser();
-        if (sessionUser != null) {
-            setUsuario(sessionUser);
+        // Recuperar usuario de la sesión si existe; si la vista se precarga, la lista de usuarios
+        // se consulta desde el hilo de JavaFX y solo si la sesión sigue abierta
+        Sesion sesion = AppShell.getInstance().getSesion();
+        if (sesion != null) {
+            AppShell.getInstance().ejecutarEnSesion(sesion, () -> setUsuario(sesion.getUsuario()));
         }
     }
 
@@ -79,13 +88,24 @@ public class UsuariosController {
         if (usuario.getRol() == Rol.ADMIN) {
             adminPanel.setVisible(true);
             adminPanel.setManaged(true);
-            cargarUsuarios();
+            mostrarUsuarios();
         } else {
             adminPanel.setVisible(false);
             adminPanel.setManaged(false);
         }
     }
 
+    /**
+     * Al volver a la vista conservada se muestra la lista de usuarios de la sesión, que se
+     * recarga tras cada alta, modificación o baja.
+     */
+    @Override
+    public void refrescar() {
+        if (currentUser != null && currentUser.getRol() == Rol.ADMIN) {
+            mostrarUsuarios();
+        }
+    }
+
     /**
      * Navega a la vista de gestión de jugadores.
      */
@@ -95,7 +115,21 @@ public class UsuariosController {
     }
 
     /**
-     * Carga la lista de usuarios desde la base de datos en un hilo separado.
+     * Muestra la lista de usuarios guardada en la sesión o, si aún no se ha cargado, la consulta.
+     */
+    private void mostrarUsuarios() {
+        Sesion sesion = AppShell.getInstance().getSesion();
+        EstadoUsuarios estado = sesion != null ? sesion.getEstado(View.USUARIOS, EstadoUsuarios.class) : null;
+        if (estado != null) {
+            usuariosList.setAll(estado.usuarios());
+        } else {
+            cargarUsuarios();
+        }
+    }
+
+    /**
+     * Carga la lista de usuarios desde la base de datos en un hilo separado y la guarda en la
+     * sesión para las próximas visitas a la vista (se vuelve a cargar tras cada cambio).
      */
     private void cargarUsuarios() {
         Task<List<Usuario>> task = new Task<>() {
@@ -107,13 +141,17 @@ public class UsuariosController {
 
         task.setOnSucceeded(e -> {
             usuariosList.setAll(task.getValue());
+            Sesion sesion = AppShell.getInstance().getSesion();
+            if (sesion != null) {
+                sesion.setEstado(View.USUARIOS, new EstadoUsuarios(List.copyOf(task.getValue())));
+            }
         });
 
         task.setOnFailed(e -> {
             showAlert(Alert.AlertType.ERROR, "Error", "No se pudieron cargar los usuarios: " + task.getException().getMessage());
         });
 
-        new Thread(task).start();
+        AppShell.getInstance().getExecutor().submit("usuarios.cargar", task);
     }
 
     /**
@@ -166,7 +204,7 @@ public class UsuariosController {
                 showAlert(Alert.AlertType.ERROR, "Error", "No se pudo agregar el usuario: " + task.getException().getMessage());
             });
 
-            new Thread(task).start();
+            AppShell.getInstance().getExecutor().submit(task);
         });
     }
 
@@ -229,7 +267,7 @@ public class UsuariosController {
                 showAlert(Alert.AlertType.ERROR, "Error", "No se pudo actualizar el usuario: " + task.getException().getMessage());
             });
 
-            new Thread(task).start();
+            AppShell.getInstance().getExecutor().submit(task);
         });
     }
 
@@ -268,7 +306,7 @@ public class UsuariosController {
                 showAlert(Alert.AlertType.ERROR, "Error", "No se pudo eliminar el usuario: " + task.getException().getMessage());
             });
 
-            new Thread(task).start();
+            AppShell.getInstance().getExecutor().submit(task);
         }
     }
 
@@ -277,8 +315,7 @@ public class UsuariosController {
      */
     @FXML
     private void handleLogout() {
-        AppShell.getInstance().setCurrentUser(null); // Limpiar sesión
-        AppShell.getInstance().loadView(View.LOGIN);
+        AppShell.getInstance().cerrarSesion(null); // Libera la sesión y vuelve al login
     }
 
     /**
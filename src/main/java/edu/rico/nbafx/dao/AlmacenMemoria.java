@@ -0,0 +1,267 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+import edu.rico.nbafx.model.Rol;
+import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.util.AppConfig;
+import edu.rico.nbafx.util.EscritorFilas;
+import edu.rico.nbafx.util.EscritorFilas.Columna;
+import edu.rico.nbafx.util.EscritorFilas.Formato;
+import edu.rico.nbafx.util.EscritorFilas.Tipo;
+import edu.rico.nbafx.util.EsquemaBaseDatos;
+import edu.rico.nbafx.util.LectorFilas;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Almacén en memoria de la aplicación ({@code db.backend=memoria}).
+ * <p>
+ * Agrupa los DAO en memoria de las tres tablas y mantiene entre ellos las claves ajenas y los
+ * borrados en cascada de 'quintetos'. Al abrirse carga la última instantánea de
+ * {@code db.memoria.snapshotDir} si existe y, si no, los datos de prueba de
+ * {@code sql/init_jugadores.sql}. Sin ese directorio no se escribe nada en disco.
+ * <p>
+ * La instantánea es un fichero .nbac por tabla (ver {@link edu.rico.nbafx.util.EscritorColumnar});
+ * cada uno se escribe como temporal y se renombra al terminar, así que una escritura interrumpida
+ * no estropea la instantánea anterior.
+ */
+final class AlmacenMemoria {
+
+    private static final Logger LOGGER = Logger.getLogger(AlmacenMemoria.class.getName());
+
+    private static final String USUARIOS = "usuarios";
+    private static final String JUGADORES = "jugadores";
+    private static final String QUINTETOS = "quintetos";
+
+    private static final List<Columna> COLUMNAS_USUARIO = List.of(
+            new Columna("id", Tipo.INT),
+            new Columna("nombre", Tipo.STRING),
+            new Columna("password", Tipo.STRING),
+            new Columna("rol", Tipo.STRING),
+            new Columna("fecha_creacion", Tipo.STRING));
+
+    private static final List<Columna> COLUMNAS_JUGADOR = List.of(
+            new Columna("id", Tipo.INT),
+            new Columna("nombre", Tipo.STRING),
+            new Columna("dorsal", Tipo.INT),
+            new Columna("equipo", Tipo.STRING),
+            new Columna("posicion", Tipo.STRING),
+            new Columna("numero_anillos", Tipo.INT),
+            new Columna("altura", Tipo.DOUBLE),
+            new Columna("peso", Tipo.DOUBLE),
+            new Columna("image_url", Tipo.STRING),
+            new Columna("version", Tipo.INT));
+
+    private static final List<Columna> COLUMNAS_QUINTETO = List.of(
+            new Columna("usuario_id", Tipo.INT),
+            new Columna("jugador_id", Tipo.INT));
+
+    private final MemoriaUsuarioDAO usuarios = new MemoriaUsuarioDAO();
+    private final MemoriaJugadorDAO jugadores = new MemoriaJugadorDAO();
+    private final MemoriaQuintetoDAO quintetos = new MemoriaQuintetoDAO(usuarios::existe, jugadores::existe);
+    private final Path directorio;
+
+    /**
+     * Crea un almacén vacío.
+     *
+     * @param directorio Directorio de las instantáneas, o null para no usar el disco.
+     */
+    AlmacenMemoria(Path directorio) {
+        this.directorio = directorio;
+        jugadores.alEliminar(quintetos::quitarJugador);
+        usuarios.alEliminar(quintetos::quitarUsuario);
+    }
+
+    /**
+     * Crea el almacén configurado en config.properties y carga sus datos.
+     */
+    static AlmacenMemoria fromConfig() {
+        String dir = AppConfig.get("db.memoria.snapshotDir", "");
+        AlmacenMemoria almacen = new AlmacenMemoria(dir.isBlank() ? null : Paths.get(dir));
+        almacen.cargar();
+        return almacen;
+    }
+
+    MemoriaUsuarioDAO usuarios() {
+        return usuarios;
+    }
+
+    MemoriaJugadorDAO jugadores() {
+        return jugadores;
+    }
+
+    MemoriaQuintetoDAO quintetos() {
+        return quintetos;
+    }
+
+    /**
+     * Carga la instantánea si existe o, si no, los datos de prueba del script.
+     * Un fallo se registra y deja el almacén con lo que se haya podido cargar.
+     */
+    void cargar() {
+        long inicio = System.nanoTime();
+        try {
+            String origen;
+            if (directorio != null && Files.exists(fichero(USUARIOS))) {
+                cargarInstantanea();
+                origen = directorio.toString();
+            } else {
+                cargarDatosIniciales();
+                origen = "sql/init_jugadores.sql";
+            }
+            LOGGER.info(String.format("Almacén en memoria cargado desde %s: %d usuarios, %d jugadores, %d en quintetos (%d ms)",
+                    origen, usuarios.count(), jugadores.fingerprint().count(), quintetos.count(),
+                    (System.nanoTime() - inicio) / 1_000_000));
+        } catch (IOException | SQLException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "No se pudo cargar el almacén en memoria", e);
+        }
+    }
+
+    /**
+     * Escribe la instantánea de las tres tablas. No hace nada si no hay directorio configurado.
+     *
+     * @throws IOException Si no se puede escribir algún fichero.
+     */
+    void guardar() throws IOException {
+        if (directorio == null) {
+            return;
+        }
+        Files.createDirectories(directorio);
+        List<Object[]> filas = new ArrayList<>();
+        for (Usuario u : usuarios.findAll()) {
+            filas.add(new Object[]{u.getId(), u.getNombre(), u.getPassword(), u.getRol().name(),
+                    u.getFechaCreacion() != null ? u.getFechaCreacion().toString() : null});
+        }
+        escribir(USUARIOS, COLUMNAS_USUARIO, filas);
+
+        filas.clear();
+        for (Jugador j : jugadores.loadAll()) {
+            filas.add(new Object[]{j.getId(), j.getNombre(), j.getDorsal(), j.getEquipo(), j.getPosicion().name(),
+                    j.getNumeroAnillos(), j.getAltura(), j.getPeso(), j.getImageUrl(), j.getVersion()});
+        }
+        escribir(JUGADORES, COLUMNAS_JUGADOR, filas);
+
+        filas.clear();
+        quintetos.stream(1000).forEach(e -> filas.add(new Object[]{e.usuarioId(), e.jugadorId()}));
+        escribir(QUINTETOS, COLUMNAS_QUINTETO, filas);
+        LOGGER.info("Instantánea del almacén en memoria guardada en " + directorio);
+    }
+
+    private void cargarInstantanea() throws IOException, SQLException {
+        try (LectorFilas lector = LectorFilas.abrir(fichero(USUARIOS))) {
+            for (LectorFilas.Fila fila = lector.siguiente(); fila != null; fila = lector.siguiente()) {
+                usuarios.restaurar(usuario(fila.valores()));
+            }
+        }
+        try (LectorFilas lector = LectorFilas.abrir(fichero(JUGADORES))) {
+            for (LectorFilas.Fila fila = lector.siguiente(); fila != null; fila = lector.siguiente()) {
+                jugadores.restaurar(jugador(fila.valores()));
+            }
+        }
+        Path ficheroQuintetos = fichero(QUINTETOS);
+        if (Files.exists(ficheroQuintetos)) {
+            try (LectorFilas lector = LectorFilas.abrir(ficheroQuintetos)) {
+                for (LectorFilas.Fila fila = lector.siguiente(); fila != null; fila = lector.siguiente()) {
+                    anadirAQuinteto(fila.valores());
+                }
+            }
+        }
+    }
+
+    private void cargarDatosIniciales() throws SQLException {
+        for (EsquemaBaseDatos.Insercion insercion : EsquemaBaseDatos.leerInserciones()) {
+            List<Jugador> nuevos = new ArrayList<>();
+            for (List<String> valores : insercion.filas()) {
+                Map<String, String> fila = new HashMap<>();
+                for (int i = 0; i < insercion.columnas().size(); i++) {
+                    fila.put(LectorFilas.normalizarClave(insercion.columnas().get(i)), valores.get(i));
+                }
+                switch (insercion.tabla().toLowerCase(Locale.ROOT)) {
+                    case USUARIOS -> usuarios.save(usuario(fila));
+                    case JUGADORES -> nuevos.add(jugador(fila));
+                    case QUINTETOS -> anadirAQuinteto(fila);
+                    default -> LOGGER.warning("Tabla desconocida en el script: " + insercion.tabla());
+                }
+            }
+            jugadores.saveAll(nuevos);
+        }
+    }
+
+    // Las filas huérfanas de una instantánea incompleta se descartan, como haría la clave ajena
+    private void anadirAQuinteto(Map<String, String> fila) {
+        try {
+            quintetos.addJugadorToQuinteto(Integer.parseInt(fila.get("usuarioid")), Integer.parseInt(fila.get("jugadorid")));
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Fila de quinteto descartada: " + fila, e);
+        }
+    }
+
+    /**
+     * Construye un usuario a partir de una fila con claves normalizadas (el ID es opcional).
+     */
+    private static Usuario usuario(Map<String, String> fila) {
+        Usuario usuario = new Usuario(fila.get("nombre"), fila.get("password"), Rol.valueOf(fila.get("rol")));
+        if (fila.get("id") != null) {
+            usuario.setId(Integer.parseInt(fila.get("id")));
+        }
+        if (fila.get("fechacreacion") != null) {
+            usuario.setFechaCreacion(LocalDateTime.parse(fila.get("fechacreacion")));
+        }
+        return usuario;
+    }
+
+    /**
+     * Construye un jugador a partir de una fila con claves normalizadas (el ID es opcional).
+     */
+    private static Jugador jugador(Map<String, String> fila) {
+        Jugador jugador = new Jugador(fila.get("nombre"), Integer.parseInt(fila.get("dorsal")), fila.get("equipo"),
+                Posicion.valueOf(fila.get("posicion")),
+                fila.get("numeroanillos") != null ? Integer.parseInt(fila.get("numeroanillos")) : 0,
+                Double.parseDouble(fila.get("altura")), Double.parseDouble(fila.get("peso")), fila.get("imageurl"));
+        if (fila.get("id") != null) {
+            jugador.setId(Integer.parseInt(fila.get("id")));
+        }
+        if (fila.get("version") != null) {
+            jugador.setVersion(Integer.parseInt(fila.get("version")));
+        }
+        return jugador;
+    }
+
+    private void escribir(String tabla, List<Columna> columnas, List<Object[]> filas) throws IOException {
+        Path destino = fichero(tabla);
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".part");
+        try {
+            try (EscritorFilas escritor = EscritorFilas.abrir(temporal, Formato.COLUMNAR, columnas)) {
+                for (Object[] fila : filas) {
+                    escritor.escribir(fila);
+                }
+            }
+            try {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private Path fichero(String tabla) {
+        return directorio.resolve(tabla + Formato.COLUMNAR.getExtension());
+    }
+}
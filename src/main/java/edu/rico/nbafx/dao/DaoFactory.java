@@ -0,0 +1,83 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.util.DatabaseBackend;
+import edu.rico.nbafx.util.DatabaseConnection;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Punto único para obtener los DAO según el motor de {@code db.backend}: los de JDBC para MySQL
+ * y H2, o los del almacén en memoria ({@link AlmacenMemoria}) para {@code memoria}.
+ * Devuelve siempre las mismas instancias, creadas en el primer acceso.
+ */
+public final class DaoFactory {
+
+    private static final Logger LOGGER = Logger.getLogger(DaoFactory.class.getName());
+
+    private static final boolean EN_MEMORIA = DatabaseBackend.fromConfig() == DatabaseBackend.MEMORIA;
+
+    private static volatile boolean memoriaAbierta = false;
+
+    /**
+     * Constructor privado para evitar instanciación de la clase utilitaria.
+     */
+    private DaoFactory() { }
+
+    private static final class Jdbc {
+        private static final JugadorDAO JUGADORES = new JdbcJugadorDAO();
+        private static final UsuarioDAO USUARIOS = new JdbcUsuarioDAO();
+        private static final QuintetoDAO QUINTETOS = new JdbcQuintetoDAO();
+    }
+
+    // El almacén se crea y se carga en el primer acceso
+    private static final class Memoria {
+        private static final AlmacenMemoria ALMACEN = AlmacenMemoria.fromConfig();
+
+        static {
+            memoriaAbierta = true;
+        }
+    }
+
+    public static JugadorDAO jugadores() {
+        return EN_MEMORIA ? Memoria.ALMACEN.jugadores() : Jdbc.JUGADORES;
+    }
+
+    public static UsuarioDAO usuarios() {
+        return EN_MEMORIA ? Memoria.ALMACEN.usuarios() : Jdbc.USUARIOS;
+    }
+
+    public static QuintetoDAO quintetos() {
+        return EN_MEMORIA ? Memoria.ALMACEN.quintetos() : Jdbc.QUINTETOS;
+    }
+
+    /**
+     * Prepara el motor configurado antes de su primer uso: abre el pool de conexiones o carga el
+     * almacén en memoria. Pensado para ejecutarse en segundo plano al arrancar.
+     *
+     * @throws SQLException Si no se puede conectar con la base de datos.
+     */
+    public static void precalentar() throws SQLException {
+        if (EN_MEMORIA) {
+            Memoria.ALMACEN.jugadores();
+        } else {
+            DatabaseConnection.precalentar();
+        }
+    }
+
+    /**
+     * Guarda la instantánea del almacén en memoria, si se ha usado y tiene directorio configurado.
+     * Se invoca al cerrar la aplicación.
+     */
+    public static void cerrar() {
+        if (memoriaAbierta) {
+            try {
+                Memoria.ALMACEN.guardar();
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "No se pudo guardar la instantánea del almacén en memoria", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Copia binaria del catálogo de jugadores en disco, para que la vista pueda pintarse al arrancar
+ * sin esperar a la base de datos (ver {@link JugadorCache}).
+ * <p>
+ * Formato (big-endian):
+ * <pre>
+ * cabecera (72 bytes): "NBAJ" | formato | nº registros | tamaño de registro | escrito en (epoch ms)
+ *                      | huella: count, maxId, sumIds, sumVersiones | inicio de la tabla de cadenas
+ *                      | CRC32C del resto
+ * registros (48 bytes cada uno): altura, peso (double) | id, dorsal, anillos, posición (ordinal o -1)
+ *                                | nombre, equipo, imagen (índice en la tabla de cadenas o -1) | versión
+ * tabla de cadenas: nº de cadenas | por cada una, longitud y bytes UTF-8
+ * </pre>
+ * Las cadenas se guardan una sola vez (los nombres de equipo se repiten mucho) y al leer se
+ * comparte la misma instancia entre todos los jugadores que la usan. El fichero se lee
+ * proyectándolo en memoria y se descarta entero si la cabecera o el CRC no cuadran.
+ */
+final class InstantaneaJugadores {
+
+    private static final int MAGIC = 0x4E42414A; // "NBAJ"
+    private static final int FORMATO = 2;
+    private static final int TAMANO_CABECERA = 72;
+    private static final int TAMANO_REGISTRO = 48;
+    private static final int SIN_VALOR = -1;
+
+    private static final Posicion[] POSICIONES = Posicion.values();
+
+    /**
+     * Contenido leído de una instantánea.
+     *
+     * @param jugadores Jugadores en el orden en que se guardaron.
+     * @param version Huella de la tabla en el momento de escribirla.
+     * @param escritoEn Momento de la escritura, en milisegundos desde epoch.
+     */
+    record Contenido(List<Jugador> jugadores, JugadorDAO.Version version, long escritoEn) {
+    }
+
+    /**
+     * Constructor privado para evitar instanciación de la clase utilitaria.
+     */
+    private InstantaneaJugadores() { }
+
+    /**
+     * Escribe la instantánea en un temporal y lo renombra al terminar, de modo que una escritura
+     * interrumpida no estropea la anterior.
+     *
+     * @param fichero Fichero de destino.
+     * @param jugadores Jugadores a guardar.
+     * @param version Huella de la tabla que representan.
+     * @throws IOException Si no se puede escribir el fichero.
+     */
+    static void escribir(Path fichero, Collection<Jugador> jugadores, JugadorDAO.Version version) throws IOException {
+        Map<String, Integer> indices = new HashMap<>();
+        List<byte[]> cadenas = new ArrayList<>();
+        ByteBuffer registros = ByteBuffer.allocate(jugadores.size() * TAMANO_REGISTRO);
+        for (Jugador jugador : jugadores) {
+            registros.putDouble(jugador.getAltura())
+                    .putDouble(jugador.getPeso())
+                    .putInt(jugador.getId())
+                    .putInt(jugador.getDorsal())
+                    .putInt(jugador.getNumeroAnillos())
+                    .putInt(jugador.getPosicion() != null ? jugador.getPosicion().ordinal() : SIN_VALOR)
+                    .putInt(indice(jugador.getNombre(), indices, cadenas))
+                    .putInt(indice(jugador.getEquipo(), indices, cadenas))
+                    .putInt(indice(jugador.getImageUrl(), indices, cadenas))
+                    .putInt(jugador.getVersion());
+        }
+        registros.flip();
+
+        int tamanoCadenas = 4;
+        for (byte[] cadena : cadenas) {
+            tamanoCadenas += 4 + cadena.length;
+        }
+        ByteBuffer tabla = ByteBuffer.allocate(tamanoCadenas).putInt(cadenas.size());
+        for (byte[] cadena : cadenas) {
+            tabla.putInt(cadena.length).put(cadena);
+        }
+        tabla.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(registros.duplicate());
+        crc.update(tabla.duplicate());
+
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA)
+                .putInt(MAGIC)
+                .putInt(FORMATO)
+                .putInt(jugadores.size())
+                .putInt(TAMANO_REGISTRO)
+                .putLong(System.currentTimeMillis())
+                .putLong(version.count())
+                .putLong(version.maxId())
+                .putLong(version.sumIds())
+                .putLong(version.sumVersiones())
+                .putLong(TAMANO_CABECERA + (long) registros.remaining())
+                .putLong(crc.getValue());
+        cabecera.flip();
+
+        Path padre = fichero.toAbsolutePath().getParent();
+        if (padre != null) {
+            Files.createDirectories(padre);
+        }
+        Path temporal = fichero.resolveSibling(fichero.getFileName() + ".part");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer[] partes = {cabecera, registros, tabla};
+                while (tabla.hasRemaining()) {
+                    canal.write(partes);
+                }
+            }
+            try {
+                Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporal, fichero, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    /**
+     * Lee una instantánea proyectando el fichero en memoria.
+     *
+     * @param fichero Fichero escrito con {@link #escribir}.
+     * @return Su contenido.
+     * @throws IOException Si no se puede leer o no es una instantánea válida.
+     */
+    static Contenido leer(Path fichero) throws IOException {
+        MappedByteBuffer datos;
+        try (FileChannel canal = FileChannel.open(fichero, StandardOpenOption.READ)) {
+            if (canal.size() < TAMANO_CABECERA || canal.size() > Integer.MAX_VALUE) {
+                throw invalida(fichero, "tamaño " + canal.size());
+            }
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+
+        if (datos.getInt(0) != MAGIC || datos.getInt(4) != FORMATO || datos.getInt(12) != TAMANO_REGISTRO) {
+            throw invalida(fichero, "cabecera desconocida");
+        }
+        int registros = datos.getInt(8);
+        long escritoEn = datos.getLong(16);
+        JugadorDAO.Version version = new JugadorDAO.Version(datos.getLong(24), datos.getLong(32), datos.getLong(40),
+                datos.getLong(48));
+        long inicioCadenas = datos.getLong(56);
+        if (registros < 0 || inicioCadenas != TAMANO_CABECERA + (long) registros * TAMANO_REGISTRO
+                || inicioCadenas + 4 > datos.capacity()) {
+            throw invalida(fichero, "tamaños incoherentes");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(datos.slice(TAMANO_CABECERA, datos.capacity() - TAMANO_CABECERA));
+        if (crc.getValue() != datos.getLong(64)) {
+            throw invalida(fichero, "CRC incorrecto");
+        }
+
+        ByteBuffer tabla = datos.slice((int) inicioCadenas, datos.capacity() - (int) inicioCadenas);
+        String[] cadenas = new String[tabla.getInt()];
+        for (int i = 0; i < cadenas.length; i++) {
+            byte[] bytes = new byte[tabla.getInt()];
+            tabla.get(bytes);
+            cadenas[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        List<Jugador> jugadores = new ArrayList<>(registros);
+        for (int i = 0, pos = TAMANO_CABECERA; i < registros; i++, pos += TAMANO_REGISTRO) {
+            int posicion = datos.getInt(pos + 28);
+            Jugador jugador = new Jugador(cadena(cadenas, datos.getInt(pos + 32)), datos.getInt(pos + 20),
+                    cadena(cadenas, datos.getInt(pos + 36)), posicion == SIN_VALOR ? null : POSICIONES[posicion],
+                    datos.getInt(pos + 24), datos.getDouble(pos), datos.getDouble(pos + 8),
+                    cadena(cadenas, datos.getInt(pos + 40)));
+            jugador.setId(datos.getInt(pos + 16));
+            jugador.setVersion(datos.getInt(pos + 44));
+            jugadores.add(jugador);
+        }
+        return new Contenido(jugadores, version, escritoEn);
+    }
+
+    private static int indice(String valor, Map<String, Integer> indices, List<byte[]> cadenas) {
+        if (valor == null) {
+            return SIN_VALOR;
+        }
+        return indices.computeIfAbsent(valor, v -> {
+            cadenas.add(v.getBytes(StandardCharsets.UTF_8));
+            return cadenas.size() - 1;
+        });
+    }
+
+    private static String cadena(String[] cadenas, int indice) {
+        return indice == SIN_VALOR ? null : cadenas[indice];
+    }
+
+    private static IOException invalida(Path fichero, String motivo) {
+        return new IOException("Instantánea de jugadores no válida (" + motivo + "): " + fichero);
+    }
+}
@@ -0,0 +1,262 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.util.AppConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utilidades comunes de los DAO para operaciones por lotes con JDBC: escrituras masivas y
+ * lecturas en streaming por cursor de clave (keyset).
+ * <p>
+ * Todas las sentencias de un lote usan el mismo SQL, de modo que el driver de MySQL puede
+ * reescribir los INSERT como un único INSERT multi-fila si la URL incluye
+ * {@code rewriteBatchedStatements=true}. Cada operación se ejecuta en una sola transacción:
+ * o se aplican todas las filas o ninguna.
+ */
+final class JdbcBatch {
+
+    /** Filas por llamada a executeBatch (y por lista IN en los borrados). */
+    static final int DEFAULT_BATCH_SIZE = Math.max(1, AppConfig.getInt("db.batchSize", 500));
+
+    private JdbcBatch() {
+    }
+
+    /**
+     * Asigna los parámetros de un elemento a la sentencia.
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /**
+     * Recibe la clave generada para un elemento insertado.
+     */
+    @FunctionalInterface
+    interface KeySetter<T> {
+        void setKey(T item, int key);
+    }
+
+    /**
+     * Trabajo que se ejecuta dentro de una transacción.
+     */
+    @FunctionalInterface
+    interface Work<R> {
+        R run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Carga el lote de filas que sigue a la última leída (null para el primero), en orden de clave.
+     */
+    @FunctionalInterface
+    interface LoteLoader<T> {
+        List<T> cargar(T ultimo, int limite) throws SQLException;
+    }
+
+    /**
+     * Crea un Stream perezoso que lee la tabla por lotes de clave creciente.
+     * <p>
+     * Cada lote es una consulta independiente con su propia conexión del pool, que se devuelve en
+     * cuanto se lee: el recorrido no retiene conexiones ni cursores abiertos entre lotes y la
+     * memoria queda acotada al tamaño de lote. Las filas insertadas o borradas durante el
+     * recorrido no provocan saltos ni duplicados. Cerrar el Stream detiene la lectura.
+     * <p>
+     * Los errores de base de datos se propagan como {@link IllegalStateException} (los Stream no
+     * admiten excepciones comprobadas) con la {@link SQLException} original como causa.
+     *
+     * @param tamanoLote Filas por consulta.
+     * @param loader Consulta de un lote a partir de la última fila leída.
+     * @return El Stream de filas.
+     */
+    static <T> Stream<T> stream(int tamanoLote, LoteLoader<T> loader) {
+        LectorPorLotes<T> lector = new LectorPorLotes<>(tamanoLote, loader);
+        return StreamSupport.stream(lector, false).onClose(lector::cerrar);
+    }
+
+    /**
+     * Spliterator que pide el siguiente lote cuando se agota el actual.
+     */
+    private static final class LectorPorLotes<T> extends Spliterators.AbstractSpliterator<T> {
+        private final int tamanoLote;
+        private final LoteLoader<T> loader;
+        private final Deque<T> lote = new ArrayDeque<>();
+        private T ultimo;
+        private boolean agotado;
+
+        private LectorPorLotes(int tamanoLote, LoteLoader<T> loader) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.tamanoLote = Math.max(1, tamanoLote);
+            this.loader = loader;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (lote.isEmpty() && !agotado) {
+                try {
+                    List<T> filas = loader.cargar(ultimo, tamanoLote);
+                    lote.addAll(filas);
+                    agotado = filas.size() < tamanoLote;
+                    if (!filas.isEmpty()) {
+                        ultimo = filas.get(filas.size() - 1);
+                    }
+                } catch (SQLException e) {
+                    agotado = true;
+                    throw new IllegalStateException("Error leyendo por lotes", e);
+                }
+            }
+            T siguiente = lote.poll();
+            if (siguiente == null) {
+                return false;
+            }
+            action.accept(siguiente);
+            return true;
+        }
+
+        private void cerrar() {
+            agotado = true;
+            lote.clear();
+        }
+    }
+
+    /**
+     * Ejecuta un trabajo en una transacción: commit si termina bien y rollback si falla.
+     *
+     * @param conn Conexión sobre la que se abre la transacción.
+     * @param work Trabajo a ejecutar.
+     * @return El resultado del trabajo.
+     * @throws SQLException Si falla el trabajo (tras deshacer los cambios) o el commit.
+     */
+    static <R> R inTransaction(Connection conn, Work<R> work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            R result = work.run(conn);
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackError) {
+                e.addSuppressed(rollbackError);
+            }
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Inserta los elementos por lotes y asigna las claves generadas en el mismo orden.
+     *
+     * @param batchSize Filas por lote (los valores menores que 1 se tratan como 1).
+     * @return Número de filas insertadas.
+     */
+    static <T> int insert(Connection conn, String sql, List<T> items, int batchSize,
+                          Binder<T> binder, KeySetter<T> keySetter) throws SQLException {
+        batchSize = tamanoValido(batchSize);
+        int filas = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int desde = 0; desde < items.size(); desde += batchSize) {
+                List<T> lote = items.subList(desde, Math.min(desde + batchSize, items.size()));
+                for (T item : lote) {
+                    binder.bind(stmt, item);
+                    stmt.addBatch();
+                }
+                filas += sumar(stmt.executeBatch());
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    for (T item : lote) {
+                        if (!keys.next()) {
+                            throw new SQLException("El driver no devolvió todas las claves generadas del lote");
+                        }
+                        keySetter.setKey(item, keys.getInt(1));
+                    }
+                }
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Ejecuta la misma sentencia para cada elemento, agrupada en lotes.
+     *
+     * @param batchSize Filas por lote (los valores menores que 1 se tratan como 1).
+     * @return Número de filas afectadas.
+     */
+    static <T> int execute(Connection conn, String sql, List<T> items, int batchSize,
+                           Binder<T> binder) throws SQLException {
+        batchSize = tamanoValido(batchSize);
+        int filas = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int pendientes = 0;
+            for (T item : items) {
+                binder.bind(stmt, item);
+                stmt.addBatch();
+                if (++pendientes == batchSize) {
+                    filas += sumar(stmt.executeBatch());
+                    pendientes = 0;
+                }
+            }
+            if (pendientes > 0) {
+                filas += sumar(stmt.executeBatch());
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Borra por ID usando listas IN de hasta batchSize elementos (una sentencia por trozo).
+     *
+     * @param tabla Tabla de la que borrar (constante del DAO, nunca datos del usuario).
+     * @param batchSize IDs por sentencia (los valores menores que 1 se tratan como 1).
+     * @return Número de filas borradas.
+     */
+    static int deleteByIds(Connection conn, String tabla, Collection<Integer> ids, int batchSize) throws SQLException {
+        batchSize = tamanoValido(batchSize);
+        List<Integer> lista = new ArrayList<>(ids);
+        int filas = 0;
+        for (int desde = 0; desde < lista.size(); desde += batchSize) {
+            List<Integer> trozo = lista.subList(desde, Math.min(desde + batchSize, lista.size()));
+            String sql = "DELETE FROM " + tabla + " WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(trozo.size(), "?")) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < trozo.size(); i++) {
+                    stmt.setInt(i + 1, trozo.get(i));
+                }
+                filas += stmt.executeUpdate();
+            }
+        }
+        return filas;
+    }
+
+    // Un tamaño 0 haría que los bucles por lotes no avanzaran y uno negativo fallaría en subList
+    private static int tamanoValido(int batchSize) {
+        return Math.max(1, batchSize);
+    }
+
+    /**
+     * Suma los recuentos de executeBatch. Con la reescritura multi-fila el driver puede devolver
+     * SUCCESS_NO_INFO; en ese caso se cuenta una fila por sentencia.
+     */
+    private static int sumar(int[] recuentos) {
+        int total = 0;
+        for (int recuento : recuentos) {
+            total += recuento == Statement.SUCCESS_NO_INFO ? 1 : Math.max(recuento, 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,308 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+import edu.rico.nbafx.util.DatabaseConnection;
+import edu.rico.nbafx.util.EsquemaBaseDatos;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+/**
+ * Clase de Acceso a Datos (DAO) para la entidad Jugador.
+ * Gestiona las operaciones CRUD contra la tabla 'jugadores' en la base de datos.
+ * <p>
+ * Si la tabla es anterior a la columna 'version' (una base MySQL sin la migración
+ * {@code sql/migracion_version_jugadores.sql}), las consultas la sustituyen por 0 y los UPDATE no
+ * la incrementan: todo funciona salvo la detección de filas modificadas en la huella.
+ */
+public class JdbcJugadorDAO implements JugadorDAO {
+
+    private static final Logger LOGGER = Logger.getLogger(JdbcJugadorDAO.class.getName());
+
+    private static final String SQL_INSERT = "INSERT INTO jugadores (nombre, dorsal, equipo, posicion, numero_anillos, altura, peso, image_url) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE jugadores SET nombre = ?, dorsal = ?, equipo = ?, posicion = ?, numero_anillos = ?, altura = ?, peso = ?, image_url = ?, version = version + 1 WHERE id = ?";
+    private static final String SQL_UPDATE_SIN_VERSION = "UPDATE jugadores SET nombre = ?, dorsal = ?, equipo = ?, posicion = ?, numero_anillos = ?, altura = ?, peso = ?, image_url = ? WHERE id = ?";
+
+    /** Columnas de las consultas, en el orden que espera {@link #mapResultSetToJugador}. */
+    static final String COLUMNAS = "id, nombre, dorsal, equipo, posicion, numero_anillos, altura, peso, image_url, version";
+    private static final String SQL_SELECT = "SELECT " + COLUMNAS + " FROM jugadores";
+    private static final String SQL_SELECT_SIN_VERSION = "SELECT id, nombre, dorsal, equipo, posicion, numero_anillos, altura, peso, image_url, 0 FROM jugadores";
+
+    private static final String SQL_HUELLA = "SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(id), 0), COALESCE(SUM(version), 0) FROM jugadores";
+    private static final String SQL_HUELLA_SIN_VERSION = "SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(id), 0), 0 FROM jugadores";
+
+    // Si la tabla tiene la columna 'version' (null hasta la primera consulta)
+    private volatile Boolean conVersion;
+
+    @Override
+    public List<Jugador> loadAll() throws SQLException {
+        List<Jugador> jugadores = new ArrayList<>();
+        String sql = sqlSelect();
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                jugadores.add(mapResultSetToJugador(rs));
+            }
+        }
+        return jugadores;
+    }
+
+    @Override
+    public Optional<Jugador> findById(int id) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlSelect() + " WHERE id = ?")) {
+            
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+            
+            if (rs.next()) {
+                return Optional.of(mapResultSetToJugador(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void save(Jugador jugador) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            
+            bindColumnas(stmt, jugador);
+            stmt.executeUpdate();
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    jugador.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void update(Jugador jugador) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sqlUpdate())) {
+            
+            bindUpdate(stmt, jugador);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        String sql = "DELETE FROM jugadores WHERE id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setInt(1, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Guarda varios jugadores en una sola transacción usando lotes JDBC.
+     */
+    @Override
+    public int saveAll(List<Jugador> jugadores, int batchSize) throws SQLException {
+        if (jugadores.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> JdbcBatch.insert(c, SQL_INSERT, jugadores, batchSize,
+                    JdbcJugadorDAO::bindColumnas, Jugador::setId));
+        }
+    }
+
+    /**
+     * Actualiza varios jugadores en una sola transacción usando lotes JDBC.
+     */
+    @Override
+    public int updateAll(List<Jugador> jugadores, int batchSize) throws SQLException {
+        if (jugadores.isEmpty()) {
+            return 0;
+        }
+        String sql = sqlUpdate();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> JdbcBatch.execute(c, sql, jugadores, batchSize,
+                    JdbcJugadorDAO::bindUpdate));
+        }
+    }
+
+    /**
+     * Elimina varios jugadores por ID en una sola transacción, en trozos de batchSize IDs.
+     */
+    @Override
+    public int deleteAllById(Collection<Integer> ids, int batchSize) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> JdbcBatch.deleteByIds(c, "jugadores", ids, batchSize));
+        }
+    }
+
+    /**
+     * Recupera una página de jugadores aplicando filtros, orden y paginación en la propia consulta.
+     * <p>
+     * Se pide una fila más del tamaño de página para saber si hay más resultados sin contar.
+     * El total solo se calcula (con un COUNT sobre los mismos filtros) si el criterio lo solicita,
+     * normalmente en la primera página.
+     */
+    @Override
+    public Page<Jugador> findPage(JugadorCriteria criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(sqlSelect())
+                .append(criteria.whereSql(params, true))
+                .append(criteria.orderBySql())
+                .append(" LIMIT ?");
+        params.add(criteria.getTamanoPagina() + 1);
+        if (criteria.getDespuesDe() == null && criteria.getPagina() > 0) {
+            sql.append(" OFFSET ?");
+            params.add(criteria.getPagina() * criteria.getTamanoPagina());
+        }
+
+        List<Jugador> jugadores = new ArrayList<>();
+        long total = -1;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                bind(stmt, params);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        jugadores.add(mapResultSetToJugador(rs));
+                    }
+                }
+            }
+            if (criteria.isConTotal()) {
+                total = count(conn, criteria);
+            }
+        }
+
+        boolean hayMas = jugadores.size() > criteria.getTamanoPagina();
+        if (hayMas) {
+            jugadores.remove(jugadores.size() - 1);
+        }
+        JugadorCriteria.Cursor siguiente = hayMas ? criteria.cursorTras(jugadores.get(jugadores.size() - 1)) : null;
+        return new Page<>(jugadores, total, hayMas, siguiente);
+    }
+
+    @Override
+    public long count(JugadorCriteria criteria) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return count(conn, criteria);
+        }
+    }
+
+    private long count(Connection conn, JugadorCriteria criteria) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM jugadores" + criteria.whereSql(params, false);
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bind(stmt, params);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    @Override
+    public Version fingerprint() throws SQLException {
+        String sql = conVersion() ? SQL_HUELLA : SQL_HUELLA_SIN_VERSION;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return new Version(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+        }
+    }
+
+    @Override
+    public boolean versionaFilas() {
+        return !Boolean.FALSE.equals(conVersion);
+    }
+
+    /**
+     * Comprueba una vez si la tabla tiene la columna 'version'. No se añade desde aquí: sobre MySQL
+     * el esquema solo se cambia con los scripts de migración.
+     */
+    private boolean conVersion() throws SQLException {
+        Boolean actual = conVersion;
+        if (actual == null) {
+            actual = EsquemaBaseDatos.existeColumna(DatabaseConnection.getDataSource(), "jugadores", "version");
+            if (!actual) {
+                LOGGER.warning("La tabla 'jugadores' no tiene la columna 'version' (ver sql/migracion_version_jugadores.sql): "
+                        + "la caché no detectará los jugadores que modifiquen otros clientes");
+            }
+            conVersion = actual;
+        }
+        return actual;
+    }
+
+    private String sqlSelect() throws SQLException {
+        return conVersion() ? SQL_SELECT : SQL_SELECT_SIN_VERSION;
+    }
+
+    private String sqlUpdate() throws SQLException {
+        return conVersion() ? SQL_UPDATE : SQL_UPDATE_SIN_VERSION;
+    }
+
+    /**
+     * Asigna las columnas de datos (todas salvo el ID) en el orden de {@link #SQL_INSERT}.
+     */
+    private static void bindColumnas(PreparedStatement stmt, Jugador jugador) throws SQLException {
+        stmt.setString(1, jugador.getNombre());
+        stmt.setInt(2, jugador.getDorsal());
+        stmt.setString(3, jugador.getEquipo());
+        stmt.setString(4, jugador.getPosicion().name());
+        stmt.setInt(5, jugador.getNumeroAnillos());
+        stmt.setDouble(6, jugador.getAltura());
+        stmt.setDouble(7, jugador.getPeso());
+        stmt.setString(8, jugador.getImageUrl());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Jugador jugador) throws SQLException {
+        bindColumnas(stmt, jugador);
+        stmt.setInt(9, jugador.getId());
+    }
+
+    /**
+     * Mapea un ResultSet a un objeto Jugador. Lee las columnas por posición, así que la consulta
+     * debe seleccionar {@link #COLUMNAS} en ese orden.
+     *
+     * @param rs El ResultSet posicionado en la fila actual.
+     * @return El objeto Jugador mapeado.
+     * @throws SQLException Si ocurre un error al acceder a los datos.
+     */
+    static Jugador mapResultSetToJugador(ResultSet rs) throws SQLException {
+        Jugador jugador = new Jugador();
+        jugador.setId(rs.getInt(1));
+        jugador.setNombre(rs.getString(2));
+        jugador.setDorsal(rs.getInt(3));
+        jugador.setEquipo(rs.getString(4));
+        jugador.setPosicion(Posicion.valueOf(rs.getString(5)));
+        jugador.setNumeroAnillos(rs.getInt(6));
+        jugador.setAltura(rs.getDouble(7));
+        jugador.setPeso(rs.getDouble(8));
+        jugador.setImageUrl(rs.getString(9));
+        jugador.setVersion(rs.getInt(10));
+        return jugador;
+    }
+}
\ No newline at end of file
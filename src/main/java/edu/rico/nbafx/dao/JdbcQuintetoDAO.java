@@ -0,0 +1,166 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * DAO para gestionar la tabla 'quintetos'.
+ */
+public class JdbcQuintetoDAO implements QuintetoDAO {
+
+    @Override
+    public void addJugadorToQuinteto(int usuarioId, int jugadorId) throws SQLException {
+        String sql = "INSERT INTO quintetos (usuario_id, jugador_id) VALUES (?, ?)";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, jugadorId);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void removeJugadorFromQuinteto(int usuarioId, int jugadorId) throws SQLException {
+        String sql = "DELETE FROM quintetos WHERE usuario_id = ? AND jugador_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, jugadorId);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public BitSet findJugadorIds(int usuarioId) throws SQLException {
+        BitSet ids = new BitSet();
+        String sql = "SELECT jugador_id FROM quintetos WHERE usuario_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.set(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public int countJugadoresInQuinteto(int usuarioId) {
+        String sql = "SELECT COUNT(*) FROM quintetos WHERE usuario_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * En una sola transacción bloquea la fila del usuario (SELECT ... FOR UPDATE) leyendo a la
+     * vez su quinteto actual, comprueba la capacidad y aplica la inserción o el borrado. Dos
+     * clics simultáneos del mismo usuario se serializan en el bloqueo. El estado resultante se
+     * calcula a partir de lo leído bajo el bloqueo, sin una consulta posterior.
+     */
+    @Override
+    public EstadoQuinteto toggleJugador(int usuarioId, int jugadorId, boolean seleccionar, int maximo) throws SQLException {
+        String sqlBloqueo = "SELECT u.id, q.jugador_id FROM usuarios u"
+                + " LEFT JOIN quintetos q ON q.usuario_id = u.id"
+                + " WHERE u.id = ? FOR UPDATE";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> {
+                List<Integer> ids = new ArrayList<>();
+                boolean existeUsuario = false;
+                try (PreparedStatement stmt = c.prepareStatement(sqlBloqueo)) {
+                    stmt.setInt(1, usuarioId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            existeUsuario = true;
+                            int id = rs.getInt(2);
+                            if (!rs.wasNull()) {
+                                ids.add(id);
+                            }
+                        }
+                    }
+                }
+                if (!existeUsuario) {
+                    throw new SQLException("No existe el usuario con id " + usuarioId);
+                }
+
+                boolean presente = ids.contains(jugadorId);
+                if (seleccionar && !presente) {
+                    if (ids.size() >= maximo) {
+                        return new EstadoQuinteto(List.copyOf(ids), true);
+                    }
+                    ejecutar(c, "INSERT INTO quintetos (usuario_id, jugador_id) VALUES (?, ?)", usuarioId, jugadorId);
+                    ids.add(jugadorId);
+                } else if (!seleccionar && presente) {
+                    ejecutar(c, "DELETE FROM quintetos WHERE usuario_id = ? AND jugador_id = ?", usuarioId, jugadorId);
+                    ids.remove(Integer.valueOf(jugadorId));
+                }
+                return new EstadoQuinteto(List.copyOf(ids), false);
+            });
+        }
+    }
+
+    private static void ejecutar(Connection conn, String sql, int usuarioId, int jugadorId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, usuarioId);
+            stmt.setInt(2, jugadorId);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public Stream<Entrada> stream(int tamanoLote) {
+        String primerLote = "SELECT usuario_id, jugador_id FROM quintetos ORDER BY usuario_id, jugador_id LIMIT ?";
+        String siguienteLote = "SELECT usuario_id, jugador_id FROM quintetos"
+                + " WHERE usuario_id > ? OR (usuario_id = ? AND jugador_id > ?)"
+                + " ORDER BY usuario_id, jugador_id LIMIT ?";
+        return JdbcBatch.stream(tamanoLote, (ultimo, limite) -> {
+            List<Entrada> lote = new ArrayList<>(limite);
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(ultimo == null ? primerLote : siguienteLote)) {
+                if (ultimo == null) {
+                    stmt.setInt(1, limite);
+                } else {
+                    stmt.setInt(1, ultimo.usuarioId());
+                    stmt.setInt(2, ultimo.usuarioId());
+                    stmt.setInt(3, ultimo.jugadorId());
+                    stmt.setInt(4, limite);
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lote.add(new Entrada(rs.getInt(1), rs.getInt(2)));
+                    }
+                }
+            }
+            return lote;
+        });
+    }
+
+    @Override
+    public long count() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM quintetos")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Rol;
+import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Clase de Acceso a Datos (DAO) para la entidad Usuario.
+ * Gestiona las operaciones CRUD contra la base de datos MySQL.
+ */
+public class JdbcUsuarioDAO implements UsuarioDAO {
+
+    private static final String SQL_INSERT = "INSERT INTO usuarios (nombre, password, rol) VALUES (?, ?, ?)";
+    private static final String SQL_UPDATE = "UPDATE usuarios SET nombre = ?, password = ?, rol = ? WHERE id = ?";
+
+    /** Columnas de las consultas, en el orden que espera {@link #mapResultSetToUsuario}. */
+    static final String COLUMNAS = "id, nombre, password, rol, fecha_creacion";
+    private static final String SQL_SELECT = "SELECT " + COLUMNAS + " FROM usuarios";
+
+    @Override
+    public Optional<Usuario> findByNombre(String nombre) {
+        String sql = SQL_SELECT + " WHERE nombre = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, nombre);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return Optional.of(mapResultSetToUsuario(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Usuario> findCredenciales(String nombre) throws SQLException {
+        String sql = "SELECT id, nombre, password, rol FROM usuarios WHERE nombre = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, nombre);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                Usuario usuario = new Usuario();
+                usuario.setId(rs.getInt(1));
+                usuario.setNombre(rs.getString(2));
+                usuario.setPassword(rs.getString(3));
+                usuario.setRol(Rol.valueOf(rs.getString(4)));
+                return Optional.of(usuario);
+            }
+        }
+    }
+
+    @Override
+    public List<Usuario> findAll() {
+        List<Usuario> usuarios = new ArrayList<>();
+        String sql = SQL_SELECT;
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                usuarios.add(mapResultSetToUsuario(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return usuarios;
+    }
+
+    @Override
+    public Stream<Usuario> stream(int tamanoLote) {
+        String sql = SQL_SELECT + " WHERE id > ? ORDER BY id LIMIT ?";
+        return JdbcBatch.stream(tamanoLote, (ultimo, limite) -> {
+            List<Usuario> lote = new ArrayList<>(limite);
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, ultimo != null ? ultimo.getId() : 0);
+                stmt.setInt(2, limite);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        lote.add(mapResultSetToUsuario(rs));
+                    }
+                }
+            }
+            return lote;
+        });
+    }
+
+    @Override
+    public long count() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM usuarios")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Override
+    public void save(Usuario usuario) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            bindColumnas(stmt, usuario);
+            stmt.executeUpdate();
+            
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    usuario.setId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void update(Usuario usuario) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_UPDATE)) {
+            bindUpdate(stmt, usuario);
+            stmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public boolean actualizarHash(int id, String hashAnterior, String hashNuevo) throws SQLException {
+        String sql = "UPDATE usuarios SET password = ? WHERE id = ? AND password = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, hashNuevo);
+            stmt.setInt(2, id);
+            stmt.setString(3, hashAnterior);
+            return stmt.executeUpdate() == 1;
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        String sql = "DELETE FROM usuarios WHERE id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Guarda varios usuarios en una sola transacción usando lotes JDBC.
+     */
+    @Override
+    public int saveAll(List<Usuario> usuarios, int batchSize) throws SQLException {
+        if (usuarios.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> JdbcBatch.insert(c, SQL_INSERT, usuarios, batchSize,
+                    JdbcUsuarioDAO::bindColumnas, Usuario::setId));
+        }
+    }
+
+    /**
+     * Actualiza varios usuarios en una sola transacción usando lotes JDBC.
+     */
+    @Override
+    public int updateAll(List<Usuario> usuarios, int batchSize) throws SQLException {
+        if (usuarios.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> JdbcBatch.execute(c, SQL_UPDATE, usuarios, batchSize,
+                    JdbcUsuarioDAO::bindUpdate));
+        }
+    }
+
+    /**
+     * Elimina varios usuarios por ID en una sola transacción, en trozos de batchSize IDs.
+     */
+    @Override
+    public int deleteAllById(Collection<Integer> ids, int batchSize) throws SQLException {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return JdbcBatch.inTransaction(conn, c -> JdbcBatch.deleteByIds(c, "usuarios", ids, batchSize));
+        }
+    }
+
+    private static void bindColumnas(PreparedStatement stmt, Usuario usuario) throws SQLException {
+        stmt.setString(1, usuario.getNombre());
+        stmt.setString(2, usuario.getPassword());
+        stmt.setString(3, usuario.getRol().name());
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Usuario usuario) throws SQLException {
+        bindColumnas(stmt, usuario);
+        stmt.setInt(4, usuario.getId());
+    }
+
+    /**
+     * Mapea un ResultSet a un objeto Usuario. Lee las columnas por posición, así que la consulta
+     * debe seleccionar {@link #COLUMNAS} en ese orden.
+     *
+     * @param rs El ResultSet posicionado en la fila actual.
+     * @return El objeto Usuario mapeado.
+     * @throws SQLException Si ocurre un error al acceder a los datos.
+     */
+    static Usuario mapResultSetToUsuario(ResultSet rs) throws SQLException {
+        Usuario usuario = new Usuario();
+        usuario.setId(rs.getInt(1));
+        usuario.setNombre(rs.getString(2));
+        usuario.setPassword(rs.getString(3));
+        usuario.setRol(Rol.valueOf(rs.getString(4)));
+        Timestamp fechaCreacion = rs.getTimestamp(5);
+        usuario.setFechaCreacion(fechaCreacion != null ? fechaCreacion.toLocalDateTime() : null);
+        return usuario;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,598 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+import edu.rico.nbafx.util.AppConfig;
+import edu.rico.nbafx.util.DatabaseBackend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Caché de lectura en memoria de la tabla 'jugadores', situada delante de {@link JugadorDAO}.
+ * <p>
+ * Mantiene una copia indexada por ID, equipo y posición que se carga con una única consulta.
+ * Las escrituras pasan primero por la base de datos y después se aplican a la copia (write-through).
+ * Pasado el TTL se valida la copia con una consulta barata ({@link JugadorDAO#fingerprint()}) y,
+ * si la tabla ha cambiado o se supera la edad máxima, se recarga completa.
+ * <p>
+ * Tras cada recarga completa la copia se guarda en disco ({@link InstantaneaJugadores}). En el
+ * siguiente arranque la primera lectura parte de ese fichero, así que la vista se pinta sin esperar
+ * a la base de datos, y {@link #reconciliar()} la contrasta después en segundo plano.
+ * <p>
+ * Los jugadores devueltos son copias, de modo que modificarlos no altera la caché.
+ */
+public class JugadorCache {
+
+    private static final Logger LOGGER = Logger.getLogger(JugadorCache.class.getName());
+
+    private static JugadorCache instance;
+
+    private final JugadorDAO delegate;
+    private final long ttlNanos;
+    private final long maxAgeNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Path ficheroInstantanea;
+    private volatile Snapshot snapshot;
+    private volatile boolean instantaneaLeida;
+    private volatile boolean pendienteReconciliar;
+    private volatile boolean cambiosSinGuardar;
+
+    // Métricas
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong lastLoadNanos = new AtomicLong();
+
+    /**
+     * Instantánea de las métricas de la caché.
+     *
+     * @param hits Lecturas servidas desde memoria.
+     * @param misses Lecturas que necesitaron consultar la base de datos.
+     * @param hitRatio Proporción de aciertos (0..1).
+     * @param loads Recargas completas de la tabla.
+     * @param validations Validaciones de versión realizadas.
+     * @param lastLoadMillis Duración de la última recarga.
+     * @param avgLoadMillis Duración media de las recargas.
+     * @param size Jugadores en memoria.
+     */
+    public record Stats(long hits, long misses, double hitRatio, long loads, long validations,
+                        double lastLoadMillis, double avgLoadMillis, int size) {
+    }
+
+    /**
+     * Copia inmutable de la tabla con sus índices. Cada escritura genera una nueva.
+     */
+    private static final class Snapshot {
+        private final List<Jugador> ordenados;
+        private final Map<Integer, Jugador> porId;
+        private final Map<String, List<Jugador>> porEquipo;
+        private final Map<Posicion, List<Jugador>> porPosicion;
+        private final JugadorDAO.Version version;
+        private final long cargadoEn;
+        private volatile long validadoEn;
+
+        private Snapshot(Collection<Jugador> jugadores, long cargadoEn, long validadoEn) {
+            Map<Integer, Jugador> ids = new LinkedHashMap<>();
+            Map<String, List<Jugador>> equipos = new HashMap<>();
+            Map<Posicion, List<Jugador>> posiciones = new EnumMap<>(Posicion.class);
+            long maxId = 0;
+            long sumIds = 0;
+            long sumVersiones = 0;
+            for (Jugador jugador : jugadores) {
+                ids.put(jugador.getId(), jugador);
+                equipos.computeIfAbsent(clave(jugador.getEquipo()), k -> new ArrayList<>()).add(jugador);
+                if (jugador.getPosicion() != null) {
+                    posiciones.computeIfAbsent(jugador.getPosicion(), k -> new ArrayList<>()).add(jugador);
+                }
+                maxId = Math.max(maxId, jugador.getId());
+                sumIds += jugador.getId();
+                sumVersiones += jugador.getVersion();
+            }
+            this.porId = ids;
+            this.ordenados = List.copyOf(ids.values());
+            this.porEquipo = equipos;
+            this.porPosicion = posiciones;
+            this.version = new JugadorDAO.Version(ids.size(), maxId, sumIds, sumVersiones);
+            this.cargadoEn = cargadoEn;
+            this.validadoEn = validadoEn;
+        }
+    }
+
+    /**
+     * Crea una caché sobre el DAO indicado.
+     *
+     * @param delegate DAO que accede a la base de datos.
+     * @param ttlSeconds Segundos que se confía en la copia sin validarla.
+     * @param maxAgeSeconds Segundos tras los que se fuerza una recarga completa.
+     */
+    public JugadorCache(JugadorDAO delegate, long ttlSeconds, long maxAgeSeconds) {
+        this(delegate, ttlSeconds, maxAgeSeconds, null);
+    }
+
+    /**
+     * Crea una caché sobre el DAO indicado que se guarda en disco tras cada recarga.
+     *
+     * @param delegate DAO que accede a la base de datos.
+     * @param ttlSeconds Segundos que se confía en la copia sin validarla.
+     * @param maxAgeSeconds Segundos tras los que se fuerza una recarga completa.
+     * @param ficheroInstantanea Fichero de la copia en disco, o null para no usarlo.
+     */
+    public JugadorCache(JugadorDAO delegate, long ttlSeconds, long maxAgeSeconds, Path ficheroInstantanea) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSeconds);
+        this.ficheroInstantanea = ficheroInstantanea;
+    }
+
+    /**
+     * Obtiene la caché compartida por toda la aplicación, configurada desde config.properties.
+     *
+     * @return La instancia única de la caché.
+     */
+    public static synchronized JugadorCache getInstance() {
+        if (instance == null) {
+            // Con el almacén en memoria no hay base de datos lenta que esperar
+            String fichero = DatabaseBackend.fromConfig() == DatabaseBackend.MEMORIA ? ""
+                    : AppConfig.get("cache.jugadores.snapshotFile",
+                    Paths.get(System.getProperty("user.home"), ".nbafx", "jugadores.bin").toString());
+            instance = new JugadorCache(DaoFactory.jugadores(),
+                    AppConfig.getLong("cache.jugadores.ttlSeconds", 30),
+                    AppConfig.getLong("cache.jugadores.maxAgeSeconds", 600),
+                    fichero.isBlank() ? null : Paths.get(fichero));
+        }
+        return instance;
+    }
+
+    /**
+     * Guarda en disco la copia de la caché compartida si ha cambiado desde la última recarga.
+     * Se invoca al cerrar la aplicación.
+     */
+    public static void cerrar() {
+        JugadorCache cache;
+        synchronized (JugadorCache.class) {
+            cache = instance;
+        }
+        if (cache != null && cache.cambiosSinGuardar) {
+            Snapshot actual = cache.snapshot;
+            if (actual != null) {
+                cache.guardarInstantanea(actual);
+            }
+        }
+    }
+
+    /**
+     * Recupera todos los jugadores.
+     *
+     * @return Copias de todos los jugadores, en el orden de la tabla.
+     */
+    public List<Jugador> findAll() {
+        Snapshot actual = leer(true);
+        return actual == null ? new ArrayList<>() : copiar(actual.ordenados);
+    }
+
+    /**
+     * Busca un jugador por su ID. Si no está en memoria se consulta la base de datos
+     * (puede haberlo creado otro cliente) y se incorpora a la caché.
+     *
+     * @param id El ID del jugador.
+     * @return Un Optional con una copia del jugador si existe.
+     */
+    public Optional<Jugador> findById(int id) {
+        Snapshot actual = leer(false);
+        Jugador jugador = actual != null ? actual.porId.get(id) : null;
+        if (jugador != null) {
+            hits.increment();
+            return Optional.of(new Jugador(jugador));
+        }
+        misses.increment();
+        Optional<Jugador> desdeBd = delegate.findById(id);
+        desdeBd.ifPresent(encontrado -> aplicar(ids -> ids.put(encontrado.getId(), new Jugador(encontrado))));
+        return desdeBd;
+    }
+
+    /**
+     * Recupera los jugadores de un equipo usando el índice por equipo.
+     *
+     * @param equipo Nombre del equipo (no distingue mayúsculas ni espacios en los extremos).
+     * @return Copias de los jugadores del equipo.
+     */
+    public List<Jugador> findByEquipo(String equipo) {
+        Snapshot actual = leer(true);
+        return actual == null ? new ArrayList<>()
+                : copiar(actual.porEquipo.getOrDefault(clave(equipo), Collections.emptyList()));
+    }
+
+    /**
+     * Recupera los jugadores de una posición usando el índice por posición.
+     *
+     * @param posicion La posición de juego.
+     * @return Copias de los jugadores de esa posición.
+     */
+    public List<Jugador> findByPosicion(Posicion posicion) {
+        Snapshot actual = leer(true);
+        return actual == null ? new ArrayList<>()
+                : copiar(actual.porPosicion.getOrDefault(posicion, Collections.emptyList()));
+    }
+
+    /**
+     * Recupera una página de jugadores. Si la copia en memoria está vigente se filtra y ordena
+     * sobre ella; si no, la consulta se delega en la base de datos sin forzar una carga completa
+     * de la tabla (la vista paginada no debe pagar por leerla entera).
+     *
+     * @param criteria Filtros, orden y posición de la página.
+     * @return La página con copias de los jugadores.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    public Page<Jugador> findPage(JugadorCriteria criteria) throws SQLException {
+        Snapshot actual = actual();
+        if (actual == null || System.nanoTime() - actual.validadoEn >= ttlNanos) {
+            misses.increment();
+            return delegate.findPage(criteria);
+        }
+        hits.increment();
+
+        List<Jugador> filtrados = new ArrayList<>();
+        for (Jugador jugador : actual.ordenados) {
+            if (criteria.test(jugador)) {
+                filtrados.add(jugador);
+            }
+        }
+        filtrados.sort(criteria.comparator());
+
+        int desde = 0;
+        if (criteria.getDespuesDe() != null) {
+            while (desde < filtrados.size() && !criteria.estaDespuesDelCursor(filtrados.get(desde))) {
+                desde++;
+            }
+        } else {
+            desde = Math.min(filtrados.size(), criteria.getPagina() * criteria.getTamanoPagina());
+        }
+        int hasta = Math.min(filtrados.size(), desde + criteria.getTamanoPagina());
+        List<Jugador> items = copiar(filtrados.subList(desde, hasta));
+        boolean hayMas = hasta < filtrados.size();
+        JugadorCriteria.Cursor siguiente = hayMas ? criteria.cursorTras(items.get(items.size() - 1)) : null;
+        return new Page<>(items, criteria.isConTotal() ? filtrados.size() : -1, hayMas, siguiente);
+    }
+
+    /**
+     * Recorre por lotes los jugadores que cumplen un criterio, directamente contra la base de datos.
+     * Pensado para tareas masivas (exportaciones, análisis): no pasa por la copia en memoria ni la carga.
+     *
+     * @param criteria Filtros, orden y tamaño de lote.
+     * @return Un Stream perezoso de jugadores; debe cerrarse al terminar.
+     */
+    public Stream<Jugador> stream(JugadorCriteria criteria) {
+        return delegate.stream(criteria);
+    }
+
+    /**
+     * Cuenta los jugadores que cumplen un criterio. Usa la copia en memoria si está vigente.
+     *
+     * @param criteria Filtros a aplicar.
+     * @return El número de jugadores.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    public long count(JugadorCriteria criteria) throws SQLException {
+        Snapshot actual = actual();
+        if (actual == null || System.nanoTime() - actual.validadoEn >= ttlNanos) {
+            return delegate.count(criteria);
+        }
+        return actual.ordenados.stream().filter(criteria::test).count();
+    }
+
+    /**
+     * Guarda un jugador en la base de datos y lo añade a la caché.
+     */
+    public void save(Jugador jugador) throws SQLException {
+        delegate.save(jugador);
+        Jugador copia = new Jugador(jugador);
+        aplicar(ids -> ids.put(copia.getId(), copia));
+    }
+
+    /**
+     * Actualiza un jugador en la base de datos y en la caché.
+     */
+    public void update(Jugador jugador) throws SQLException {
+        delegate.update(jugador);
+        Jugador copia = new Jugador(jugador);
+        aplicar(ids -> actualizarEn(ids, copia, delegate.versionaFilas()));
+    }
+
+    /**
+     * Elimina un jugador de la base de datos y de la caché.
+     */
+    public void delete(int id) throws SQLException {
+        delegate.delete(id);
+        aplicar(ids -> ids.remove(id));
+    }
+
+    /**
+     * Guarda varios jugadores en una transacción y los añade a la caché con una sola reconstrucción.
+     *
+     * @return Número de filas insertadas.
+     */
+    public int saveAll(List<Jugador> jugadores) throws SQLException {
+        int filas = delegate.saveAll(jugadores);
+        List<Jugador> copias = copiar(jugadores);
+        aplicar(ids -> copias.forEach(copia -> ids.put(copia.getId(), copia)));
+        return filas;
+    }
+
+    /**
+     * Actualiza varios jugadores en una transacción y en la caché.
+     *
+     * @return Número de filas actualizadas.
+     */
+    public int updateAll(List<Jugador> jugadores) throws SQLException {
+        int filas = delegate.updateAll(jugadores);
+        List<Jugador> copias = copiar(jugadores);
+        boolean versionaFilas = delegate.versionaFilas();
+        aplicar(ids -> copias.forEach(copia -> actualizarEn(ids, copia, versionaFilas)));
+        return filas;
+    }
+
+    /**
+     * Elimina varios jugadores en una transacción y de la caché.
+     *
+     * @return Número de filas eliminadas.
+     */
+    public int deleteAllById(Collection<Integer> ids) throws SQLException {
+        int filas = delegate.deleteAllById(ids);
+        aplicar(porId -> porId.keySet().removeAll(ids));
+        return filas;
+    }
+
+    /**
+     * Lee ya la copia en disco, si existe y aún no hay ninguna en memoria, para que la primera
+     * página no tenga que esperar a leerla. Pensado para el precalentamiento del arranque.
+     */
+    public void precargar() {
+        actual();
+    }
+
+    /**
+     * Contrasta con la base de datos la copia leída de disco al arrancar. Si la huella de la tabla
+     * coincide y el fichero no supera la edad máxima se da por buena; si no, se recarga la tabla
+     * (lo que vuelve a escribir el fichero) y se comparan las filas una a una con la copia anterior.
+     * Si no hay copia en memoria también se carga la tabla, para tener el fichero en el próximo arranque.
+     * Pensado para ejecutarse en segundo plano tras pintar la primera página.
+     *
+     * @return true si los jugadores mostrados a partir del fichero han cambiado.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    public boolean reconciliar() throws SQLException {
+        lock.lock();
+        try {
+            Snapshot actual = actual();
+            if (actual != null && !pendienteReconciliar) {
+                return false;
+            }
+            long ahora = System.nanoTime();
+            if (actual != null && ahora - actual.cargadoEn < maxAgeNanos) {
+                validations.increment();
+                if (delegate.fingerprint().equals(actual.version)) {
+                    actual.validadoEn = ahora;
+                    pendienteReconciliar = false;
+                    return false;
+                }
+            }
+            Snapshot nuevo = recargar();
+            return actual != null && !nuevo.ordenados.equals(actual.ordenados);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta la copia en memoria; la siguiente lectura recargará la tabla.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Obtiene las métricas actuales de la caché.
+     */
+    public Stats getStats() {
+        long h = hits.sum();
+        long m = misses.sum();
+        long l = loads.sum();
+        Snapshot actual = snapshot;
+        return new Stats(h, m, h + m == 0 ? 0 : (double) h / (h + m), l, validations.sum(),
+                lastLoadNanos.get() / 1_000_000.0,
+                l == 0 ? 0 : totalLoadNanos.get() / 1_000_000.0 / l,
+                actual == null ? 0 : actual.porId.size());
+    }
+
+    /**
+     * Devuelve una copia vigente de la tabla, validándola o recargándola si ha caducado.
+     * Si la base de datos falla se sirve la copia anterior (si existe).
+     *
+     * @param contar Si la lectura debe contabilizarse como acierto (sin recarga) o fallo.
+     *               findById lo hace por su cuenta porque puede fallar también en el índice.
+     */
+    private Snapshot leer(boolean contar) {
+        Snapshot actual = actual();
+        if (actual != null && System.nanoTime() - actual.validadoEn < ttlNanos) {
+            if (contar) {
+                hits.increment();
+            }
+            return actual;
+        }
+
+        lock.lock();
+        try {
+            actual = snapshot;
+            long ahora = System.nanoTime();
+            if (actual != null && ahora - actual.validadoEn < ttlNanos) {
+                if (contar) {
+                    hits.increment();
+                }
+                return actual;
+            }
+            if (actual != null && ahora - actual.cargadoEn < maxAgeNanos) {
+                validations.increment();
+                if (delegate.fingerprint().equals(actual.version)) {
+                    actual.validadoEn = ahora;
+                    if (contar) {
+                        hits.increment();
+                    }
+                    return actual;
+                }
+            }
+            if (contar) {
+                misses.increment();
+            }
+            return recargar();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "No se pudo actualizar la caché de jugadores", e);
+            return actual;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot recargar() throws SQLException {
+        long inicio = System.nanoTime();
+        List<Jugador> jugadores = delegate.loadAll();
+        long ahora = System.nanoTime();
+        long duracion = ahora - inicio;
+
+        loads.increment();
+        totalLoadNanos.addAndGet(duracion);
+        lastLoadNanos.set(duracion);
+
+        Snapshot nuevo = new Snapshot(jugadores, ahora, ahora);
+        snapshot = nuevo;
+        pendienteReconciliar = false;
+        guardarInstantanea(nuevo);
+        return nuevo;
+    }
+
+    /**
+     * Devuelve la copia en memoria. La primera vez, si aún no hay ninguna, la lee del fichero de
+     * la instantánea: se sirve durante el TTL como si se acabara de validar, y su edad para la
+     * recarga forzada es la del fichero.
+     */
+    private Snapshot actual() {
+        Snapshot actual = snapshot;
+        if (actual != null || ficheroInstantanea == null || instantaneaLeida) {
+            return actual;
+        }
+        lock.lock();
+        try {
+            if (!instantaneaLeida) {
+                instantaneaLeida = true;
+                if (snapshot == null) {
+                    snapshot = leerInstantanea();
+                }
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot leerInstantanea() {
+        if (!Files.exists(ficheroInstantanea)) {
+            return null;
+        }
+        long inicio = System.nanoTime();
+        try {
+            InstantaneaJugadores.Contenido contenido = InstantaneaJugadores.leer(ficheroInstantanea);
+            long ahora = System.nanoTime();
+            long edad = TimeUnit.MILLISECONDS.toNanos(Math.max(0, System.currentTimeMillis() - contenido.escritoEn()));
+            Snapshot leida = new Snapshot(contenido.jugadores(), ahora - edad, ahora);
+            if (!leida.version.equals(contenido.version())) {
+                throw new IOException("La huella no coincide con los registros: " + ficheroInstantanea);
+            }
+            pendienteReconciliar = true;
+            LOGGER.info(String.format("Caché de jugadores leída de %s: %d jugadores (%d ms)",
+                    ficheroInstantanea, leida.porId.size(), (ahora - inicio) / 1_000_000));
+            return leida;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Se ignora la instantánea de jugadores", e);
+            return null;
+        }
+    }
+
+    private void guardarInstantanea(Snapshot actual) {
+        if (ficheroInstantanea == null) {
+            return;
+        }
+        try {
+            InstantaneaJugadores.escribir(ficheroInstantanea, actual.ordenados, actual.version);
+            cambiosSinGuardar = false;
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "No se pudo guardar la instantánea de jugadores", e);
+        }
+    }
+
+    /**
+     * Sustituye un jugador modificado con la versión que le ha dado el UPDATE (la de la copia
+     * anterior más uno), para que la huella siga coincidiendo con la de la tabla. Si otro cliente
+     * lo modificó entretanto no coincidirá y la siguiente validación recargará la tabla. Si la tabla
+     * no lleva versiones, la copia conserva la que tenía (0).
+     */
+    private static void actualizarEn(Map<Integer, Jugador> ids, Jugador copia, boolean versionaFilas) {
+        Jugador anterior = ids.get(copia.getId());
+        int version = anterior != null ? anterior.getVersion() : copia.getVersion();
+        copia.setVersion(versionaFilas ? version + 1 : version);
+        ids.put(copia.getId(), copia);
+    }
+
+    /**
+     * Aplica una escritura sobre una copia de la tabla y publica el resultado.
+     * Si la caché aún no se ha cargado no hay nada que mantener.
+     */
+    private void aplicar(Consumer<Map<Integer, Jugador>> cambio) {
+        lock.lock();
+        try {
+            Snapshot actual = snapshot;
+            if (actual == null) {
+                return;
+            }
+            Map<Integer, Jugador> ids = new LinkedHashMap<>(actual.porId);
+            cambio.accept(ids);
+            snapshot = new Snapshot(ids.values(), actual.cargadoEn, actual.validadoEn);
+            cambiosSinGuardar = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static List<Jugador> copiar(List<Jugador> jugadores) {
+        List<Jugador> copias = new ArrayList<>(jugadores.size());
+        for (Jugador jugador : jugadores) {
+            copias.add(new Jugador(jugador));
+        }
+        return copias;
+    }
+
+    private static String clave(String equipo) {
+        return equipo == null ? "" : equipo.trim().toLowerCase();
+    }
+}
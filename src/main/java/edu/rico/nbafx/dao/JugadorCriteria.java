@@ -0,0 +1,266 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Criterios de búsqueda de jugadores: filtros, orden y paginación.
+ * <p>
+ * {@link JugadorDAO#findPage(JugadorCriteria)} los traduce a SQL (WHERE, ORDER BY, LIMIT) y
+ * {@link #test(Jugador)} / {@link #comparator()} permiten evaluarlos en memoria con la misma
+ * semántica. La paginación puede ser por desplazamiento ({@link #setPagina(int)}) o por cursor
+ * ({@link #setDespuesDe(Cursor)}), que es estable aunque se inserten o borren filas.
+ * <p>
+ * Los setters devuelven la propia instancia para poder encadenarlos.
+ */
+public class JugadorCriteria {
+
+    /**
+     * Campos por los que se puede ordenar, con su columna y su valor en el modelo.
+     */
+    public enum Orden {
+        ID("id", Jugador::getId),
+        NOMBRE("nombre", Jugador::getNombre),
+        EQUIPO("equipo", Jugador::getEquipo),
+        DORSAL("dorsal", Jugador::getDorsal),
+        ANILLOS("numero_anillos", Jugador::getNumeroAnillos),
+        ALTURA("altura", Jugador::getAltura),
+        PESO("peso", Jugador::getPeso);
+
+        private final String columna;
+        private final Function<Jugador, Comparable<?>> valor;
+
+        Orden(String columna, Function<Jugador, Comparable<?>> valor) {
+            this.columna = columna;
+            this.valor = valor;
+        }
+
+        public String getColumna() {
+            return columna;
+        }
+
+        /**
+         * Valor del campo de orden para un jugador (se usa para construir cursores).
+         */
+        public Object valorDe(Jugador jugador) {
+            return valor.apply(jugador);
+        }
+    }
+
+    /**
+     * Posición a partir de la cual continuar la paginación: valor del campo de orden e ID
+     * (desempate) del último jugador de la página anterior.
+     */
+    public record Cursor(Object valor, int id) {
+    }
+
+    private String equipo;
+    private Posicion posicion;
+    private String nombrePrefijo;
+    private Integer anillosMin;
+    private Integer anillosMax;
+    private Double alturaMin;
+    private Double alturaMax;
+    private Double pesoMin;
+    private Double pesoMax;
+
+    private Orden orden = Orden.ID;
+    private boolean ascendente = true;
+    private int tamanoPagina = 50;
+    private int pagina = 0;
+    private Cursor despuesDe;
+    private boolean conTotal = false;
+
+    /**
+     * Crea una copia independiente del criterio (p. ej. para pedir la página siguiente desde
+     * otro hilo sin compartir la instancia).
+     */
+    public JugadorCriteria copia() {
+        JugadorCriteria copia = new JugadorCriteria();
+        copia.equipo = equipo;
+        copia.posicion = posicion;
+        copia.nombrePrefijo = nombrePrefijo;
+        copia.anillosMin = anillosMin;
+        copia.anillosMax = anillosMax;
+        copia.alturaMin = alturaMin;
+        copia.alturaMax = alturaMax;
+        copia.pesoMin = pesoMin;
+        copia.pesoMax = pesoMax;
+        copia.orden = orden;
+        copia.ascendente = ascendente;
+        copia.tamanoPagina = tamanoPagina;
+        copia.pagina = pagina;
+        copia.despuesDe = despuesDe;
+        copia.conTotal = conTotal;
+        return copia;
+    }
+
+    /**
+     * Evalúa los filtros sobre un jugador en memoria.
+     *
+     * @param jugador El jugador a comprobar.
+     * @return true si cumple todos los filtros.
+     */
+    public boolean test(Jugador jugador) {
+        if (equipo != null && !equipo.equalsIgnoreCase(jugador.getEquipo())) return false;
+        if (posicion != null && posicion != jugador.getPosicion()) return false;
+        if (nombrePrefijo != null && (jugador.getNombre() == null
+                || !jugador.getNombre().regionMatches(true, 0, nombrePrefijo, 0, nombrePrefijo.length()))) return false;
+        if (anillosMin != null && jugador.getNumeroAnillos() < anillosMin) return false;
+        if (anillosMax != null && jugador.getNumeroAnillos() > anillosMax) return false;
+        if (alturaMin != null && jugador.getAltura() < alturaMin) return false;
+        if (alturaMax != null && jugador.getAltura() > alturaMax) return false;
+        if (pesoMin != null && jugador.getPeso() < pesoMin) return false;
+        if (pesoMax != null && jugador.getPeso() > pesoMax) return false;
+        return true;
+    }
+
+    /**
+     * Comparador equivalente al ORDER BY generado (campo de orden y, en caso de empate, ID).
+     * Los textos se comparan sin distinguir mayúsculas, como la collation por defecto de MySQL.
+     */
+    public Comparator<Jugador> comparator() {
+        Comparator<Jugador> completo = (a, b) -> {
+            int cmp = comparar(orden.valorDe(a), orden.valorDe(b));
+            return cmp != 0 ? cmp : Integer.compare(a.getId(), b.getId());
+        };
+        return ascendente ? completo : completo.reversed();
+    }
+
+    /**
+     * Construye el cursor que apunta justo después del jugador indicado.
+     */
+    public Cursor cursorTras(Jugador jugador) {
+        return new Cursor(orden.valorDe(jugador), jugador.getId());
+    }
+
+    /**
+     * Indica si un jugador va después del cursor actual según el orden (paginación en memoria).
+     */
+    boolean estaDespuesDelCursor(Jugador jugador) {
+        if (despuesDe == null) {
+            return true;
+        }
+        int cmp = comparar(orden.valorDe(jugador), despuesDe.valor());
+        if (cmp == 0) {
+            cmp = Integer.compare(jugador.getId(), despuesDe.id());
+        }
+        return ascendente ? cmp > 0 : cmp < 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int comparar(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        if (a instanceof String sa && b instanceof String sb) {
+            return sa.compareToIgnoreCase(sb);
+        }
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /**
+     * Genera la cláusula WHERE (vacía si no hay filtros) y añade sus parámetros a la lista.
+     *
+     * @param params Lista donde se añaden los valores de los parámetros, en orden.
+     * @param incluirCursor Si debe añadirse la condición del cursor (no para el COUNT).
+     * @return La cláusula WHERE, con el espacio inicial, o una cadena vacía.
+     */
+    String whereSql(List<Object> params, boolean incluirCursor) {
+        List<String> condiciones = new ArrayList<>();
+        if (equipo != null) {
+            condiciones.add("equipo = ?");
+            params.add(equipo);
+        }
+        if (posicion != null) {
+            condiciones.add("posicion = ?");
+            params.add(posicion.name());
+        }
+        if (nombrePrefijo != null) {
+            condiciones.add("nombre LIKE ? ESCAPE '!'");
+            params.add(nombrePrefijo.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        rango(condiciones, params, "numero_anillos", anillosMin, anillosMax);
+        rango(condiciones, params, "altura", alturaMin, alturaMax);
+        rango(condiciones, params, "peso", pesoMin, pesoMax);
+
+        if (incluirCursor && despuesDe != null) {
+            String op = ascendente ? ">" : "<";
+            if (orden == Orden.ID) {
+                condiciones.add("id " + op + " ?");
+                params.add(despuesDe.id());
+            } else {
+                String col = orden.getColumna();
+                condiciones.add("(" + col + " " + op + " ? OR (" + col + " = ? AND id " + op + " ?))");
+                params.add(despuesDe.valor());
+                params.add(despuesDe.valor());
+                params.add(despuesDe.id());
+            }
+        }
+        return condiciones.isEmpty() ? "" : " WHERE " + String.join(" AND ", condiciones);
+    }
+
+    /**
+     * Genera la cláusula ORDER BY (con el ID como desempate para que el orden sea total).
+     */
+    String orderBySql() {
+        String dir = ascendente ? " ASC" : " DESC";
+        if (orden == Orden.ID) {
+            return " ORDER BY id" + dir;
+        }
+        return " ORDER BY " + orden.getColumna() + dir + ", id" + dir;
+    }
+
+    private static void rango(List<String> condiciones, List<Object> params, String columna, Object min, Object max) {
+        if (min != null) {
+            condiciones.add(columna + " >= ?");
+            params.add(min);
+        }
+        if (max != null) {
+            condiciones.add(columna + " <= ?");
+            params.add(max);
+        }
+    }
+
+    // Getters y Setters (encadenables)
+
+    public String getEquipo() { return equipo; }
+    public JugadorCriteria setEquipo(String equipo) { this.equipo = vacioANulo(equipo); return this; }
+    public Posicion getPosicion() { return posicion; }
+    public JugadorCriteria setPosicion(Posicion posicion) { this.posicion = posicion; return this; }
+    public String getNombrePrefijo() { return nombrePrefijo; }
+    public JugadorCriteria setNombrePrefijo(String nombrePrefijo) { this.nombrePrefijo = vacioANulo(nombrePrefijo); return this; }
+    public Integer getAnillosMin() { return anillosMin; }
+    public JugadorCriteria setAnillosMin(Integer anillosMin) { this.anillosMin = anillosMin; return this; }
+    public Integer getAnillosMax() { return anillosMax; }
+    public JugadorCriteria setAnillosMax(Integer anillosMax) { this.anillosMax = anillosMax; return this; }
+    public Double getAlturaMin() { return alturaMin; }
+    public JugadorCriteria setAlturaMin(Double alturaMin) { this.alturaMin = alturaMin; return this; }
+    public Double getAlturaMax() { return alturaMax; }
+    public JugadorCriteria setAlturaMax(Double alturaMax) { this.alturaMax = alturaMax; return this; }
+    public Double getPesoMin() { return pesoMin; }
+    public JugadorCriteria setPesoMin(Double pesoMin) { this.pesoMin = pesoMin; return this; }
+    public Double getPesoMax() { return pesoMax; }
+    public JugadorCriteria setPesoMax(Double pesoMax) { this.pesoMax = pesoMax; return this; }
+    public Orden getOrden() { return orden; }
+    public JugadorCriteria setOrden(Orden orden) { this.orden = orden; return this; }
+    public boolean isAscendente() { return ascendente; }
+    public JugadorCriteria setAscendente(boolean ascendente) { this.ascendente = ascendente; return this; }
+    public int getTamanoPagina() { return tamanoPagina; }
+    public JugadorCriteria setTamanoPagina(int tamanoPagina) { this.tamanoPagina = Math.max(1, tamanoPagina); return this; }
+    public int getPagina() { return pagina; }
+    public JugadorCriteria setPagina(int pagina) { this.pagina = Math.max(0, pagina); return this; }
+    public Cursor getDespuesDe() { return despuesDe; }
+    public JugadorCriteria setDespuesDe(Cursor despuesDe) { this.despuesDe = despuesDe; return this; }
+    public boolean isConTotal() { return conTotal; }
+    public JugadorCriteria setConTotal(boolean conTotal) { this.conTotal = conTotal; return this; }
+
+    private static String vacioANulo(String valor) {
+        return valor == null || valor.trim().isEmpty() ? null : valor.trim();
+    }
+}
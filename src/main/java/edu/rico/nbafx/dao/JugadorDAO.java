@@ -1,96 +1,75 @@
 package edu.rico.nbafx.dao;
 
 import edu.rico.nbafx.model.Jugador;
-import edu.rico.nbafx.model.Posicion;
-import edu.rico.nbafx.util.DatabaseConnection;
+import edu.rico.nbafx.util.AppConfig;
 
-import java.sql.*;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * Clase de Acceso a Datos (DAO) para la entidad Jugador.
- * Gestiona las operaciones CRUD contra la tabla 'jugadores' en la base de datos.
+ * Contrato de acceso a datos de la entidad Jugador.
+ * <p>
+ * Implementaciones: {@link JdbcJugadorDAO} (tabla 'jugadores' de la base de datos) y
+ * {@link MemoriaJugadorDAO} (almacén en memoria). Se obtiene con {@link DaoFactory#jugadores()}.
  */
-public class JugadorDAO {
+public interface JugadorDAO {
+
+    /** Filas leídas por lote al recorrer la tabla con {@link #streamAll()}. */
+    int TAMANO_LOTE_STREAM = AppConfig.getInt("jugadores.streamBatchSize", 500);
 
     /**
-     * Recupera todos los jugadores de la base de datos.
+     * Huella del contenido de la tabla de jugadores.
      *
-     * @return Una lista de objetos Jugador.
+     * @param count Número de filas.
+     * @param maxId ID máximo.
+     * @param sumIds Suma de los IDs (altas y bajas).
+     * @param sumVersiones Suma de las versiones de las filas (modificaciones).
      */
-    public List<Jugador> findAll() {
-        List<Jugador> jugadores = new ArrayList<>();
-        String sql = "SELECT * FROM jugadores";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                jugadores.add(mapResultSetToJugador(rs));
-            }
+    record Version(long count, long maxId, long sumIds, long sumVersiones) {
+    }
+
+    /**
+     * Recupera todos los jugadores.
+     *
+     * @return Una lista de objetos Jugador (vacía si falla el acceso a los datos).
+     */
+    default List<Jugador> findAll() {
+        try {
+            return loadAll();
         } catch (SQLException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return jugadores;
     }
 
+    /**
+     * Recupera todos los jugadores propagando los errores de base de datos, para que quien
+     * cachee el resultado pueda distinguir una tabla vacía de un fallo.
+     *
+     * @return Una lista de objetos Jugador.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    List<Jugador> loadAll() throws SQLException;
+
     /**
      * Busca un jugador por su ID.
      *
      * @param id El ID del jugador a buscar.
      * @return Un Optional que contiene al Jugador si existe.
      */
-    public Optional<Jugador> findById(int id) {
-        String sql = "SELECT * FROM jugadores WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            
-            if (rs.next()) {
-                return Optional.of(mapResultSetToJugador(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return Optional.empty();
-    }
+    Optional<Jugador> findById(int id);
 
     /**
-     * Guarda un nuevo jugador en la base de datos.
+     * Guarda un nuevo jugador y le asigna el ID generado.
      *
      * @param jugador El objeto Jugador a guardar.
      * @throws SQLException Si ocurre un error durante la inserción.
      */
-    public void save(Jugador jugador) throws SQLException {
-        String sql = "INSERT INTO jugadores (nombre, dorsal, equipo, posicion, numero_anillos, altura, peso, image_url) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, jugador.getNombre());
-            stmt.setInt(2, jugador.getDorsal());
-            stmt.setString(3, jugador.getEquipo());
-            stmt.setString(4, jugador.getPosicion().name());
-            stmt.setInt(5, jugador.getNumeroAnillos());
-            stmt.setDouble(6, jugador.getAltura());
-            stmt.setDouble(7, jugador.getPeso());
-            stmt.setString(8, jugador.getImageUrl());
-            
-            stmt.executeUpdate();
-            
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    jugador.setId(generatedKeys.getInt(1));
-                }
-            }
-        }
-    }
+    void save(Jugador jugador) throws SQLException;
 
     /**
      * Actualiza la información de un jugador existente.
@@ -98,61 +77,142 @@ public class JugadorDAO {
      * @param jugador El objeto Jugador con la información actualizada.
      * @throws SQLException Si ocurre un error durante la actualización.
      */
-    public void update(Jugador jugador) throws SQLException {
-        String sql = "UPDATE jugadores SET nombre = ?, dorsal = ?, equipo = ?, posicion = ?, numero_anillos = ?, altura = ?, peso = ?, image_url = ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, jugador.getNombre());
-            stmt.setInt(2, jugador.getDorsal());
-            stmt.setString(3, jugador.getEquipo());
-            stmt.setString(4, jugador.getPosicion().name());
-            stmt.setInt(5, jugador.getNumeroAnillos());
-            stmt.setDouble(6, jugador.getAltura());
-            stmt.setDouble(7, jugador.getPeso());
-            stmt.setString(8, jugador.getImageUrl());
-            stmt.setInt(9, jugador.getId());
-            
-            stmt.executeUpdate();
-        }
-    }
+    void update(Jugador jugador) throws SQLException;
 
     /**
-     * Elimina un jugador de la base de datos por su ID.
+     * Elimina un jugador por su ID.
      *
      * @param id El ID del jugador a eliminar.
      * @throws SQLException Si ocurre un error durante la eliminación.
      */
-    public void delete(int id) throws SQLException {
-        String sql = "DELETE FROM jugadores WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
-        }
+    void delete(int id) throws SQLException;
+
+    /**
+     * Guarda varios jugadores de forma atómica.
+     * Los IDs generados se asignan a cada jugador en el mismo orden de la lista.
+     *
+     * @param jugadores Los jugadores a guardar.
+     * @return Número de filas insertadas.
+     * @throws SQLException Si falla alguna inserción (no se guarda ninguno).
+     */
+    default int saveAll(List<Jugador> jugadores) throws SQLException {
+        return saveAll(jugadores, JdbcBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Guarda varios jugadores de forma atómica con el tamaño de lote indicado.
+     *
+     * @param jugadores Los jugadores a guardar.
+     * @param batchSize Filas por envío al servidor (las implementaciones sin servidor lo ignoran).
+     * @return Número de filas insertadas.
+     * @throws SQLException Si falla alguna inserción (no se guarda ninguno).
+     */
+    int saveAll(List<Jugador> jugadores, int batchSize) throws SQLException;
+
+    /**
+     * Actualiza varios jugadores de forma atómica.
+     *
+     * @param jugadores Los jugadores con la información actualizada.
+     * @return Número de filas actualizadas.
+     * @throws SQLException Si falla alguna actualización (no se aplica ninguna).
+     */
+    default int updateAll(List<Jugador> jugadores) throws SQLException {
+        return updateAll(jugadores, JdbcBatch.DEFAULT_BATCH_SIZE);
     }
 
     /**
-     * Mapea un ResultSet a un objeto Jugador.
-     *
-     * @param rs El ResultSet posicionado en la fila actual.
-     * @return El objeto Jugador mapeado.
-     * @throws SQLException Si ocurre un error al acceder a los datos.
-     */
-    private Jugador mapResultSetToJugador(ResultSet rs) throws SQLException {
-        Jugador jugador = new Jugador();
-        jugador.setId(rs.getInt("id"));
-        jugador.setNombre(rs.getString("nombre"));
-        jugador.setDorsal(rs.getInt("dorsal"));
-        jugador.setEquipo(rs.getString("equipo"));
-        jugador.setPosicion(Posicion.valueOf(rs.getString("posicion")));
-        jugador.setNumeroAnillos(rs.getInt("numero_anillos"));
-        jugador.setAltura(rs.getDouble("altura"));
-        jugador.setPeso(rs.getDouble("peso"));
-        jugador.setImageUrl(rs.getString("image_url"));
-        return jugador;
+     * Actualiza varios jugadores de forma atómica con el tamaño de lote indicado.
+     *
+     * @param jugadores Los jugadores con la información actualizada.
+     * @param batchSize Filas por envío al servidor (las implementaciones sin servidor lo ignoran).
+     * @return Número de filas actualizadas.
+     * @throws SQLException Si falla alguna actualización (no se aplica ninguna).
+     */
+    int updateAll(List<Jugador> jugadores, int batchSize) throws SQLException;
+
+    /**
+     * Elimina varios jugadores por ID de forma atómica.
+     *
+     * @param ids Los IDs de los jugadores a eliminar.
+     * @return Número de filas eliminadas.
+     * @throws SQLException Si falla algún borrado (no se elimina ninguno).
+     */
+    default int deleteAllById(Collection<Integer> ids) throws SQLException {
+        return deleteAllById(ids, JdbcBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Elimina varios jugadores por ID de forma atómica, en trozos de batchSize IDs.
+     *
+     * @param ids Los IDs de los jugadores a eliminar.
+     * @param batchSize IDs por sentencia DELETE (las implementaciones sin servidor lo ignoran).
+     * @return Número de filas eliminadas.
+     * @throws SQLException Si falla algún borrado (no se elimina ninguno).
+     */
+    int deleteAllById(Collection<Integer> ids, int batchSize) throws SQLException;
+
+    /**
+     * Recupera una página de jugadores aplicando filtros, orden y paginación.
+     *
+     * @param criteria Filtros, orden y posición de la página.
+     * @return La página de jugadores.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    Page<Jugador> findPage(JugadorCriteria criteria) throws SQLException;
+
+    /**
+     * Recorre todos los jugadores en orden de ID sin cargarlos a la vez en memoria.
+     *
+     * @return Un Stream perezoso de jugadores.
+     * @see #stream(JugadorCriteria)
+     */
+    default Stream<Jugador> streamAll() {
+        return stream(new JugadorCriteria().setTamanoPagina(TAMANO_LOTE_STREAM));
+    }
+
+    /**
+     * Recorre los jugadores que cumplen un criterio de forma perezosa, por lotes.
+     * <p>
+     * Cada lote es una página por cursor ({@link #findPage(JugadorCriteria)}), así que la memoria
+     * queda acotada al tamaño de página y no se retiene ninguna conexión entre lotes
+     * (ver {@link JdbcBatch#stream}). Se recomienda usarlo en un try-with-resources.
+     *
+     * @param criteria Filtros, orden y tamaño de lote (se ignoran la página y el total).
+     * @return Un Stream perezoso de jugadores.
+     */
+    default Stream<Jugador> stream(JugadorCriteria criteria) {
+        return JdbcBatch.stream(criteria.getTamanoPagina(), (ultimo, limite) -> findPage(criteria.copia()
+                .setConTotal(false)
+                .setPagina(0)
+                .setDespuesDe(ultimo != null ? criteria.cursorTras(ultimo) : criteria.getDespuesDe())).items());
+    }
+
+    /**
+     * Cuenta los jugadores que cumplen los filtros del criterio (se ignoran orden y paginación).
+     *
+     * @param criteria Filtros a aplicar.
+     * @return El número de jugadores.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    long count(JugadorCriteria criteria) throws SQLException;
+
+    /**
+     * Obtiene una huella barata del contenido de la tabla (número de filas, ID máximo, suma de IDs y
+     * suma de las versiones de las filas). Permite detectar altas, bajas y modificaciones hechas por
+     * otros clientes sin leer todas las filas: cada UPDATE incrementa la columna 'version' de su fila.
+     *
+     * @return La versión actual de la tabla.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    Version fingerprint() throws SQLException;
+
+    /**
+     * Indica si cada UPDATE incrementa la versión de su fila. Si no (una base MySQL sin migrar a la
+     * columna 'version'), las versiones valen siempre 0 y la huella solo detecta altas y bajas.
+     *
+     * @return true si las filas llevan versión.
+     */
+    default boolean versionaFilas() {
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,390 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Implementación en memoria de {@link JugadorDAO}, sin base de datos ni E/S.
+ * <p>
+ * Los jugadores se guardan en un {@link ConcurrentHashMap} por ID, así que {@link #findById} no
+ * toma ningún cerrojo. Además se mantienen índices primitivos ({@link BitSet} indexados por ID)
+ * con todos los IDs, con los de cada equipo y con los de cada posición: las consultas filtradas
+ * por equipo o posición solo recorren los candidatos del índice, y las ordenadas por ID se sirven
+ * recorriendo los bits en orden, sin ordenar y deteniéndose al completar la página.
+ * <p>
+ * Las escrituras toman el cerrojo de escritura para cambiar el mapa y los índices a la vez; las
+ * consultas que usan los índices, el de lectura. Se guardan y se devuelven copias, de modo que
+ * modificar un jugador devuelto no altera el almacén.
+ */
+public class MemoriaJugadorDAO implements JugadorDAO {
+
+    private static final BitSet VACIO = new BitSet();
+
+    private final Map<Integer, Jugador> porId = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Protegidos por lock
+    private final BitSet todos = new BitSet();
+    private final Map<String, BitSet> porEquipo = new HashMap<>();
+    private final Map<Posicion, BitSet> porPosicion = new EnumMap<>(Posicion.class);
+    private long sumaIds;
+    private long sumaVersiones;
+    private int ultimoId;
+
+    private volatile IntConsumer alEliminar = id -> { };
+
+    /**
+     * Registra la acción que se ejecuta tras borrar cada jugador (el equivalente al ON DELETE
+     * CASCADE de la tabla 'quintetos').
+     */
+    void alEliminar(IntConsumer accion) {
+        this.alEliminar = accion;
+    }
+
+    /**
+     * Indica si existe un jugador con ese ID (comprobación de clave ajena de los quintetos).
+     */
+    boolean existe(int id) {
+        return porId.containsKey(id);
+    }
+
+    @Override
+    public List<Jugador> loadAll() {
+        lock.readLock().lock();
+        try {
+            List<Jugador> jugadores = new ArrayList<>(porId.size());
+            for (int id = todos.nextSetBit(0); id >= 0; id = todos.nextSetBit(id + 1)) {
+                jugadores.add(new Jugador(porId.get(id)));
+            }
+            return jugadores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Jugador> findById(int id) {
+        Jugador jugador = porId.get(id);
+        return jugador == null ? Optional.empty() : Optional.of(new Jugador(jugador));
+    }
+
+    @Override
+    public void save(Jugador jugador) throws SQLException {
+        saveAll(List.of(jugador), 1);
+    }
+
+    @Override
+    public void update(Jugador jugador) throws SQLException {
+        updateAll(List.of(jugador), 1);
+    }
+
+    @Override
+    public void delete(int id) {
+        deleteAllById(List.of(id), 1);
+    }
+
+    @Override
+    public int saveAll(List<Jugador> jugadores, int batchSize) throws SQLException {
+        for (Jugador jugador : jugadores) {
+            validar(jugador);
+        }
+        lock.writeLock().lock();
+        try {
+            for (Jugador jugador : jugadores) {
+                jugador.setId(++ultimoId);
+                jugador.setVersion(0);
+                indexar(new Jugador(jugador));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return jugadores.size();
+    }
+
+    @Override
+    public int updateAll(List<Jugador> jugadores, int batchSize) throws SQLException {
+        for (Jugador jugador : jugadores) {
+            validar(jugador);
+        }
+        int filas = 0;
+        lock.writeLock().lock();
+        try {
+            for (Jugador jugador : jugadores) {
+                // Como un UPDATE que no encuentra la fila: no cuenta ni falla
+                Jugador anterior = porId.get(jugador.getId());
+                if (anterior != null) {
+                    // Como el UPDATE de la tabla, que incrementa la versión de la fila
+                    Jugador nuevo = new Jugador(jugador);
+                    nuevo.setVersion(anterior.getVersion() + 1);
+                    reemplazar(anterior, nuevo);
+                    filas++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return filas;
+    }
+
+    @Override
+    public int deleteAllById(Collection<Integer> ids, int batchSize) {
+        List<Integer> eliminados = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (int id : ids) {
+                Jugador anterior = porId.get(id);
+                if (anterior != null) {
+                    desindexar(anterior);
+                    eliminados.add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Fuera del cerrojo, para no anidarlo con el de los quintetos
+        IntConsumer accion = alEliminar;
+        eliminados.forEach(accion::accept);
+        return eliminados.size();
+    }
+
+    /**
+     * Recupera una página con la misma semántica que {@link JdbcJugadorDAO#findPage}.
+     * Con orden por ID no se ordena nada: se recorren los candidatos en el orden de sus bits.
+     */
+    @Override
+    public Page<Jugador> findPage(JugadorCriteria criteria) {
+        List<Jugador> items = new ArrayList<>(Math.min(criteria.getTamanoPagina(), 1024));
+        long total = -1;
+        boolean hayMas;
+        lock.readLock().lock();
+        try {
+            BitSet candidatos = candidatos(criteria);
+            if (criteria.isConTotal()) {
+                total = contar(candidatos, criteria);
+            }
+            hayMas = criteria.getOrden() == JugadorCriteria.Orden.ID
+                    ? recorrerPorId(candidatos, criteria, items)
+                    : ordenarYCortar(candidatos, criteria, items);
+        } finally {
+            lock.readLock().unlock();
+        }
+        JugadorCriteria.Cursor siguiente = hayMas ? criteria.cursorTras(items.get(items.size() - 1)) : null;
+        return new Page<>(items, total, hayMas, siguiente);
+    }
+
+    @Override
+    public long count(JugadorCriteria criteria) {
+        lock.readLock().lock();
+        try {
+            return contar(candidatos(criteria), criteria);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Version fingerprint() {
+        lock.readLock().lock();
+        try {
+            return new Version(porId.size(), Math.max(0, todos.length() - 1), sumaIds, sumaVersiones);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Incorpora un jugador conservando su ID (carga de una instantánea). Si ya existía se sustituye.
+     */
+    void restaurar(Jugador jugador) throws SQLException {
+        validar(jugador);
+        lock.writeLock().lock();
+        try {
+            Jugador anterior = porId.get(jugador.getId());
+            if (anterior != null) {
+                reemplazar(anterior, new Jugador(jugador));
+            } else {
+                indexar(new Jugador(jugador));
+            }
+            ultimoId = Math.max(ultimoId, jugador.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs que pueden cumplir el criterio según los índices de equipo y posición. Sin esos filtros
+     * devuelve el índice completo, que no debe modificarse.
+     */
+    private BitSet candidatos(JugadorCriteria criteria) {
+        BitSet equipo = criteria.getEquipo() != null ? porEquipo.getOrDefault(clave(criteria.getEquipo()), VACIO) : null;
+        BitSet posicion = criteria.getPosicion() != null ? porPosicion.getOrDefault(criteria.getPosicion(), VACIO) : null;
+        if (equipo == null && posicion == null) {
+            return todos;
+        }
+        if (equipo == null || posicion == null) {
+            return equipo != null ? equipo : posicion;
+        }
+        BitSet candidatos = (BitSet) equipo.clone();
+        candidatos.and(posicion);
+        return candidatos;
+    }
+
+    private long contar(BitSet candidatos, JugadorCriteria criteria) {
+        long total = 0;
+        for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+            if (criteria.test(porId.get(id))) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Recorre los candidatos en orden de ID desde el cursor (o saltando las páginas anteriores)
+     * hasta tener una fila más del tamaño de página.
+     *
+     * @return true si hay más filas tras las añadidas a items.
+     */
+    private boolean recorrerPorId(BitSet candidatos, JugadorCriteria criteria, List<Jugador> items) {
+        boolean ascendente = criteria.isAscendente();
+        int tamano = criteria.getTamanoPagina();
+        JugadorCriteria.Cursor cursor = criteria.getDespuesDe();
+        long saltar = cursor == null ? (long) criteria.getPagina() * tamano : 0;
+        int id;
+        if (cursor != null) {
+            id = ascendente ? candidatos.nextSetBit(Math.max(0, cursor.id() + 1))
+                    : candidatos.previousSetBit(Math.max(-1, cursor.id() - 1));
+        } else {
+            id = ascendente ? candidatos.nextSetBit(0) : candidatos.previousSetBit(candidatos.length() - 1);
+        }
+        while (id >= 0) {
+            Jugador jugador = porId.get(id);
+            if (criteria.test(jugador)) {
+                if (saltar > 0) {
+                    saltar--;
+                } else if (items.size() == tamano) {
+                    return true;
+                } else {
+                    items.add(new Jugador(jugador));
+                }
+            }
+            id = ascendente ? candidatos.nextSetBit(id + 1) : candidatos.previousSetBit(id - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Filtra y ordena los candidatos y copia la página pedida. El cursor se localiza con una
+     * búsqueda binaria sobre la lista ordenada.
+     *
+     * @return true si hay más filas tras las añadidas a items.
+     */
+    private boolean ordenarYCortar(BitSet candidatos, JugadorCriteria criteria, List<Jugador> items) {
+        List<Jugador> filtrados = new ArrayList<>();
+        for (int id = candidatos.nextSetBit(0); id >= 0; id = candidatos.nextSetBit(id + 1)) {
+            Jugador jugador = porId.get(id);
+            if (criteria.test(jugador)) {
+                filtrados.add(jugador);
+            }
+        }
+        filtrados.sort(criteria.comparator());
+
+        int desde;
+        if (criteria.getDespuesDe() != null) {
+            int bajo = 0;
+            int alto = filtrados.size();
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (criteria.estaDespuesDelCursor(filtrados.get(medio))) {
+                    alto = medio;
+                } else {
+                    bajo = medio + 1;
+                }
+            }
+            desde = bajo;
+        } else {
+            desde = (int) Math.min(filtrados.size(), (long) criteria.getPagina() * criteria.getTamanoPagina());
+        }
+        int hasta = Math.min(filtrados.size(), desde + criteria.getTamanoPagina());
+        for (int i = desde; i < hasta; i++) {
+            items.add(new Jugador(filtrados.get(i)));
+        }
+        return hasta < filtrados.size();
+    }
+
+    private void indexar(Jugador jugador) {
+        porId.put(jugador.getId(), jugador);
+        indexarBits(jugador);
+    }
+
+    private void desindexar(Jugador jugador) {
+        porId.remove(jugador.getId());
+        desindexarBits(jugador);
+    }
+
+    /**
+     * Sustituye un jugador existente. La entrada del mapa se reemplaza en un solo paso, sin
+     * quitarla antes, para que un {@link #findById} concurrente (sin cerrojo) siempre lo encuentre.
+     */
+    private void reemplazar(Jugador anterior, Jugador nuevo) {
+        porId.put(nuevo.getId(), nuevo);
+        desindexarBits(anterior);
+        indexarBits(nuevo);
+    }
+
+    private void indexarBits(Jugador jugador) {
+        int id = jugador.getId();
+        todos.set(id);
+        porEquipo.computeIfAbsent(clave(jugador.getEquipo()), k -> new BitSet()).set(id);
+        porPosicion.computeIfAbsent(jugador.getPosicion(), k -> new BitSet()).set(id);
+        sumaIds += id;
+        sumaVersiones += jugador.getVersion();
+    }
+
+    private void desindexarBits(Jugador jugador) {
+        int id = jugador.getId();
+        todos.clear(id);
+        quitarDeIndice(porEquipo, clave(jugador.getEquipo()), id);
+        quitarDeIndice(porPosicion, jugador.getPosicion(), id);
+        sumaIds -= id;
+        sumaVersiones -= jugador.getVersion();
+    }
+
+    private static <K> void quitarDeIndice(Map<K, BitSet> indice, K clave, int id) {
+        BitSet ids = indice.get(clave);
+        if (ids != null) {
+            ids.clear(id);
+            if (ids.isEmpty()) {
+                indice.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Mismas restricciones NOT NULL que la tabla 'jugadores'.
+     */
+    private static void validar(Jugador jugador) throws SQLException {
+        if (jugador.getNombre() == null || jugador.getEquipo() == null || jugador.getPosicion() == null) {
+            throw new SQLException("Faltan columnas obligatorias del jugador " + jugador, "23000");
+        }
+    }
+
+    // La comparación de equipos no distingue mayúsculas, como la collation de la tabla
+    private static String clave(String equipo) {
+        return equipo.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,161 @@
+package edu.rico.nbafx.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Implementación en memoria de {@link QuintetoDAO}, sin base de datos ni E/S.
+ * <p>
+ * El índice es un mapa concurrente ordenado por usuario_id cuyo valor es un {@link BitSet} con los
+ * IDs de sus jugadores. Cada quinteto se sincroniza sobre su propio BitSet, lo que hace el papel
+ * del SELECT ... FOR UPDATE de {@link JdbcQuintetoDAO#toggleJugador}: los cambios de un mismo
+ * usuario se serializan y los de usuarios distintos no se bloquean entre sí. Las claves ajenas
+ * se comprueban con los predicados recibidos.
+ */
+public class MemoriaQuintetoDAO implements QuintetoDAO {
+
+    private final ConcurrentSkipListMap<Integer, BitSet> porUsuario = new ConcurrentSkipListMap<>();
+    private final IntPredicate existeUsuario;
+    private final IntPredicate existeJugador;
+
+    /**
+     * @param existeUsuario Comprueba la clave ajena usuario_id.
+     * @param existeJugador Comprueba la clave ajena jugador_id.
+     */
+    public MemoriaQuintetoDAO(IntPredicate existeUsuario, IntPredicate existeJugador) {
+        this.existeUsuario = existeUsuario;
+        this.existeJugador = existeJugador;
+    }
+
+    @Override
+    public void addJugadorToQuinteto(int usuarioId, int jugadorId) throws SQLException {
+        comprobarClaves(usuarioId, jugadorId);
+        BitSet ids = porUsuario.computeIfAbsent(usuarioId, id -> new BitSet());
+        synchronized (ids) {
+            if (ids.get(jugadorId)) {
+                throw new SQLException("Duplicate entry '" + usuarioId + "-" + jugadorId + "' for key 'quintetos.PRIMARY'", "23000");
+            }
+            ids.set(jugadorId);
+        }
+    }
+
+    @Override
+    public void removeJugadorFromQuinteto(int usuarioId, int jugadorId) {
+        BitSet ids = porUsuario.get(usuarioId);
+        if (ids != null && jugadorId >= 0) {
+            synchronized (ids) {
+                ids.clear(jugadorId);
+            }
+        }
+    }
+
+    @Override
+    public BitSet findJugadorIds(int usuarioId) {
+        BitSet ids = porUsuario.get(usuarioId);
+        if (ids == null) {
+            return new BitSet();
+        }
+        synchronized (ids) {
+            return (BitSet) ids.clone();
+        }
+    }
+
+    @Override
+    public int countJugadoresInQuinteto(int usuarioId) {
+        BitSet ids = porUsuario.get(usuarioId);
+        if (ids == null) {
+            return 0;
+        }
+        synchronized (ids) {
+            return ids.cardinality();
+        }
+    }
+
+    @Override
+    public EstadoQuinteto toggleJugador(int usuarioId, int jugadorId, boolean seleccionar, int maximo) throws SQLException {
+        if (!existeUsuario.test(usuarioId)) {
+            throw new SQLException("No existe el usuario con id " + usuarioId);
+        }
+        BitSet ids = porUsuario.computeIfAbsent(usuarioId, id -> new BitSet());
+        synchronized (ids) {
+            boolean presente = jugadorId >= 0 && ids.get(jugadorId);
+            if (seleccionar && !presente) {
+                if (ids.cardinality() >= maximo) {
+                    return new EstadoQuinteto(lista(ids), true);
+                }
+                comprobarClaves(usuarioId, jugadorId);
+                ids.set(jugadorId);
+            } else if (!seleccionar && presente) {
+                ids.clear(jugadorId);
+            }
+            return new EstadoQuinteto(lista(ids), false);
+        }
+    }
+
+    @Override
+    public Stream<Entrada> stream(int tamanoLote) {
+        return JdbcBatch.stream(tamanoLote, (ultimo, limite) -> {
+            List<Entrada> lote = new ArrayList<>(limite);
+            Map<Integer, BitSet> resto = ultimo == null ? porUsuario : porUsuario.tailMap(ultimo.usuarioId(), true);
+            for (Map.Entry<Integer, BitSet> quinteto : resto.entrySet()) {
+                int usuarioId = quinteto.getKey();
+                int desde = ultimo != null && usuarioId == ultimo.usuarioId() ? ultimo.jugadorId() + 1 : 0;
+                BitSet ids = quinteto.getValue();
+                synchronized (ids) {
+                    for (int id = ids.nextSetBit(desde); id >= 0 && lote.size() < limite; id = ids.nextSetBit(id + 1)) {
+                        lote.add(new Entrada(usuarioId, id));
+                    }
+                }
+                if (lote.size() == limite) {
+                    break;
+                }
+            }
+            return lote;
+        });
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (BitSet ids : porUsuario.values()) {
+            synchronized (ids) {
+                total += ids.cardinality();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Quita un jugador de todos los quintetos (borrado en cascada al eliminar el jugador).
+     */
+    void quitarJugador(int jugadorId) {
+        for (BitSet ids : porUsuario.values()) {
+            synchronized (ids) {
+                ids.clear(jugadorId);
+            }
+        }
+    }
+
+    /**
+     * Elimina el quinteto de un usuario (borrado en cascada al eliminar el usuario).
+     */
+    void quitarUsuario(int usuarioId) {
+        porUsuario.remove(usuarioId);
+    }
+
+    private void comprobarClaves(int usuarioId, int jugadorId) throws SQLException {
+        if (!existeUsuario.test(usuarioId) || !existeJugador.test(jugadorId)) {
+            throw new SQLException("Clave ajena no válida en quintetos (" + usuarioId + ", " + jugadorId + ")", "23000");
+        }
+    }
+
+    private static List<Integer> lista(BitSet ids) {
+        return ids.stream().boxed().toList();
+    }
+}
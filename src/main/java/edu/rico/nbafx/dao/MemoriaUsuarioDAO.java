@@ -0,0 +1,244 @@
+package edu.rico.nbafx.dao;
+
+import edu.rico.nbafx.model.Usuario;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Implementación en memoria de {@link UsuarioDAO}, sin base de datos ni E/S.
+ * <p>
+ * Los usuarios se guardan en un mapa concurrente ordenado por ID (el recorrido por lotes continúa
+ * desde el último ID con {@code tailMap}) y un índice concurrente por nombre sin distinguir
+ * mayúsculas, que hace de restricción UNIQUE. Las lecturas no toman cerrojos; las escrituras se
+ * serializan para comprobar la unicidad y actualizar ambos mapas de forma atómica.
+ */
+public class MemoriaUsuarioDAO implements UsuarioDAO {
+
+    private final ConcurrentSkipListMap<Integer, Usuario> porId = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> porNombre = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int ultimoId;
+
+    private volatile IntConsumer alEliminar = id -> { };
+
+    /**
+     * Registra la acción que se ejecuta tras borrar cada usuario (el equivalente al ON DELETE
+     * CASCADE de la tabla 'quintetos').
+     */
+    void alEliminar(IntConsumer accion) {
+        this.alEliminar = accion;
+    }
+
+    /**
+     * Indica si existe un usuario con ese ID (comprobación de clave ajena de los quintetos).
+     */
+    boolean existe(int id) {
+        return porId.containsKey(id);
+    }
+
+    @Override
+    public Optional<Usuario> findByNombre(String nombre) {
+        Integer id = nombre != null ? porNombre.get(clave(nombre)) : null;
+        Usuario usuario = id != null ? porId.get(id) : null;
+        return usuario == null ? Optional.empty() : Optional.of(new Usuario(usuario));
+    }
+
+    @Override
+    public List<Usuario> findAll() {
+        List<Usuario> usuarios = new ArrayList<>(porId.size());
+        for (Usuario usuario : porId.values()) {
+            usuarios.add(new Usuario(usuario));
+        }
+        return usuarios;
+    }
+
+    @Override
+    public Stream<Usuario> stream(int tamanoLote) {
+        return JdbcBatch.stream(tamanoLote, (ultimo, limite) -> {
+            List<Usuario> lote = new ArrayList<>(limite);
+            Map<Integer, Usuario> resto = ultimo == null ? porId : porId.tailMap(ultimo.getId(), false);
+            for (Usuario usuario : resto.values()) {
+                if (lote.size() == limite) {
+                    break;
+                }
+                lote.add(new Usuario(usuario));
+            }
+            return lote;
+        });
+    }
+
+    @Override
+    public long count() {
+        return porId.size();
+    }
+
+    @Override
+    public void save(Usuario usuario) throws SQLException {
+        saveAll(List.of(usuario), 1);
+    }
+
+    @Override
+    public void update(Usuario usuario) throws SQLException {
+        updateAll(List.of(usuario), 1);
+    }
+
+    @Override
+    public boolean actualizarHash(int id, String hashAnterior, String hashNuevo) {
+        lock.lock();
+        try {
+            Usuario anterior = porId.get(id);
+            if (anterior == null || !anterior.getPassword().equals(hashAnterior)) {
+                return false;
+            }
+            // Las filas guardadas no se modifican: se sustituyen, como en updateAll
+            Usuario copia = new Usuario(anterior);
+            copia.setPassword(hashNuevo);
+            porId.put(id, copia);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(int id) {
+        deleteAllById(List.of(id), 1);
+    }
+
+    @Override
+    public int saveAll(List<Usuario> usuarios, int batchSize) throws SQLException {
+        lock.lock();
+        try {
+            // Se comprueba todo el lote antes de aplicar nada
+            Map<String, Integer> nombres = new HashMap<>(porNombre);
+            int provisional = 0;
+            for (Usuario usuario : usuarios) {
+                validar(usuario);
+                // Cada fila nueva reserva con un ID provisional distinto (negativo, nunca uno real)
+                // para que dos nombres repetidos dentro del lote también choquen
+                reservarNombre(nombres, usuario.getNombre(), --provisional);
+            }
+            LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+            for (Usuario usuario : usuarios) {
+                usuario.setId(++ultimoId);
+                Usuario copia = new Usuario(usuario);
+                // Como el DEFAULT CURRENT_TIMESTAMP de la tabla: no se devuelve al llamante
+                copia.setFechaCreacion(ahora);
+                guardar(copia);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return usuarios.size();
+    }
+
+    @Override
+    public int updateAll(List<Usuario> usuarios, int batchSize) throws SQLException {
+        lock.lock();
+        try {
+            Map<String, Integer> nombres = new HashMap<>(porNombre);
+            List<Usuario> existentes = new ArrayList<>();
+            for (Usuario usuario : usuarios) {
+                validar(usuario);
+                Usuario anterior = porId.get(usuario.getId());
+                if (anterior != null) {
+                    nombres.remove(clave(anterior.getNombre()));
+                    reservarNombre(nombres, usuario.getNombre(), usuario.getId());
+                    existentes.add(usuario);
+                }
+            }
+            for (Usuario usuario : existentes) {
+                Usuario anterior = porId.get(usuario.getId());
+                porNombre.remove(clave(anterior.getNombre()));
+                Usuario copia = new Usuario(usuario);
+                copia.setFechaCreacion(anterior.getFechaCreacion());
+                guardar(copia);
+            }
+            return existentes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int deleteAllById(Collection<Integer> ids, int batchSize) {
+        List<Integer> eliminados = new ArrayList<>();
+        lock.lock();
+        try {
+            for (int id : ids) {
+                Usuario anterior = porId.remove(id);
+                if (anterior != null) {
+                    porNombre.remove(clave(anterior.getNombre()));
+                    eliminados.add(id);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        IntConsumer accion = alEliminar;
+        eliminados.forEach(accion::accept);
+        return eliminados.size();
+    }
+
+    /**
+     * Incorpora un usuario conservando su ID y su fecha de creación (carga de una instantánea).
+     */
+    void restaurar(Usuario usuario) throws SQLException {
+        validar(usuario);
+        lock.lock();
+        try {
+            Usuario anterior = porId.get(usuario.getId());
+            if (anterior != null) {
+                porNombre.remove(clave(anterior.getNombre()));
+            }
+            reservarNombre(new HashMap<>(porNombre), usuario.getNombre(), usuario.getId());
+            guardar(new Usuario(usuario));
+            ultimoId = Math.max(ultimoId, usuario.getId());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void guardar(Usuario usuario) {
+        porId.put(usuario.getId(), usuario);
+        porNombre.put(clave(usuario.getNombre()), usuario.getId());
+    }
+
+    /**
+     * Anota el nombre en el mapa de prueba, fallando como la restricción UNIQUE si ya lo usa otro usuario.
+     */
+    private static void reservarNombre(Map<String, Integer> nombres, String nombre, int id) throws SQLException {
+        Integer actual = nombres.putIfAbsent(clave(nombre), id);
+        if (actual != null && actual != id) {
+            throw new SQLException("Duplicate entry '" + nombre + "' for key 'usuarios.nombre'", "23000");
+        }
+    }
+
+    /**
+     * Mismas restricciones NOT NULL que la tabla 'usuarios'.
+     */
+    private static void validar(Usuario usuario) throws SQLException {
+        if (usuario.getNombre() == null || usuario.getPassword() == null || usuario.getRol() == null) {
+            throw new SQLException("Faltan columnas obligatorias del usuario " + usuario.getNombre(), "23000");
+        }
+    }
+
+    // Los nombres no distinguen mayúsculas, como la collation de la tabla
+    private static String clave(String nombre) {
+        return nombre.toLowerCase(Locale.ROOT);
+    }
+}
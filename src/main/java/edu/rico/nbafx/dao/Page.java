@@ -0,0 +1,15 @@
+package edu.rico.nbafx.dao;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una consulta paginada.
+ *
+ * @param items Elementos de la página.
+ * @param total Número total de elementos que cumplen los filtros, o -1 si no se ha pedido.
+ * @param hayMas Indica si existen más elementos después de esta página.
+ * @param siguiente Cursor para pedir la página siguiente, o null si no hay más.
+ * @param <T> Tipo de los elementos.
+ */
+public record Page<T>(List<T> items, long total, boolean hayMas, JugadorCriteria.Cursor siguiente) {
+}
@@ -0,0 +1,235 @@
+package edu.rico.nbafx.dao;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché en memoria de los quintetos por usuario, situada delante de {@link QuintetoDAO}.
+ * <p>
+ * Cada quinteto se guarda como un {@link BitSet} indexado por el ID del jugador, así que comprobar
+ * si un jugador está en el quinteto es O(1) y sin boxing. Se carga una vez por usuario (al iniciar
+ * sesión) y después los cambios se aplican primero en memoria ({@link #aplicar}) y se confirman
+ * contra la base de datos ({@link #confirmar}); si la confirmación falla, el cambio se deshace.
+ * <p>
+ * Las confirmaciones de un mismo usuario se ejecutan de una en una y cada una guarda el estado
+ * que tiene el jugador en memoria en ese momento, no el que se pidió al aplicarla: si el usuario
+ * añade y quita un jugador seguido, la base de datos termina como la vista aunque las tareas
+ * lleguen en otro orden.
+ * <p>
+ * Las lecturas no consultan la base de datos: si el quinteto de un usuario no se ha cargado,
+ * se comporta como vacío.
+ */
+public class QuintetoCache {
+
+    private static QuintetoCache instance;
+
+    private final QuintetoDAO delegate;
+    private final Map<Integer, Estado> quintetos = new ConcurrentHashMap<>();
+
+    /**
+     * Quinteto de un usuario. Se sincroniza sobre la propia instancia.
+     */
+    private static final class Estado {
+        private final BitSet ids;
+        // Cambios aplicados en memoria que aún no se han confirmado
+        private int pendientes;
+        // Cola de confirmaciones: una sola escritura en la base de datos a la vez por usuario
+        private final ReentrantLock confirmaciones = new ReentrantLock(true);
+
+        private Estado(BitSet ids) {
+            this.ids = ids;
+        }
+    }
+
+    public QuintetoCache(QuintetoDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Devuelve la instancia compartida por la aplicación.
+     */
+    public static synchronized QuintetoCache getInstance() {
+        if (instance == null) {
+            instance = new QuintetoCache(DaoFactory.quintetos());
+        }
+        return instance;
+    }
+
+    /**
+     * Carga el quinteto de un usuario si todavía no está en memoria.
+     *
+     * @param usuarioId ID del usuario.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    public void cargar(int usuarioId) throws SQLException {
+        if (!quintetos.containsKey(usuarioId)) {
+            quintetos.putIfAbsent(usuarioId, new Estado(delegate.findJugadorIds(usuarioId)));
+        }
+    }
+
+    /**
+     * Indica si un jugador está en el quinteto de un usuario.
+     */
+    public boolean contiene(int usuarioId, int jugadorId) {
+        Estado estado = quintetos.get(usuarioId);
+        if (estado == null || jugadorId < 0) {
+            return false;
+        }
+        synchronized (estado) {
+            return estado.ids.get(jugadorId);
+        }
+    }
+
+    /**
+     * Número de jugadores en el quinteto de un usuario.
+     */
+    public int tamano(int usuarioId) {
+        Estado estado = quintetos.get(usuarioId);
+        if (estado == null) {
+            return 0;
+        }
+        synchronized (estado) {
+            return estado.ids.cardinality();
+        }
+    }
+
+    /**
+     * Aplica un cambio solo en memoria, de forma optimista. Debe seguirle una llamada a
+     * {@link #confirmar} con los mismos argumentos.
+     *
+     * @param usuarioId ID del usuario (su quinteto debe estar cargado).
+     * @param jugadorId ID del jugador.
+     * @param seleccionar true para añadirlo, false para quitarlo.
+     * @param maximo Número máximo de jugadores del quinteto.
+     * @return false si se pidió añadir y el quinteto ya estaba lleno (no se cambia nada).
+     */
+    public boolean aplicar(int usuarioId, int jugadorId, boolean seleccionar, int maximo) {
+        Estado estado = quintetos.computeIfAbsent(usuarioId, id -> new Estado(new BitSet()));
+        synchronized (estado) {
+            if (seleccionar && !estado.ids.get(jugadorId) && estado.ids.cardinality() >= maximo) {
+                return false;
+            }
+            estado.ids.set(jugadorId, seleccionar);
+            estado.pendientes++;
+            return true;
+        }
+    }
+
+    /**
+     * Resultado de confirmar un cambio.
+     *
+     * @param completo true si la base de datos rechazó añadir el jugador porque el quinteto estaba lleno.
+     * @param corregidos IDs de los jugadores cuyo estado en memoria cambió al confirmar (por
+     *                   deshacer el cambio o por sustituir la copia con la de la base de datos).
+     */
+    public record Confirmacion(boolean completo, List<Integer> corregidos) {
+    }
+
+    /**
+     * Confirma en la base de datos un cambio aplicado con {@link #aplicar}. Se guarda el estado
+     * actual del jugador en memoria; si un cambio posterior ya lo revirtió, esta confirmación no
+     * escribe nada y la del cambio posterior guardará el estado final. Si falla o la base de datos
+     * lo rechaza por capacidad, se deshace en memoria. Cuando no quedan más cambios pendientes del
+     * usuario, la copia se sustituye por el estado que devuelve la base de datos.
+     *
+     * @return El resultado, con los jugadores que hay que volver a pintar.
+     * @throws SQLException Si falla la base de datos (el cambio ya se ha deshecho).
+     */
+    public Confirmacion confirmar(int usuarioId, int jugadorId, boolean seleccionar, int maximo) throws SQLException {
+        Estado estado = quintetos.get(usuarioId);
+        if (estado == null) {
+            // Sesión ya cerrada: no hay copia en memoria que mantener
+            return new Confirmacion(delegate.toggleJugador(usuarioId, jugadorId, seleccionar, maximo).completo(), List.of());
+        }
+        estado.confirmaciones.lock();
+        try {
+            boolean deseado;
+            synchronized (estado) {
+                deseado = estado.ids.get(jugadorId);
+                if (deseado != seleccionar) {
+                    // Obsoleta: la confirmación del cambio que lo revirtió guardará el estado final
+                    estado.pendientes--;
+                    return new Confirmacion(false, List.of());
+                }
+            }
+            QuintetoDAO.EstadoQuinteto resultado = null;
+            try {
+                resultado = delegate.toggleJugador(usuarioId, jugadorId, deseado, maximo);
+            } finally {
+                synchronized (estado) {
+                    estado.pendientes--;
+                    if (resultado == null || resultado.completo()) {
+                        // Solo se deshace si nadie ha vuelto a cambiar ese jugador entretanto
+                        if (estado.ids.get(jugadorId) == deseado) {
+                            estado.ids.set(jugadorId, !deseado);
+                        }
+                    }
+                }
+            }
+            synchronized (estado) {
+                if (resultado.completo()) {
+                    return new Confirmacion(true, List.of(jugadorId));
+                }
+                if (estado.pendientes > 0) {
+                    return new Confirmacion(false, List.of());
+                }
+                BitSet real = new BitSet();
+                for (int id : resultado.jugadorIds()) {
+                    real.set(id);
+                }
+                BitSet corregidos = (BitSet) estado.ids.clone();
+                corregidos.xor(real);
+                estado.ids.clear();
+                estado.ids.or(real);
+                return new Confirmacion(false, corregidos.stream().boxed().toList());
+            }
+        } finally {
+            estado.confirmaciones.unlock();
+        }
+    }
+
+    /**
+     * Quita un jugador de todos los quintetos en memoria (al borrarlo, la base de datos
+     * elimina sus filas en cascada).
+     */
+    public void quitarJugador(int jugadorId) {
+        for (Estado estado : quintetos.values()) {
+            synchronized (estado) {
+                estado.ids.clear(jugadorId);
+            }
+        }
+    }
+
+    /**
+     * Quita varios jugadores de todos los quintetos en memoria.
+     */
+    public void quitarJugadores(Iterable<Integer> jugadorIds) {
+        for (int id : jugadorIds) {
+            quitarJugador(id);
+        }
+    }
+
+    /**
+     * Olvida el quinteto de un usuario (al cerrar sesión o eliminarlo).
+     */
+    public void olvidar(int usuarioId) {
+        quintetos.remove(usuarioId);
+    }
+
+    /**
+     * Copia de los IDs del quinteto de un usuario, en orden ascendente.
+     */
+    public List<Integer> ids(int usuarioId) {
+        Estado estado = quintetos.get(usuarioId);
+        if (estado == null) {
+            return List.of();
+        }
+        synchronized (estado) {
+            return estado.ids.stream().boxed().toList();
+        }
+    }
+}
@@ -1,79 +1,100 @@
 package edu.rico.nbafx.dao;
 
-import edu.rico.nbafx.util.DatabaseConnection;
-
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
- * DAO para gestionar la tabla 'quintetos'.
+ * Contrato de acceso a los quintetos ideales (relación N:M entre usuarios y jugadores).
+ * <p>
+ * Implementaciones: {@link JdbcQuintetoDAO} (tabla 'quintetos' de la base de datos) y
+ * {@link MemoriaQuintetoDAO} (almacén en memoria). Se obtiene con {@link DaoFactory#quintetos()}.
  */
-public class    QuintetoDAO {
+public interface QuintetoDAO {
 
     /**
-     * Añade un jugador al quinteto de un usuario.
+     * Resultado de {@link #toggleJugador}: el quinteto tal como queda tras la operación.
+     *
+     * @param jugadorIds IDs de los jugadores del quinteto después del cambio.
+     * @param completo true si se pidió añadir y no se hizo porque el quinteto estaba lleno.
      */
-    public void addJugadorToQuinteto(int usuarioId, int jugadorId) throws SQLException {
-        String sql = "INSERT INTO quintetos (usuario_id, jugador_id) VALUES (?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, usuarioId);
-            stmt.setInt(2, jugadorId);
-            stmt.executeUpdate();
-        }
+    record EstadoQuinteto(List<Integer> jugadorIds, boolean completo) {
     }
 
     /**
-     * Elimina un jugador del quinteto de un usuario.
+     * Fila de la tabla 'quintetos'.
      */
-    public void removeJugadorFromQuinteto(int usuarioId, int jugadorId) throws SQLException {
-        String sql = "DELETE FROM quintetos WHERE usuario_id = ? AND jugador_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, usuarioId);
-            stmt.setInt(2, jugadorId);
-            stmt.executeUpdate();
-        }
+    record Entrada(int usuarioId, int jugadorId) {
     }
 
+    /**
+     * Añade un jugador al quinteto de un usuario.
+     */
+    void addJugadorToQuinteto(int usuarioId, int jugadorId) throws SQLException;
+
+    /**
+     * Elimina un jugador del quinteto de un usuario.
+     */
+    void removeJugadorFromQuinteto(int usuarioId, int jugadorId) throws SQLException;
+
     /**
      * Obtiene los IDs de los jugadores en el quinteto de un usuario.
      */
-    public List<Integer> getQuintetoJugadorIds(int usuarioId) {
+    default List<Integer> getQuintetoJugadorIds(int usuarioId) {
         List<Integer> ids = new ArrayList<>();
-        String sql = "SELECT jugador_id FROM quintetos WHERE usuario_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, usuarioId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                ids.add(rs.getInt("jugador_id"));
-            }
+        try {
+            findJugadorIds(usuarioId).stream().forEach(ids::add);
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return ids;
     }
 
+    /**
+     * Obtiene los IDs de los jugadores en el quinteto de un usuario como un conjunto de bits
+     * indexado por ID.
+     *
+     * @param usuarioId ID del usuario.
+     * @return Los IDs del quinteto.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    BitSet findJugadorIds(int usuarioId) throws SQLException;
+
     /**
      * Cuenta cuántos jugadores tiene un usuario en su quinteto.
      */
-    public int countJugadoresInQuinteto(int usuarioId) {
-        String sql = "SELECT COUNT(*) FROM quintetos WHERE usuario_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, usuarioId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return 0;
-    }
-}
\ No newline at end of file
+    int countJugadoresInQuinteto(int usuarioId);
+
+    /**
+     * Añade o quita un jugador del quinteto de un usuario de forma atómica: la comprobación de
+     * capacidad y el cambio no se pueden intercalar con otro cambio del mismo usuario, así que
+     * no se puede superar el máximo.
+     *
+     * @param usuarioId ID del usuario.
+     * @param jugadorId ID del jugador.
+     * @param seleccionar true para añadirlo, false para quitarlo.
+     * @param maximo Número máximo de jugadores del quinteto.
+     * @return El quinteto después de la operación.
+     * @throws SQLException Si el usuario no existe o falla la base de datos.
+     */
+    EstadoQuinteto toggleJugador(int usuarioId, int jugadorId, boolean seleccionar, int maximo) throws SQLException;
+
+    /**
+     * Recorre todas las filas en orden de clave (usuario, jugador) de forma perezosa, por lotes
+     * (ver {@link JdbcBatch#stream}). Debe cerrarse al terminar.
+     *
+     * @param tamanoLote Filas por lote.
+     * @return Un Stream de entradas.
+     */
+    Stream<Entrada> stream(int tamanoLote);
+
+    /**
+     * Cuenta todas las filas (jugadores en quintetos de todos los usuarios).
+     *
+     * @return El número de filas.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    long count() throws SQLException;
+}
@@ -1,19 +1,20 @@
 package edu.rico.nbafx.dao;
 
-import edu.rico.nbafx.model.Rol;
 import edu.rico.nbafx.model.Usuario;
-import edu.rico.nbafx.util.DatabaseConnection;
 
-import java.sql.*;
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
- * Clase de Acceso a Datos (DAO) para la entidad Usuario.
- * Gestiona las operaciones CRUD contra la base de datos MySQL.
+ * Contrato de acceso a datos de la entidad Usuario.
+ * <p>
+ * Implementaciones: {@link JdbcUsuarioDAO} (tabla 'usuarios' de la base de datos) y
+ * {@link MemoriaUsuarioDAO} (almacén en memoria). Se obtiene con {@link DaoFactory#usuarios()}.
  */
-public class UsuarioDAO {
+public interface UsuarioDAO {
 
     /**
      * Busca un usuario por su nombre de usuario.
@@ -21,63 +22,52 @@ public class UsuarioDAO {
      * @param nombre El nombre de usuario a buscar.
      * @return Un Optional que contiene el Usuario si se encuentra, o vacío si no.
      */
-    public Optional<Usuario> findByNombre(String nombre) {
-        String sql = "SELECT * FROM usuarios WHERE nombre = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, nombre);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return Optional.of(mapResultSetToUsuario(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return Optional.empty();
+    Optional<Usuario> findByNombre(String nombre);
+
+    /**
+     * Busca lo necesario para autenticar a un usuario (ID, nombre, hash y rol). A diferencia de
+     * {@link #findByNombre}, un error de la base de datos se propaga en lugar de devolver vacío,
+     * para no confundirlo con un usuario inexistente.
+     *
+     * @param nombre El nombre de usuario a buscar.
+     * @return Un Optional con el Usuario (sin fecha de creación) si existe.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    default Optional<Usuario> findCredenciales(String nombre) throws SQLException {
+        return findByNombre(nombre);
     }
 
     /**
-     * Recupera todos los usuarios de la base de datos.
+     * Recupera todos los usuarios.
      *
      * @return Una lista de objetos Usuario.
      */
-    public List<Usuario> findAll() {
-        List<Usuario> usuarios = new ArrayList<>();
-        String sql = "SELECT * FROM usuarios";
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                usuarios.add(mapResultSetToUsuario(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return usuarios;
-    }
+    List<Usuario> findAll();
 
     /**
-     * Guarda un nuevo usuario en la base de datos.
+     * Recorre todos los usuarios en orden de ID de forma perezosa, por lotes
+     * (ver {@link JdbcBatch#stream}). Debe cerrarse al terminar.
+     *
+     * @param tamanoLote Usuarios por lote.
+     * @return Un Stream de usuarios.
+     */
+    Stream<Usuario> stream(int tamanoLote);
+
+    /**
+     * Cuenta los usuarios registrados.
+     *
+     * @return El número de usuarios.
+     * @throws SQLException Si ocurre un error en la consulta.
+     */
+    long count() throws SQLException;
+
+    /**
+     * Guarda un nuevo usuario y le asigna el ID generado.
      *
      * @param usuario El objeto Usuario a guardar.
-     * @throws SQLException Si ocurre un error durante la inserción.
+     * @throws SQLException Si ocurre un error durante la inserción (p. ej. nombre repetido).
      */
-    public void save(Usuario usuario) throws SQLException {
-        String sql = "INSERT INTO usuarios (nombre, password, rol) VALUES (?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, usuario.getNombre());
-            stmt.setString(2, usuario.getPassword());
-            stmt.setString(3, usuario.getRol().name());
-            stmt.executeUpdate();
-            
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    usuario.setId(generatedKeys.getInt(1));
-                }
-            }
-        }
-    }
+    void save(Usuario usuario) throws SQLException;
 
     /**
      * Actualiza la información de un usuario existente.
@@ -85,47 +75,90 @@ public class UsuarioDAO {
      * @param usuario El objeto Usuario con la información actualizada.
      * @throws SQLException Si ocurre un error durante la actualización.
      */
-    public void update(Usuario usuario) throws SQLException {
-        String sql = "UPDATE usuarios SET nombre = ?, password = ?, rol = ? WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, usuario.getNombre());
-            stmt.setString(2, usuario.getPassword());
-            stmt.setString(3, usuario.getRol().name());
-            stmt.setInt(4, usuario.getId());
-            stmt.executeUpdate();
-        }
-    }
+    void update(Usuario usuario) throws SQLException;
+
+    /**
+     * Sustituye el hash de la contraseña de un usuario solo si sigue siendo el indicado
+     * (compare-and-set), sin tocar el resto de columnas. Así, actualizar un hash antiguo al
+     * iniciar sesión no revierte un cambio de contraseña, nombre o rol hecho entretanto.
+     *
+     * @param id ID del usuario.
+     * @param hashAnterior Hash que se espera encontrar.
+     * @param hashNuevo Hash que lo sustituye.
+     * @return true si se cambió (1 fila), false si el hash ya no era el esperado o el usuario no existe.
+     * @throws SQLException Si ocurre un error durante la actualización.
+     */
+    boolean actualizarHash(int id, String hashAnterior, String hashNuevo) throws SQLException;
 
     /**
-     * Elimina un usuario de la base de datos por su ID.
+     * Elimina un usuario por su ID (su quinteto se elimina con él).
      *
      * @param id El ID del usuario a eliminar.
      * @throws SQLException Si ocurre un error durante la eliminación.
      */
-    public void delete(int id) throws SQLException {
-        String sql = "DELETE FROM usuarios WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
-        }
+    void delete(int id) throws SQLException;
+
+    /**
+     * Guarda varios usuarios de forma atómica.
+     * Los IDs generados se asignan a cada usuario en el mismo orden de la lista.
+     *
+     * @param usuarios Los usuarios a guardar.
+     * @return Número de filas insertadas.
+     * @throws SQLException Si falla alguna inserción (no se guarda ninguno).
+     */
+    default int saveAll(List<Usuario> usuarios) throws SQLException {
+        return saveAll(usuarios, JdbcBatch.DEFAULT_BATCH_SIZE);
     }
 
     /**
-     * Mapea un ResultSet a un objeto Usuario.
+     * Guarda varios usuarios de forma atómica con el tamaño de lote indicado.
      *
-     * @param rs El ResultSet posicionado en la fila actual.
-     * @return El objeto Usuario mapeado.
-     * @throws SQLException Si ocurre un error al acceder a los datos.
+     * @param usuarios Los usuarios a guardar.
+     * @param batchSize Filas por envío al servidor (las implementaciones sin servidor lo ignoran).
+     * @return Número de filas insertadas.
+     * @throws SQLException Si falla alguna inserción (no se guarda ninguno).
      */
-    private Usuario mapResultSetToUsuario(ResultSet rs) throws SQLException {
-        Usuario usuario = new Usuario();
-        usuario.setId(rs.getInt("id"));
-        usuario.setNombre(rs.getString("nombre"));
-        usuario.setPassword(rs.getString("password"));
-        usuario.setRol(Rol.valueOf(rs.getString("rol")));
-        usuario.setFechaCreacion(rs.getTimestamp("fecha_creacion").toLocalDateTime());
-        return usuario;
+    int saveAll(List<Usuario> usuarios, int batchSize) throws SQLException;
+
+    /**
+     * Actualiza varios usuarios de forma atómica.
+     *
+     * @param usuarios Los usuarios con la información actualizada.
+     * @return Número de filas actualizadas.
+     * @throws SQLException Si falla alguna actualización (no se aplica ninguna).
+     */
+    default int updateAll(List<Usuario> usuarios) throws SQLException {
+        return updateAll(usuarios, JdbcBatch.DEFAULT_BATCH_SIZE);
     }
-}
\ No newline at end of file
+
+    /**
+     * Actualiza varios usuarios de forma atómica con el tamaño de lote indicado.
+     *
+     * @param usuarios Los usuarios con la información actualizada.
+     * @param batchSize Filas por envío al servidor (las implementaciones sin servidor lo ignoran).
+     * @return Número de filas actualizadas.
+     * @throws SQLException Si falla alguna actualización (no se aplica ninguna).
+     */
+    int updateAll(List<Usuario> usuarios, int batchSize) throws SQLException;
+
+    /**
+     * Elimina varios usuarios por ID de forma atómica.
+     *
+     * @param ids Los IDs de los usuarios a eliminar.
+     * @return Número de filas eliminadas.
+     * @throws SQLException Si falla algún borrado (no se elimina ninguno).
+     */
+    default int deleteAllById(Collection<Integer> ids) throws SQLException {
+        return deleteAllById(ids, JdbcBatch.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Elimina varios usuarios por ID de forma atómica, en trozos de batchSize IDs.
+     *
+     * @param ids Los IDs de los usuarios a eliminar.
+     * @param batchSize IDs por sentencia DELETE (las implementaciones sin servidor lo ignoran).
+     * @return Número de filas eliminadas.
+     * @throws SQLException Si falla algún borrado (no se elimina ninguno).
+     */
+    int deleteAllById(Collection<Integer> ids, int batchSize) throws SQLException;
+}
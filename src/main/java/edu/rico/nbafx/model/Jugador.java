@@ -16,6 +16,7 @@ public class Jugador {
     private double altura; // En metros
     private double peso;   // En kilogramos
     private String imageUrl; // URL de la imagen del jugador
+    private int version; // Cambios de la fila: la base de datos la incrementa en cada UPDATE
 
     /**
      * Constructor vacío por defecto.
@@ -46,6 +47,24 @@ public class Jugador {
         this.imageUrl = imageUrl;
     }
 
+    /**
+     * Constructor de copia.
+     *
+     * @param otro El jugador a copiar.
+     */
+    public Jugador(Jugador otro) {
+        this.id = otro.id;
+        this.nombre = otro.nombre;
+        this.dorsal = otro.dorsal;
+        this.equipo = otro.equipo;
+        this.posicion = otro.posicion;
+        this.numeroAnillos = otro.numeroAnillos;
+        this.altura = otro.altura;
+        this.peso = otro.peso;
+        this.imageUrl = otro.imageUrl;
+        this.version = otro.version;
+    }
+
     // Getters y Setters
 
     public int getId() {
@@ -120,6 +139,18 @@ public class Jugador {
         this.imageUrl = imageUrl;
     }
 
+    /**
+     * Versión de la fila, que la base de datos incrementa en cada modificación. No forma parte de
+     * la igualdad: solo sirve para detectar cambios hechos por otros clientes.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Jugador{" +
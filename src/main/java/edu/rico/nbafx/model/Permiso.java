@@ -0,0 +1,34 @@
+package edu.rico.nbafx.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Enumerado que define las acciones que cada rol puede realizar en la aplicación.
+ */
+public enum Permiso {
+    GESTIONAR_USUARIOS,
+    EDITAR_JUGADORES,
+    IMPORTAR_JUGADORES,
+    EXPORTAR_USUARIOS,
+    EXPORTAR_QUINTETOS,
+    TENER_QUINTETO;
+
+    /**
+     * Permisos de un rol.
+     *
+     * @param rol El rol, o null si no hay sesión.
+     * @return Un conjunto no modificable con sus permisos (vacío si el rol es null).
+     */
+    public static Set<Permiso> de(Rol rol) {
+        if (rol == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(switch (rol) {
+            case ADMIN -> EnumSet.of(GESTIONAR_USUARIOS, EDITAR_JUGADORES, IMPORTAR_JUGADORES,
+                    EXPORTAR_USUARIOS, EXPORTAR_QUINTETOS);
+            case USER -> EnumSet.of(TENER_QUINTETO);
+        });
+    }
+}
@@ -17,6 +17,14 @@ public class Usuario {
         this.rol = rol;
     }
 
+    public Usuario(Usuario otro) {
+        this.id = otro.id;
+        this.nombre = otro.nombre;
+        this.password = otro.password;
+        this.rol = otro.rol;
+        this.fechaCreacion = otro.fechaCreacion;
+    }
+
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     public String getNombre() { return nombre; }
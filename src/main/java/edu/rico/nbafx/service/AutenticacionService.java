@@ -0,0 +1,256 @@
+package edu.rico.nbafx.service;
+
+import edu.rico.nbafx.dao.DaoFactory;
+import edu.rico.nbafx.dao.UsuarioDAO;
+import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.util.AppConfig;
+import edu.rico.nbafx.util.HashContrasenas;
+import edu.rico.nbafx.util.LimitadorTasa;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Autenticación de usuarios con caché de credenciales y límite de intentos.
+ * <p>
+ * Guarda durante {@code auth.cache.ttlSeconds} el ID, nombre, hash y rol de cada usuario buscado
+ * (clave: el nombre sin distinguir mayúsculas) y durante {@code auth.cache.negativeTtlSeconds} los
+ * nombres que no existen, así que una ráfaga de inicios de sesión se resuelve en memoria y solo
+ * cuesta el hash. Si la contraseña no coincide con un hash de la caché se vuelve a consultar una
+ * vez la base de datos, por si se cambió desde otro cliente.
+ * <p>
+ * Antes de nada, cada intento gasta una ficha del limitador del usuario y otra del cliente
+ * ({@code auth.rate.*}); sin fichas se rechaza sin consultar ni calcular nada.
+ * {@link UsuarioService} invalida las entradas al crear, modificar o eliminar usuarios.
+ */
+public class AutenticacionService {
+
+    private static final Logger LOGGER = Logger.getLogger(AutenticacionService.class.getName());
+
+    private static AutenticacionService instance;
+
+    private final UsuarioDAO usuarioDAO;
+    private final HashContrasenas hasher;
+    private final long ttlNanos;
+    private final long ttlNegativoNanos;
+    private final int maxEntradas;
+    private final LimitadorTasa limitadorUsuario;
+    private final LimitadorTasa limitadorCliente;
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+
+    // Métricas
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder aciertosNegativos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder limitados = new LongAdder();
+
+    /**
+     * Entrada de la caché: el usuario (null si no existe) y cuándo caduca.
+     */
+    private record Entrada(Usuario usuario, long caducaEn) {
+    }
+
+    /**
+     * Métricas de la autenticación.
+     *
+     * @param aciertos Búsquedas resueltas con una entrada positiva de la caché.
+     * @param aciertosNegativos Búsquedas de usuarios inexistentes resueltas en la caché.
+     * @param fallos Búsquedas que consultaron la base de datos.
+     * @param limitados Intentos rechazados por el limitador.
+     * @param entradas Entradas en la caché.
+     */
+    public record Stats(long aciertos, long aciertosNegativos, long fallos, long limitados, int entradas) {
+    }
+
+    /**
+     * Crea el servicio.
+     *
+     * @param usuarioDAO DAO de usuarios.
+     * @param hasher Pool de hash de contraseñas.
+     * @param ttlSeconds Segundos que se guarda un usuario encontrado.
+     * @param ttlNegativoSeconds Segundos que se recuerda que un nombre no existe.
+     * @param maxEntradas Entradas a partir de las cuales se dejan de guardar nombres inexistentes.
+     * @param limitadorUsuario Limitador por nombre de usuario, o null para no limitar.
+     * @param limitadorCliente Limitador por cliente, o null para no limitar.
+     */
+    public AutenticacionService(UsuarioDAO usuarioDAO, HashContrasenas hasher, long ttlSeconds,
+                                long ttlNegativoSeconds, int maxEntradas,
+                                LimitadorTasa limitadorUsuario, LimitadorTasa limitadorCliente) {
+        this.usuarioDAO = usuarioDAO;
+        this.hasher = hasher;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.ttlNegativoNanos = TimeUnit.SECONDS.toNanos(ttlNegativoSeconds);
+        this.maxEntradas = maxEntradas;
+        this.limitadorUsuario = limitadorUsuario;
+        this.limitadorCliente = limitadorCliente;
+    }
+
+    /**
+     * Obtiene el servicio compartido, configurado desde config.properties ({@code auth.*}).
+     *
+     * @return La instancia única del servicio.
+     */
+    public static synchronized AutenticacionService getInstance() {
+        if (instance == null) {
+            int maxClaves = AppConfig.getInt("auth.cache.maxEntries", 10_000);
+            boolean limitar = AppConfig.getBoolean("auth.rate.enabled", true);
+            instance = new AutenticacionService(DaoFactory.usuarios(), HashContrasenas.getInstance(),
+                    AppConfig.getLong("auth.cache.ttlSeconds", 60),
+                    AppConfig.getLong("auth.cache.negativeTtlSeconds", 10),
+                    maxClaves,
+                    limitar ? new LimitadorTasa(AppConfig.getInt("auth.rate.userBurst", 5),
+                            AppConfig.getDouble("auth.rate.userPerSecond", 0.2), maxClaves) : null,
+                    limitar ? new LimitadorTasa(AppConfig.getInt("auth.rate.clientBurst", 20),
+                            AppConfig.getDouble("auth.rate.clientPerSecond", 2), maxClaves) : null);
+        }
+        return instance;
+    }
+
+    /**
+     * Autentica un usuario. La búsqueda en la base de datos (solo si no está en la caché) y la
+     * actualización de un hash antiguo se ejecutan en {@code executorBd}; la verificación, en el
+     * pool de {@link HashContrasenas}.
+     *
+     * @param nombre El nombre de usuario.
+     * @param password La contraseña en texto plano.
+     * @param cliente Identificador del cliente que hace el intento.
+     * @param executorBd Ejecutor de las tareas de base de datos.
+     * @return Un futuro con una copia del Usuario si las credenciales son correctas, o vacío si no.
+     *         Falla con {@link LimiteIntentosException} si se supera el límite de intentos y con
+     *         {@link java.util.concurrent.RejectedExecutionException} si el pool de hash está saturado.
+     */
+    public CompletableFuture<Optional<Usuario>> autenticar(String nombre, String password, String cliente, Executor executorBd) {
+        String clave = clave(nombre);
+        if ((limitadorCliente != null && !limitadorCliente.intentar(cliente))
+                || (limitadorUsuario != null && !limitadorUsuario.intentar(clave))) {
+            limitados.increment();
+            return CompletableFuture.failedFuture(
+                    new LimiteIntentosException("Demasiados intentos de inicio de sesión. Espere unos segundos."));
+        }
+
+        Entrada entrada = cache.get(clave);
+        if (entrada != null && System.nanoTime() < entrada.caducaEn()) {
+            if (entrada.usuario() == null) {
+                aciertosNegativos.increment();
+            } else {
+                aciertos.increment();
+            }
+            return verificar(clave, entrada.usuario(), password, true, executorBd);
+        }
+        return CompletableFuture.supplyAsync(() -> buscar(clave, nombre), executorBd)
+                .thenCompose(usuario -> verificar(clave, usuario, password, false, executorBd));
+    }
+
+    /**
+     * Olvida lo que se sabe de un nombre de usuario (p. ej. tras registrarlo).
+     */
+    public void invalidar(String nombre) {
+        if (nombre != null) {
+            cache.remove(clave(nombre));
+        }
+    }
+
+    /**
+     * Olvida las entradas de un usuario por su ID (p. ej. tras modificarlo o eliminarlo, cuando
+     * puede haber cambiado de nombre).
+     */
+    public void invalidar(int usuarioId) {
+        cache.values().removeIf(entrada -> entrada.usuario() != null && entrada.usuario().getId() == usuarioId);
+    }
+
+    /**
+     * Obtiene las métricas actuales.
+     */
+    public Stats getStats() {
+        return new Stats(aciertos.sum(), aciertosNegativos.sum(), fallos.sum(), limitados.sum(), cache.size());
+    }
+
+    private CompletableFuture<Optional<Usuario>> verificar(String clave, Usuario usuario, String password,
+                                                           boolean desdeCache, Executor executorBd) {
+        return hasher.verificar(password, usuario != null ? usuario.getPassword() : null)
+                .thenCompose(verificacion -> {
+                    if (!verificacion.correcta()) {
+                        // El hash de la caché puede ser anterior a un cambio de contraseña en otro cliente
+                        if (desdeCache && usuario != null) {
+                            return CompletableFuture.supplyAsync(() -> buscar(clave, usuario.getNombre()), executorBd)
+                                    .thenCompose(actual -> actual != null && !actual.getPassword().equals(usuario.getPassword())
+                                            ? verificar(clave, actual, password, false, executorBd)
+                                            : CompletableFuture.completedFuture(Optional.empty()));
+                        }
+                        return CompletableFuture.completedFuture(Optional.empty());
+                    }
+                    if (limitadorUsuario != null) {
+                        limitadorUsuario.reiniciar(clave);
+                    }
+                    if (verificacion.nuevoHash() == null) {
+                        return CompletableFuture.completedFuture(Optional.of(new Usuario(usuario)));
+                    }
+                    return CompletableFuture.supplyAsync(
+                            () -> Optional.of(actualizarHash(clave, usuario, verificacion.nuevoHash())), executorBd);
+                });
+    }
+
+    /**
+     * Consulta la base de datos y guarda el resultado (también si el usuario no existe).
+     */
+    private Usuario buscar(String clave, String nombre) {
+        fallos.increment();
+        Optional<Usuario> usuario;
+        try {
+            usuario = usuarioDAO.findCredenciales(nombre);
+        } catch (SQLException e) {
+            throw new CompletionException(e);
+        }
+        if (cache.size() >= maxEntradas) {
+            long ahora = System.nanoTime();
+            cache.values().removeIf(entrada -> ahora >= entrada.caducaEn());
+        }
+        if (usuario.isPresent() || cache.size() < maxEntradas) {
+            long ttl = usuario.isPresent() ? ttlNanos : ttlNegativoNanos;
+            cache.put(clave, new Entrada(usuario.orElse(null), System.nanoTime() + ttl));
+        }
+        return usuario.orElse(null);
+    }
+
+    /**
+     * Sustituye un hash antiguo por el recalculado, en la base de datos y en la caché. Solo se
+     * escribe la contraseña y solo si sigue siendo la leída: la copia de la caché puede tener hasta
+     * {@code auth.cache.ttlSeconds} y no debe revertir cambios hechos entretanto. Si no se aplica o
+     * falla, el inicio de sesión sigue siendo válido y se reintentará la próxima vez.
+     *
+     * @return Una copia del usuario con el hash que quedó guardado.
+     */
+    private Usuario actualizarHash(String clave, Usuario usuario, String nuevoHash) {
+        try {
+            if (!usuarioDAO.actualizarHash(usuario.getId(), usuario.getPassword(), nuevoHash)) {
+                // Otro cliente cambió la contraseña (o borró el usuario): se vuelve a leer la próxima vez
+                cache.remove(clave);
+                return new Usuario(usuario);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "No se pudo actualizar el hash de la contraseña de " + usuario.getNombre(), e);
+            return new Usuario(usuario);
+        }
+        Usuario actualizado = new Usuario(usuario);
+        actualizado.setPassword(nuevoHash);
+        // Las entradas de la caché no se modifican: se sustituyen (salvo que otro hilo ya lo hiciera)
+        cache.computeIfPresent(clave, (k, entrada) -> entrada.usuario() == usuario
+                ? new Entrada(new Usuario(actualizado), entrada.caducaEn()) : entrada);
+        return actualizado;
+    }
+
+    // Los nombres no distinguen mayúsculas, como la collation de la tabla
+    private static String clave(String nombre) {
+        return nombre.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,190 @@
+package edu.rico.nbafx.service;
+
+import edu.rico.nbafx.dao.DaoFactory;
+import edu.rico.nbafx.dao.JugadorCache;
+import edu.rico.nbafx.dao.JugadorCriteria;
+import edu.rico.nbafx.dao.QuintetoDAO;
+import edu.rico.nbafx.dao.UsuarioDAO;
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.util.AppConfig;
+import edu.rico.nbafx.util.EscritorFilas;
+import edu.rico.nbafx.util.EscritorFilas.Columna;
+import edu.rico.nbafx.util.EscritorFilas.Tipo;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación de jugadores, usuarios y quintetos a CSV, JSON o al formato por
+ * columnas .nbac.
+ * <p>
+ * Las filas se leen de los DAO en streaming por lotes y se escriben según llegan, así que nunca
+ * se construye la lista completa en memoria. Se escribe primero en un fichero temporal junto al
+ * destino y solo al terminar se renombra, de modo que una exportación cancelada o fallida no
+ * deja un fichero a medias.
+ */
+public class ExportacionService {
+
+    /** Cada cuántas filas se informa del progreso y se comprueba la cancelación. */
+    private static final int INTERVALO_PROGRESO = 500;
+
+    private final int tamanoLote = Math.max(1, AppConfig.getInt("export.batchSize", 1000));
+    private final JugadorCache jugadorDAO = JugadorCache.getInstance();
+    private final UsuarioDAO usuarioDAO = DaoFactory.usuarios();
+    private final QuintetoDAO quintetoDAO = DaoFactory.quintetos();
+
+    /**
+     * Datos que se pueden exportar.
+     */
+    public enum Entidad {
+        JUGADORES("jugadores"),
+        USUARIOS("usuarios"),
+        QUINTETOS("quintetos");
+
+        private final String nombreFichero;
+
+        Entidad(String nombreFichero) {
+            this.nombreFichero = nombreFichero;
+        }
+
+        public String getNombreFichero() {
+            return nombreFichero;
+        }
+    }
+
+    /**
+     * Recibe el avance de una exportación.
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        void actualizar(long filas, long total);
+    }
+
+    /**
+     * Resultado de una exportación.
+     *
+     * @param filas Filas escritas.
+     * @param bytes Tamaño del fichero generado.
+     * @param duracionMillis Tiempo total.
+     */
+    public record ResultadoExportacion(long filas, long bytes, long duracionMillis) {
+    }
+
+    private static final List<Columna> COLUMNAS_JUGADOR = List.of(
+            new Columna("id", Tipo.INT),
+            new Columna("nombre", Tipo.STRING),
+            new Columna("dorsal", Tipo.INT),
+            new Columna("equipo", Tipo.STRING),
+            new Columna("posicion", Tipo.STRING),
+            new Columna("numero_anillos", Tipo.INT),
+            new Columna("altura", Tipo.DOUBLE),
+            new Columna("peso", Tipo.DOUBLE),
+            new Columna("image_url", Tipo.STRING));
+
+    // La contraseña no se exporta nunca
+    private static final List<Columna> COLUMNAS_USUARIO = List.of(
+            new Columna("id", Tipo.INT),
+            new Columna("nombre", Tipo.STRING),
+            new Columna("rol", Tipo.STRING),
+            new Columna("fecha_creacion", Tipo.STRING));
+
+    private static final List<Columna> COLUMNAS_QUINTETO = List.of(
+            new Columna("usuario_id", Tipo.INT),
+            new Columna("jugador_id", Tipo.INT));
+
+    /**
+     * Exporta una entidad completa a un fichero.
+     *
+     * @param entidad Qué se exporta.
+     * @param destino Fichero de salida (se sobrescribe si existe).
+     * @param formato Formato de salida.
+     * @param progreso Recibe las filas escritas y el total estimado (desde el hilo de trabajo).
+     * @param cancelado Se consulta periódicamente; si devuelve true se aborta sin crear el fichero.
+     * @return El resultado de la exportación.
+     * @throws IOException Si no se puede escribir el fichero.
+     * @throws SQLException Si falla la lectura de la base de datos.
+     * @throws CancellationException Si se canceló.
+     */
+    public ResultadoExportacion exportar(Entidad entidad, Path destino, EscritorFilas.Formato formato,
+                                         Progreso progreso, BooleanSupplier cancelado) throws IOException, SQLException {
+        return switch (entidad) {
+            case JUGADORES -> escribir(destino, formato, COLUMNAS_JUGADOR,
+                    jugadorDAO.count(new JugadorCriteria()),
+                    () -> jugadorDAO.stream(new JugadorCriteria().setTamanoPagina(tamanoLote)),
+                    ExportacionService::filaJugador, progreso, cancelado);
+            case USUARIOS -> escribir(destino, formato, COLUMNAS_USUARIO, usuarioDAO.count(),
+                    () -> usuarioDAO.stream(tamanoLote),
+                    ExportacionService::filaUsuario, progreso, cancelado);
+            case QUINTETOS -> escribir(destino, formato, COLUMNAS_QUINTETO, quintetoDAO.count(),
+                    () -> quintetoDAO.stream(tamanoLote),
+                    entrada -> new Object[]{entrada.usuarioId(), entrada.jugadorId()}, progreso, cancelado);
+        };
+    }
+
+    private <T> ResultadoExportacion escribir(Path destino, EscritorFilas.Formato formato, List<Columna> columnas,
+                                              long total, Supplier<Stream<T>> origen,
+                                              Function<T, Object[]> fila, Progreso progreso,
+                                              BooleanSupplier cancelado) throws IOException, SQLException {
+        long inicio = System.nanoTime();
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".part");
+        long filas = 0;
+        long bytes;
+        try {
+            try (EscritorFilas escritor = EscritorFilas.abrir(temporal, formato, columnas);
+                 Stream<T> stream = origen.get()) {
+                Iterator<T> it = stream.iterator();
+                while (it.hasNext()) {
+                    escritor.escribir(fila.apply(it.next()));
+                    if (++filas % INTERVALO_PROGRESO == 0) {
+                        if (cancelado.getAsBoolean()) {
+                            throw new CancellationException("Exportación cancelada");
+                        }
+                        progreso.actualizar(filas, Math.max(total, filas));
+                    }
+                }
+            } catch (IllegalStateException e) {
+                if (e.getCause() instanceof SQLException sql) {
+                    throw sql;
+                }
+                throw e;
+            }
+            bytes = Files.size(temporal);
+            mover(temporal, destino);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+        progreso.actualizar(filas, filas);
+        return new ResultadoExportacion(filas, bytes, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    private static void mover(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Object[] filaJugador(Jugador j) {
+        return new Object[]{j.getId(), j.getNombre(), j.getDorsal(), j.getEquipo(),
+                j.getPosicion() != null ? j.getPosicion().name() : null,
+                j.getNumeroAnillos(), j.getAltura(), j.getPeso(), j.getImageUrl()};
+    }
+
+    private static Object[] filaUsuario(Usuario u) {
+        return new Object[]{u.getId(), u.getNombre(), u.getRol() != null ? u.getRol().name() : null,
+                u.getFechaCreacion() != null ? u.getFechaCreacion().toString() : null};
+    }
+}
@@ -0,0 +1,338 @@
+package edu.rico.nbafx.service;
+
+import edu.rico.nbafx.dao.JugadorCache;
+import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
+import edu.rico.nbafx.util.AppConfig;
+import edu.rico.nbafx.util.LectorFilas;
+import edu.rico.nbafx.util.TaskExecutor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Servicio de importación masiva de jugadores desde ficheros CSV o JSON.
+ * <p>
+ * El fichero se lee de forma secuencial y en streaming, agrupando los registros en lotes.
+ * Cada lote se convierte y valida en paralelo ({@link JugadorService#validarJugador(Jugador)})
+ * y los jugadores válidos se guardan con {@code saveAll}, un lote por transacción y en el orden
+ * del fichero. Como mucho hay {@code import.maxLotesEnVuelo} lotes leídos pendientes de guardar:
+ * si la base de datos va más lenta que la lectura, la lectura espera (contrapresión) y la
+ * memoria queda acotada aunque el fichero sea muy grande.
+ */
+public class ImportacionService {
+
+    /** Número máximo de errores detallados que se conservan en el informe. */
+    private static final int MAX_ERRORES_DETALLADOS = 1000;
+
+    private final JugadorService jugadorService = new JugadorService();
+    private final JugadorCache jugadorDAO = JugadorCache.getInstance();
+    private final int tamanoLote;
+    private final int maxLotesEnVuelo;
+    private final int paralelismo;
+
+    /**
+     * Error de una fila concreta del fichero.
+     *
+     * @param linea Línea del fichero en la que empieza el registro.
+     * @param mensaje Motivo por el que no se importó.
+     */
+    public record ErrorFila(long linea, String mensaje) {
+    }
+
+    /**
+     * Estado de una importación en curso.
+     *
+     * @param leidas Registros leídos del fichero.
+     * @param importadas Jugadores guardados.
+     * @param erroneas Registros descartados.
+     * @param bytesLeidos Bytes del fichero procesados.
+     * @param bytesTotales Tamaño del fichero.
+     */
+    public record Progreso(int leidas, int importadas, int erroneas, long bytesLeidos, long bytesTotales) {
+    }
+
+    /**
+     * Resultado de una importación.
+     *
+     * @param leidas Registros leídos del fichero.
+     * @param importadas Jugadores guardados.
+     * @param erroneas Registros descartados (validación o base de datos).
+     * @param errores Detalle de los primeros errores, ordenados por línea.
+     * @param duracionMillis Tiempo total de la importación.
+     * @param filasPorSegundo Rendimiento medio (registros leídos por segundo).
+     */
+    public record ResultadoImportacion(int leidas, int importadas, int erroneas, List<ErrorFila> errores,
+                                       long duracionMillis, double filasPorSegundo) {
+    }
+
+    /**
+     * Lote de registros leídos y, tras validarlo, los jugadores válidos y los errores.
+     */
+    private static final class Lote {
+        private final List<LectorFilas.Fila> filas;
+        private final List<Jugador> validos = new ArrayList<>();
+        private final List<Long> lineasValidas = new ArrayList<>();
+        private final List<ErrorFila> errores = new ArrayList<>();
+
+        private Lote(List<LectorFilas.Fila> filas) {
+            this.filas = filas;
+        }
+    }
+
+    /**
+     * Crea el servicio con la configuración de config.properties ({@code import.*}).
+     */
+    public ImportacionService() {
+        this(AppConfig.getInt("import.batchSize", 500),
+                AppConfig.getInt("import.maxLotesEnVuelo", 4),
+                AppConfig.getInt("import.parallelism", Math.max(1, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * @param tamanoLote Registros por lote (y por transacción).
+     * @param maxLotesEnVuelo Lotes leídos que pueden estar pendientes de guardar a la vez.
+     * @param paralelismo Lotes que se validan simultáneamente.
+     */
+    public ImportacionService(int tamanoLote, int maxLotesEnVuelo, int paralelismo) {
+        this.tamanoLote = Math.max(1, tamanoLote);
+        this.maxLotesEnVuelo = Math.max(1, maxLotesEnVuelo);
+        this.paralelismo = Math.max(1, paralelismo);
+    }
+
+    /**
+     * Importa los jugadores de un fichero .csv o .json.
+     *
+     * @param fichero El fichero a importar.
+     * @param progreso Recibe el estado tras guardar cada lote (desde un hilo de trabajo).
+     * @param cancelado Se consulta antes de leer cada lote; si devuelve true la importación se
+     *                  detiene (los lotes ya guardados se conservan).
+     * @return El informe de la importación.
+     * @throws IOException Si el fichero no se puede leer o su formato es incorrecto.
+     * @throws CancellationException Si se canceló.
+     */
+    public ResultadoImportacion importarJugadores(Path fichero, Consumer<Progreso> progreso,
+                                                  BooleanSupplier cancelado) throws IOException {
+        long inicio = System.nanoTime();
+        long bytesTotales = Files.size(fichero);
+        AtomicInteger leidas = new AtomicInteger();
+        AtomicInteger importadas = new AtomicInteger();
+        AtomicInteger erroneas = new AtomicInteger();
+        List<ErrorFila> errores = Collections.synchronizedList(new ArrayList<>());
+
+        Semaphore enVuelo = new Semaphore(maxLotesEnVuelo);
+        TaskExecutor validadores = new TaskExecutor(paralelismo);
+        CompletableFuture<Void> escritura = CompletableFuture.completedFuture(null);
+
+        boolean cancelada = false;
+        try (LectorFilas lector = LectorFilas.abrir(fichero)) {
+            try {
+                while (!escritura.isCompletedExceptionally()) {
+                    if (cancelado.getAsBoolean()) {
+                        cancelada = true;
+                        break;
+                    }
+                    List<LectorFilas.Fila> filas = leerLote(lector);
+                    if (filas.isEmpty()) {
+                        break;
+                    }
+                    leidas.addAndGet(filas.size());
+                    enVuelo.acquireUninterruptibly();
+
+                    Lote lote = new Lote(filas);
+                    CompletableFuture<Lote> validado = CompletableFuture.supplyAsync(() -> validar(lote), validadores);
+                    // Las escrituras se encadenan para guardarse de una en una y en el orden del fichero
+                    CompletableFuture<Void> paso = escritura.thenCombine(validado, (nada, listo) -> listo)
+                            .thenAccept(listo -> {
+                                int guardados = guardar(listo);
+                                importadas.addAndGet(guardados);
+                                erroneas.addAndGet(listo.filas.size() - guardados);
+                                anadirErrores(errores, listo.errores);
+                                progreso.accept(new Progreso(leidas.get(), importadas.get(), erroneas.get(),
+                                        lector.bytesLeidos(), bytesTotales));
+                            });
+                    // El permiso se libera aunque falle un lote anterior, para no bloquear la lectura
+                    paso.whenComplete((nada, error) -> enVuelo.release());
+                    escritura = paso;
+                }
+            } finally {
+                // Antes de salir (también por error de lectura) se terminan los lotes ya leídos
+                esperar(escritura);
+            }
+        } finally {
+            validadores.shutdown(1_000);
+        }
+        if (cancelada) {
+            throw new CancellationException("Importación cancelada tras guardar " + importadas.get() + " jugadores");
+        }
+
+        long duracion = System.nanoTime() - inicio;
+        List<ErrorFila> detalle = new ArrayList<>(errores);
+        detalle.sort(Comparator.comparingLong(ErrorFila::linea));
+        double segundos = duracion / 1_000_000_000.0;
+        return new ResultadoImportacion(leidas.get(), importadas.get(), erroneas.get(), detalle,
+                duracion / 1_000_000, segundos > 0 ? leidas.get() / segundos : 0);
+    }
+
+    private List<LectorFilas.Fila> leerLote(LectorFilas lector) throws IOException {
+        List<LectorFilas.Fila> filas = new ArrayList<>(tamanoLote);
+        LectorFilas.Fila fila;
+        while (filas.size() < tamanoLote && (fila = lector.siguiente()) != null) {
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    /**
+     * Convierte y valida las filas de un lote (se ejecuta en paralelo con otros lotes).
+     */
+    private Lote validar(Lote lote) {
+        for (LectorFilas.Fila fila : lote.filas) {
+            try {
+                Jugador jugador = mapearJugador(fila.valores());
+                jugadorService.validarJugador(jugador);
+                lote.validos.add(jugador);
+                lote.lineasValidas.add(fila.linea());
+            } catch (IllegalArgumentException e) {
+                lote.errores.add(new ErrorFila(fila.linea(), e.getMessage()));
+            }
+        }
+        return lote;
+    }
+
+    /**
+     * Guarda los jugadores válidos de un lote en una transacción. Si falla, se reintenta fila a
+     * fila para identificar qué registros rechaza la base de datos y guardar el resto.
+     *
+     * @return Número de jugadores guardados.
+     */
+    private int guardar(Lote lote) {
+        if (lote.validos.isEmpty()) {
+            return 0;
+        }
+        try {
+            jugadorDAO.saveAll(lote.validos);
+            return lote.validos.size();
+        } catch (SQLException loteFallido) {
+            int guardados = 0;
+            for (int i = 0; i < lote.validos.size(); i++) {
+                Jugador jugador = lote.validos.get(i);
+                try {
+                    jugador.setId(0);
+                    jugadorDAO.save(jugador);
+                    guardados++;
+                } catch (SQLException e) {
+                    lote.errores.add(new ErrorFila(lote.lineasValidas.get(i), "Error de base de datos: " + e.getMessage()));
+                }
+            }
+            return guardados;
+        }
+    }
+
+    /**
+     * Convierte un registro del fichero en un jugador. Acepta decimales con coma o punto.
+     *
+     * @throws IllegalArgumentException Si falta un campo obligatorio o tiene un formato incorrecto.
+     */
+    private Jugador mapearJugador(Map<String, String> valores) {
+        Jugador jugador = new Jugador();
+        jugador.setNombre(texto(valores, "nombre", true));
+        jugador.setEquipo(texto(valores, "equipo", true));
+        jugador.setDorsal(entero(valores, "dorsal", null));
+        jugador.setPosicion(posicion(texto(valores, "posicion", true)));
+        jugador.setNumeroAnillos(entero(valores, "numeroanillos", valores.containsKey("anillos") ? "anillos" : null));
+        jugador.setAltura(decimal(valores, "altura"));
+        jugador.setPeso(decimal(valores, "peso"));
+        jugador.setImageUrl(texto(valores, "imageurl", false));
+        return jugador;
+    }
+
+    private static String texto(Map<String, String> valores, String campo, boolean obligatorio) {
+        String valor = valores.get(campo);
+        if (valor == null || valor.isBlank()) {
+            if (obligatorio) {
+                throw new IllegalArgumentException("Falta el campo '" + campo + "'");
+            }
+            return null;
+        }
+        return valor.trim();
+    }
+
+    private static int entero(Map<String, String> valores, String campo, String alternativo) {
+        String valor = valores.get(campo);
+        if ((valor == null || valor.isBlank()) && alternativo != null) {
+            valor = valores.get(alternativo);
+        }
+        if (valor == null || valor.isBlank()) {
+            if (campo.equals("numeroanillos")) {
+                return 0; // columna con valor por defecto en la tabla
+            }
+            throw new IllegalArgumentException("Falta el campo '" + campo + "'");
+        }
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo '" + campo + "' no es un número entero: " + valor);
+        }
+    }
+
+    private static double decimal(Map<String, String> valores, String campo) {
+        String valor = texto(valores, campo, true);
+        try {
+            return Double.parseDouble(valor.replace(",", "."));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El campo '" + campo + "' no es un número: " + valor);
+        }
+    }
+
+    private static Posicion posicion(String valor) {
+        String normalizada = valor.trim().toUpperCase(Locale.ROOT).replace('-', '_').replace(' ', '_')
+                .replace('Í', 'I');
+        for (Posicion posicion : Posicion.values()) {
+            if (posicion.name().equals(normalizada) || posicion.getDescripcion().equalsIgnoreCase(valor.trim())) {
+                return posicion;
+            }
+        }
+        throw new IllegalArgumentException("Posición desconocida '" + valor + "'. Valores válidos: "
+                + Arrays.toString(Posicion.values()));
+    }
+
+    private static void anadirErrores(List<ErrorFila> destino, List<ErrorFila> nuevos) {
+        synchronized (destino) {
+            for (ErrorFila error : nuevos) {
+                if (destino.size() >= MAX_ERRORES_DETALLADOS) {
+                    return;
+                }
+                destino.add(error);
+            }
+        }
+    }
+
+    private static void esperar(CompletableFuture<Void> escritura) throws IOException {
+        try {
+            escritura.join();
+        } catch (CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Error durante la importación", causa);
+        }
+    }
+}
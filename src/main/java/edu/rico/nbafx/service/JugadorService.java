@@ -1,24 +1,30 @@
 package edu.rico.nbafx.service;
 
-import edu.rico.nbafx.dao.JugadorDAO;
+import edu.rico.nbafx.dao.JugadorCache;
+import edu.rico.nbafx.dao.JugadorCriteria;
+import edu.rico.nbafx.dao.Page;
+import edu.rico.nbafx.dao.QuintetoCache;
 import edu.rico.nbafx.model.Jugador;
+import edu.rico.nbafx.model.Posicion;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Servicio que gestiona la lógica de negocio relacionada con los jugadores.
  */
 public class JugadorService {
 
-    private final JugadorDAO jugadorDAO;
+    private final JugadorCache jugadorDAO;
 
     /**
-     * Constructor por defecto. Inicializa el DAO.
+     * Constructor por defecto. Usa la caché de jugadores compartida, que envuelve al DAO.
      */
     public JugadorService() {
-        this.jugadorDAO = new JugadorDAO();
+        this.jugadorDAO = JugadorCache.getInstance();
     }
 
     /**
@@ -40,26 +46,130 @@ public class JugadorService {
         return jugadorDAO.findById(id);
     }
 
+    /**
+     * Obtiene los jugadores de un equipo.
+     *
+     * @param equipo El nombre del equipo.
+     * @return Lista de jugadores del equipo.
+     */
+    public List<Jugador> obtenerJugadoresPorEquipo(String equipo) {
+        return jugadorDAO.findByEquipo(equipo);
+    }
+
+    /**
+     * Obtiene los jugadores que juegan en una posición.
+     *
+     * @param posicion La posición de juego.
+     * @return Lista de jugadores de esa posición.
+     */
+    public List<Jugador> obtenerJugadoresPorPosicion(Posicion posicion) {
+        return jugadorDAO.findByPosicion(posicion);
+    }
+
+    /**
+     * Busca jugadores por página aplicando filtros y orden en la base de datos.
+     *
+     * @param criteria Filtros, orden y posición de la página.
+     * @return La página de jugadores solicitada.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    public Page<Jugador> buscarJugadores(JugadorCriteria criteria) throws SQLException {
+        return jugadorDAO.findPage(criteria);
+    }
+
+    /**
+     * Recorre de forma perezosa y por lotes los jugadores que cumplen un criterio, con memoria
+     * acotada aunque la tabla sea muy grande. El Stream debe cerrarse (try-with-resources).
+     *
+     * @param criteria Filtros, orden y tamaño de lote.
+     * @return Un Stream de jugadores.
+     */
+    public Stream<Jugador> recorrerJugadores(JugadorCriteria criteria) {
+        return jugadorDAO.stream(criteria);
+    }
+
+    /**
+     * Contrasta con la base de datos el catálogo leído de disco al arrancar (ver
+     * {@link JugadorCache#reconciliar()}). Debe llamarse fuera del hilo de JavaFX.
+     *
+     * @return true si el catálogo ha cambiado y conviene volver a pedir la página mostrada.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    public boolean reconciliarCatalogo() throws SQLException {
+        return jugadorDAO.reconciliar();
+    }
+
+    /**
+     * Obtiene las métricas de la caché de jugadores (tasa de aciertos, tiempos de carga...).
+     *
+     * @return Las métricas actuales.
+     */
+    public JugadorCache.Stats obtenerEstadisticasCache() {
+        return jugadorDAO.getStats();
+    }
+
     /**
      * Registra un nuevo jugador en el sistema.
      *
      * @param jugador El jugador a registrar.
+     * @return El jugador guardado, con el ID asignado por la base de datos.
      * @throws Exception Si los datos son inválidos o hay error en la base de datos.
      */
-    public void registrarJugador(Jugador jugador) throws Exception {
+    public Jugador registrarJugador(Jugador jugador) throws Exception {
         validarJugador(jugador);
         jugadorDAO.save(jugador);
+        return jugador;
     }
 
     /**
      * Actualiza la información de un jugador existente.
      *
      * @param jugador El jugador con la información actualizada.
+     * @return El jugador actualizado.
      * @throws Exception Si los datos son inválidos o hay error en la base de datos.
      */
-    public void actualizarJugador(Jugador jugador) throws Exception {
+    public Jugador actualizarJugador(Jugador jugador) throws Exception {
         validarJugador(jugador);
         jugadorDAO.update(jugador);
+        return jugador;
+    }
+
+    /**
+     * Registra varios jugadores en una sola transacción. Se validan todos antes de escribir.
+     *
+     * @param jugadores Los jugadores a registrar; reciben el ID asignado en el mismo orden.
+     * @return Número de jugadores registrados.
+     * @throws Exception Si algún dato es inválido o hay error en la base de datos.
+     */
+    public int registrarJugadores(List<Jugador> jugadores) throws Exception {
+        jugadores.forEach(this::validarJugador);
+        return jugadorDAO.saveAll(jugadores);
+    }
+
+    /**
+     * Actualiza varios jugadores en una sola transacción. Se validan todos antes de escribir.
+     *
+     * @param jugadores Los jugadores con la información actualizada.
+     * @return Número de jugadores actualizados.
+     * @throws Exception Si algún dato es inválido o hay error en la base de datos.
+     */
+    public int actualizarJugadores(List<Jugador> jugadores) throws Exception {
+        jugadores.forEach(this::validarJugador);
+        return jugadorDAO.updateAll(jugadores);
+    }
+
+    /**
+     * Elimina varios jugadores en una sola transacción.
+     *
+     * @param ids Los IDs de los jugadores a eliminar.
+     * @return Número de jugadores eliminados.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    public int eliminarJugadores(Collection<Integer> ids) throws SQLException {
+        int eliminados = jugadorDAO.deleteAllById(ids);
+        // Sus filas de quintetos se borran en cascada
+        QuintetoCache.getInstance().quitarJugadores(ids);
+        return eliminados;
     }
 
     /**
@@ -70,15 +180,17 @@ public class JugadorService {
      */
     public void eliminarJugador(int id) throws SQLException {
         jugadorDAO.delete(id);
+        QuintetoCache.getInstance().quitarJugador(id);
     }
 
     /**
      * Valida que los datos del jugador sean correctos antes de guardar.
+     * Es pública para que la importación masiva aplique las mismas reglas antes de escribir.
      *
      * @param jugador El jugador a validar.
      * @throws IllegalArgumentException Si algún dato es inválido.
      */
-    private void validarJugador(Jugador jugador) {
+    public void validarJugador(Jugador jugador) {
         if (jugador.getNombre() == null || jugador.getNombre().trim().isEmpty()) {
             throw new IllegalArgumentException("El nombre del jugador no puede estar vacío.");
         }
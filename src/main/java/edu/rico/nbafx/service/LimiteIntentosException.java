@@ -0,0 +1,17 @@
+package edu.rico.nbafx.service;
+
+/**
+ * Se lanza cuando un inicio de sesión se rechaza por superar el límite de intentos del usuario o
+ * del cliente ({@code auth.rate.*}). No indica un error de la aplicación: basta con esperar.
+ */
+public class LimiteIntentosException extends RuntimeException {
+
+    /**
+     * Crea la excepción.
+     *
+     * @param message Mensaje para mostrar al usuario.
+     */
+    public LimiteIntentosException(String message) {
+        super(message);
+    }
+}
@@ -1,35 +1,100 @@
 package edu.rico.nbafx.service;
 
-import edu.rico.nbafx.dao.QuintetoDAO;
+import edu.rico.nbafx.dao.QuintetoCache;
 
 import java.sql.SQLException;
 import java.util.List;
 
 /**
  * Servicio para gestionar la lógica de los quintetos ideales.
+ * <p>
+ * Las lecturas se sirven desde {@link QuintetoCache}; solo los cambios llegan a la base de datos.
  */
 public class QuintetoService {
 
-    private final QuintetoDAO quintetoDAO = new QuintetoDAO();
-    private static final int MAX_JUGADORES = 5;
+    private final QuintetoCache quintetoCache = QuintetoCache.getInstance();
+    public static final int MAX_JUGADORES = 5;
+    private static final String MENSAJE_COMPLETO = "Tu quinteto ya está completo (máximo 5 jugadores).";
+
+    /**
+     * Carga en memoria el quinteto de un usuario (una sola consulta por sesión).
+     *
+     * @param usuarioId ID del usuario.
+     * @throws SQLException Si ocurre un error en la base de datos.
+     */
+    public void cargarQuinteto(int usuarioId) throws SQLException {
+        quintetoCache.cargar(usuarioId);
+    }
+
+    /**
+     * Descarta el quinteto en memoria de un usuario (al cerrar sesión).
+     */
+    public void olvidarQuinteto(int usuarioId) {
+        quintetoCache.olvidar(usuarioId);
+    }
 
     public void agregarJugador(int usuarioId, int jugadorId) throws Exception {
-        int actuales = quintetoDAO.countJugadoresInQuinteto(usuarioId);
-        if (actuales >= MAX_JUGADORES) {
-            throw new Exception("Tu quinteto ya está completo (máximo 5 jugadores).");
+        alternarJugador(usuarioId, jugadorId, true);
+    }
+
+    /**
+     * Añade o quita un jugador del quinteto comprobando la capacidad en la misma transacción.
+     *
+     * @param usuarioId ID del usuario.
+     * @param jugadorId ID del jugador.
+     * @param seleccionar true para añadirlo, false para quitarlo.
+     * @return Los IDs del quinteto tras el cambio.
+     * @throws Exception Si el quinteto ya está completo o falla la base de datos.
+     */
+    public List<Integer> alternarJugador(int usuarioId, int jugadorId, boolean seleccionar) throws Exception {
+        marcarJugador(usuarioId, jugadorId, seleccionar);
+        confirmarJugador(usuarioId, jugadorId, seleccionar);
+        return quintetoCache.ids(usuarioId);
+    }
+
+    /**
+     * Aplica el cambio en memoria sin esperar a la base de datos, para que la vista lo refleje al
+     * instante. Debe confirmarse después con {@link #confirmarJugador}.
+     *
+     * @throws Exception Si el quinteto ya está completo.
+     */
+    public void marcarJugador(int usuarioId, int jugadorId, boolean seleccionar) throws Exception {
+        if (!quintetoCache.aplicar(usuarioId, jugadorId, seleccionar, MAX_JUGADORES)) {
+            throw new Exception(MENSAJE_COMPLETO);
+        }
+    }
+
+    /**
+     * Guarda en la base de datos un cambio aplicado con {@link #marcarJugador}. Si falla, el
+     * cambio se deshace en memoria.
+     *
+     * @return IDs de los jugadores cuyo estado en memoria cambió al confirmar y deben repintarse.
+     * @throws Exception Si el quinteto estaba completo en la base de datos o esta falla.
+     */
+    public List<Integer> confirmarJugador(int usuarioId, int jugadorId, boolean seleccionar) throws Exception {
+        QuintetoCache.Confirmacion confirmacion = quintetoCache.confirmar(usuarioId, jugadorId, seleccionar, MAX_JUGADORES);
+        if (confirmacion.completo()) {
+            throw new Exception(MENSAJE_COMPLETO);
         }
-        quintetoDAO.addJugadorToQuinteto(usuarioId, jugadorId);
+        return confirmacion.corregidos();
     }
 
-    public void eliminarJugador(int usuarioId, int jugadorId) throws SQLException {
-        quintetoDAO.removeJugadorFromQuinteto(usuarioId, jugadorId);
+    public void eliminarJugador(int usuarioId, int jugadorId) throws Exception {
+        alternarJugador(usuarioId, jugadorId, false);
+    }
+
+    /**
+     * Indica si un jugador está en el quinteto de un usuario (O(1), desde memoria).
+     */
+    public boolean estaEnQuinteto(int usuarioId, int jugadorId) {
+        return quintetoCache.contiene(usuarioId, jugadorId);
     }
 
     public List<Integer> obtenerIdsQuinteto(int usuarioId) {
-        return quintetoDAO.getQuintetoJugadorIds(usuarioId);
+        return quintetoCache.ids(usuarioId);
     }
-    
+
     public int contarJugadores(int usuarioId) {
-        return quintetoDAO.countJugadoresInQuinteto(usuarioId);
+        return quintetoCache.tamano(usuarioId);
     }
-}
\ No newline at end of file
+}
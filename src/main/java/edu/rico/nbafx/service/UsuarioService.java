@@ -1,38 +1,68 @@
 package edu.rico.nbafx.service;
 
+import edu.rico.nbafx.dao.DaoFactory;
+import edu.rico.nbafx.dao.QuintetoCache;
 import edu.rico.nbafx.dao.UsuarioDAO;
 import edu.rico.nbafx.model.Rol;
 import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.util.HashContrasenas;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
-import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Servicio que gestiona la lógica de negocio relacionada con los usuarios.
+ * Las contraseñas se guardan con {@link HashContrasenas} y los inicios de sesión pasan por
+ * {@link AutenticacionService}, cuya caché se invalida aquí al registrar, modificar o eliminar usuarios.
  */
 public class UsuarioService {
-    private UsuarioDAO usuarioDAO = new UsuarioDAO();
+
+    /** Cliente con el que se limitan los inicios de sesión que no indican otro. */
+    public static final String CLIENTE_LOCAL = "local";
+
+    private UsuarioDAO usuarioDAO = DaoFactory.usuarios();
+    private final HashContrasenas hasher = HashContrasenas.getInstance();
+    private final AutenticacionService autenticacion = AutenticacionService.getInstance();
 
     /**
-     * Valida las credenciales de un usuario para iniciar sesión.
+     * Valida las credenciales de un usuario para iniciar sesión, bloqueando el hilo actual.
      *
      * @param nombre El nombre de usuario.
      * @param password La contraseña en texto plano.
      * @return Un Optional con el Usuario si las credenciales son correctas, o vacío si no.
      */
     public Optional<Usuario> login(String nombre, String password) {
-        Optional<Usuario> usuarioOpt = usuarioDAO.findByNombre(nombre);
-        if (usuarioOpt.isPresent()) {
-            Usuario usuario = usuarioOpt.get();
-            if (verifyPassword(password, usuario.getPassword())) {
-                return Optional.of(usuario);
-            }
-        }
-        return Optional.empty();
+        return esperar(loginAsync(nombre, password, CLIENTE_LOCAL, Runnable::run));
+    }
+
+    /**
+     * Valida las credenciales con {@link AutenticacionService}, sin ocupar un hilo de base de datos
+     * mientras se calcula el hash.
+     *
+     * @param nombre El nombre de usuario.
+     * @param password La contraseña en texto plano.
+     * @param cliente Identificador del cliente que hace el intento, para limitar los intentos.
+     * @param executorBd Ejecutor de las tareas de base de datos.
+     * @return Un futuro con el Usuario si las credenciales son correctas, o vacío si no. Falla con
+     *         {@link LimiteIntentosException} si se superan los intentos permitidos y con
+     *         {@link java.util.concurrent.RejectedExecutionException} si hay demasiados inicios de sesión en curso.
+     */
+    public CompletableFuture<Optional<Usuario>> loginAsync(String nombre, String password, String cliente, Executor executorBd) {
+        return autenticacion.autenticar(nombre, password, cliente, executorBd);
+    }
+
+    /**
+     * Obtiene las métricas del hash de contraseñas: inicios de sesión en el último minuto, cola
+     * del pool de hash, peticiones rechazadas y coste actual.
+     *
+     * @return Las métricas actuales.
+     */
+    public HashContrasenas.Stats obtenerEstadisticasLogin() {
+        return hasher.getStats();
     }
 
     /**
@@ -50,6 +80,7 @@ public class UsuarioService {
         String hashedPassword = hashPassword(password);
         Usuario nuevoUsuario = new Usuario(nombre, hashedPassword, rol);
         usuarioDAO.save(nuevoUsuario);
+        autenticacion.invalidar(nombre);
     }
 
     /**
@@ -73,6 +104,7 @@ public class UsuarioService {
         // Aquí asumimos que si viene del servicio, ya se maneja la lógica de cambio de contraseña aparte o se pasa hasheada.
         // Para este ejemplo simple, asumiremos que la contraseña ya viene correcta o se mantiene.
         usuarioDAO.update(usuario);
+        olvidarCredenciales(usuario);
     }
     
     /**
@@ -87,6 +119,7 @@ public class UsuarioService {
             usuario.setPassword(hashPassword(nuevaPassword));
         }
         usuarioDAO.update(usuario);
+        olvidarCredenciales(usuario);
     }
 
     /**
@@ -97,35 +130,33 @@ public class UsuarioService {
      */
     public void eliminarUsuario(int id) throws SQLException {
         usuarioDAO.delete(id);
+        QuintetoCache.getInstance().olvidar(id);
+        autenticacion.invalidar(id);
     }
 
     /**
-     * Genera el hash SHA-256 de una contraseña.
-     *
-     * @param password La contraseña en texto plano.
-     * @return El hash de la contraseña en Base64.
+     * Descarta las credenciales en caché de un usuario modificado, con su nombre anterior y el nuevo.
      */
-    private String hashPassword(String password) {
-        try {
-            //seleccionamos algoritmo
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            //obtenemos el array de bytes
-            byte[] hash = md.digest(password.getBytes());
-            //codificamos el array bytes a codigo hash para guardar en la base de datos
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Error al hashear la contraseña", e);
-        }
+    private void olvidarCredenciales(Usuario usuario) {
+        autenticacion.invalidar(usuario.getId());
+        autenticacion.invalidar(usuario.getNombre());
     }
 
     /**
-     * Verifica si una contraseña en texto plano coincide con un hash almacenado.
+     * Calcula el hash de una contraseña en el pool de {@link HashContrasenas}.
      *
-     * @param inputPassword La contraseña en texto plano.
-     * @param storedHash El hash almacenado.
-     * @return true si coinciden, false en caso contrario.
+     * @param password La contraseña en texto plano.
+     * @return El hash en el formato que se guarda en la base de datos.
      */
-    private boolean verifyPassword(String inputPassword, String storedHash) {
-        return hashPassword(inputPassword).equals(storedHash);
+    private String hashPassword(String password) {
+        return esperar(hasher.hash(password));
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException causa ? causa : e;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package edu.rico.nbafx.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Acceso centralizado a la configuración de la aplicación (config.properties).
+ * <p>
+ * Las propiedades del sistema (-Dclave=valor) tienen prioridad sobre el fichero,
+ * lo que permite sobrescribir cualquier valor sin recompilar.
+ */
+public final class AppConfig {
+
+    private static final Logger LOGGER = Logger.getLogger(AppConfig.class.getName());
+    private static final Properties PROPERTIES = new Properties();
+
+    // Carga estática de la configuración para hacerlo solo una vez
+    static {
+        try (InputStream input = AppConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (input != null) {
+                PROPERTIES.load(input);
+            } else {
+                LOGGER.log(Level.SEVERE, "No se encontró el archivo config.properties");
+            }
+        } catch (IOException ex) {
+            LOGGER.log(Level.SEVERE, "Error al cargar la configuración", ex);
+        }
+    }
+
+    private AppConfig() { }
+
+    /**
+     * Obtiene el valor de una propiedad.
+     *
+     * @param key La clave de la propiedad.
+     * @return El valor configurado o null si no existe.
+     */
+    public static String get(String key) {
+        String value = System.getProperty(key);
+        return value != null ? value : PROPERTIES.getProperty(key);
+    }
+
+    /**
+     * Obtiene el valor de una propiedad o un valor por defecto si no está definida.
+     */
+    public static String get(String key, String defaultValue) {
+        String value = get(key);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Obtiene una propiedad numérica entera. Si el valor no es válido se usa el valor por defecto.
+     */
+    public static int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    /**
+     * Obtiene una propiedad numérica larga. Si el valor no es válido se usa el valor por defecto.
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Valor no numérico para {0}: {1}", new Object[]{key, value});
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Obtiene una propiedad numérica decimal. Si el valor no es válido se usa el valor por defecto.
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.log(Level.WARNING, "Valor no numérico para {0}: {1}", new Object[]{key, value});
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Obtiene una propiedad booleana.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
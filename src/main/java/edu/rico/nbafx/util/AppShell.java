@@ -1,15 +1,39 @@
 package edu.rico.nbafx.util;
 
-import edu.rico.nbafx.model.Usuario;
+import edu.rico.nbafx.controller.JugadorCardFactory;
+import edu.rico.nbafx.dao.DaoFactory;
+import edu.rico.nbafx.dao.JugadorCache;
+import edu.rico.nbafx.model.Permiso;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.input.InputEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Clase AppShell que implementa el patrón Singleton para gestionar la navegación
@@ -17,14 +41,49 @@ import java.util.Map;
  */
 public class AppShell {
 
+    private static final Logger LOGGER = Logger.getLogger(AppShell.class.getName());
+
+    private static final Pattern IMPORT_FXML = Pattern.compile("<\\?import\\s+([\\w.]+)\\s*\\?>");
+
     private static AppShell instance;
     private Stage primaryStage;
     private BorderPane mainLayout;
-    // Cache para almacenar los controladores si se desea mantener estado (opcional)
-    private Map<View, Object> controllers = new HashMap<>();
-    
-    // Usuario actualmente logueado (Sesión)
-    private Usuario currentUser;
+    // Vistas ya construidas (raíz y controlador), de la menos a la más usada. Solo se usa en el hilo de JavaFX
+    private final Map<View, VistaCargada> vistas = new LinkedHashMap<>(8, 0.75f, true);
+    // Vistas que se están construyendo en segundo plano tras el login
+    private final Map<View, CompletableFuture<VistaCargada>> precargas = new EnumMap<>(View.class);
+    private final int maxVistas = AppConfig.getInt("views.cache.maxViews", 3);
+    private final long retencionVistasNanos = TimeUnit.MINUTES.toNanos(AppConfig.getLong("views.cache.ttlMinutes", 0));
+    private boolean precargaPendiente;
+    // Precarga a la que espera la última navegación para mostrarse (null si no hay ninguna) y su vista
+    private CompletableFuture<VistaCargada> navegacionPendiente;
+    private View vistaPendiente;
+    // Sesión para la que se construye la vista en el hilo actual (vacío fuera de construirVista)
+    private static final ThreadLocal<Sesion> SESION_EN_CONSTRUCCION = new ThreadLocal<>();
+
+    // Sesión del usuario autenticado (null en el login). La leen los controladores que se precargan
+    private volatile Sesion sesion;
+
+    // Comprobación periódica de la inactividad de la sesión
+    private final long inactividadMaximaMs = TimeUnit.MINUTES.toMillis(AppConfig.getLong("session.idleTimeoutMinutes", 30));
+    private Timeline vigilanteInactividad;
+    private String avisoLogin;
+
+    // Ejecutor compartido para las tareas en segundo plano de los controladores
+    private final TaskExecutor executor = TaskExecutor.fromConfig();
+
+    // Caché compartida de imágenes de jugadores
+    private final ImageCache imageCache = ImageCache.fromConfig();
+
+    /**
+     * Vista construida: su nodo raíz, su controlador y el último momento en que se mostró.
+     */
+    private record VistaCargada(Parent raiz, Object controller, long mostradaEn) {
+
+        VistaCargada mostrada() {
+            return new VistaCargada(raiz, controller, System.nanoTime());
+        }
+    }
 
     private AppShell() {}
 
@@ -47,39 +106,386 @@ public class AppShell {
         this.primaryStage = stage;
         this.mainLayout = new BorderPane();
         Scene scene = new Scene(mainLayout, 800, 600);
+        // Cualquier evento de teclado o ratón cuenta como actividad de la sesión
+        scene.addEventFilter(InputEvent.ANY, e -> {
+            Sesion actual = sesion;
+            if (actual != null) {
+                actual.registrarActividad();
+            }
+        });
         primaryStage.setScene(scene);
     }
 
     /**
      * Carga y muestra una vista en el centro del layout principal.
+     * <p>
+     * Las vistas de la sesión se conservan ya construidas (hasta {@code views.cache.maxViews},
+     * descartando la menos usada, y sin mostrarse durante como mucho {@code views.cache.ttlMinutes}
+     * si es mayor que 0): al volver a ellas se reutilizan sus nodos y, si el controlador es una
+     * {@link VistaRefrescable}, se le pide que actualice sus datos. El login se construye siempre.
+     * Tras la primera vista de una sesión se precargan en segundo plano las demás a las que el
+     * usuario puede navegar. Si la vista pedida aún se está precargando no se construye otra: se
+     * muestra esa misma instancia en cuanto termine, sin bloquear el hilo de JavaFX.
      *
      * @param view El enumerado de la vista a cargar.
-     * @return El controlador asociado a la vista cargada, o null si hubo error.
+     * @return El controlador asociado a la vista cargada, o null si hubo error o si la vista se
+     *         mostrará al terminar su precarga.
      */
     public Object loadView(View view) {
+        if (navegacionPendiente != null && vistaPendiente == view) {
+            return null;
+        }
+        navegacionPendiente = null;
+        CompletableFuture<VistaCargada> precarga = precargas.remove(view);
+        if (precarga != null && !precarga.isDone()) {
+            esperarPrecarga(view, precarga);
+            return null;
+        }
+        VistaCargada vista = precarga != null ? resultadoPrecarga(view, precarga) : vistaConservada(view);
+        return mostrarVista(view, vista, vista != null);
+    }
+
+    /**
+     * Muestra la vista cuando termine su precarga (puede estar haciendo cola en el ejecutor detrás
+     * de una importación o exportación). Construir otra instancia mientras tanto duplicaría las
+     * tareas que lanza su controlador con las mismas claves. Si entretanto se navega a otra vista,
+     * la precargada se conserva como cualquier otra precarga.
+     */
+    private void esperarPrecarga(View view, CompletableFuture<VistaCargada> precarga) {
+        Sesion propietaria = sesion;
+        navegacionPendiente = precarga;
+        vistaPendiente = view;
+        precarga.whenComplete((vista, error) -> Platform.runLater(() -> {
+            if (navegacionPendiente != precarga) {
+                guardarPrecargada(view, precarga, propietaria);
+                return;
+            }
+            navegacionPendiente = null;
+            mostrarVista(view, resultadoPrecarga(view, precarga), false);
+        }));
+    }
+
+    /**
+     * Pone en la escena una vista ya construida, o la construye si es null.
+     */
+    private Object mostrarVista(View view, VistaCargada vista, boolean reutilizada) {
+        if (vista == null) {
+            try {
+                vista = construirVista(view, sesion);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return null;
+            }
+        }
+
+        // Actualizamos el título de la ventana
+        primaryStage.setTitle(view.getTitle());
+
+        // Reemplazamos la raíz de la escena actual.
+        primaryStage.getScene().setRoot(vista.raiz());
+
+        primaryStage.show();
+        primaryStage.centerOnScreen();
+
+        if (conservable(view)) {
+            conservar(view, vista.mostrada());
+        }
+        if (reutilizada && vista.controller() instanceof VistaRefrescable refrescable) {
+            refrescable.refrescar();
+        }
+        if (precargaPendiente) {
+            precargaPendiente = false;
+            precargarVistas();
+        }
+        return vista.controller();
+    }
+
+    /**
+     * Construye una vista desde su FXML para una sesión. Puede llamarse fuera del hilo de JavaFX
+     * mientras los nodos no formen parte de la escena; durante la construcción {@link #getSesion()}
+     * devuelve en ese hilo la sesión propietaria, no la que esté abierta en ese momento.
+     */
+    private VistaCargada construirVista(View view, Sesion propietaria) throws IOException {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(view.getFxmlPath()));
+        SESION_EN_CONSTRUCCION.set(propietaria);
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(view.getFxmlPath()));
             Parent viewNode = loader.load();
-            
-            // Actualizamos el título de la ventana
-            primaryStage.setTitle(view.getTitle());
-            
-            // Reemplazamos la raíz de la escena actual.
-            primaryStage.getScene().setRoot(viewNode);
-            
-            primaryStage.show();
-            primaryStage.centerOnScreen();
-
-            Object controller = loader.getController();
-            controllers.put(view, controller);
-            return controller;
-
-        } catch (IOException e) {
-            e.printStackTrace();
+            return new VistaCargada(viewNode, loader.getController(), System.nanoTime());
+        } finally {
+            SESION_EN_CONSTRUCCION.remove();
+        }
+    }
+
+    /**
+     * Devuelve la vista de una precarga terminada, o null si falló y hay que construirla.
+     */
+    private VistaCargada resultadoPrecarga(View view, CompletableFuture<VistaCargada> precarga) {
+        try {
+            return precarga.join();
+        } catch (CompletionException | CancellationException e) {
+            LOGGER.log(Level.WARNING, "No se pudo precargar la vista " + view, e);
             return null;
         }
     }
 
+    /**
+     * Devuelve la vista conservada, o null si hay que construirla.
+     */
+    private VistaCargada vistaConservada(View view) {
+        descartarCaducadas();
+        return vistas.get(view);
+    }
+
+    private boolean conservable(View view) {
+        return view != View.LOGIN && sesion != null && maxVistas > 0;
+    }
+
+    private void conservar(View view, VistaCargada vista) {
+        vistas.put(view, vista);
+        Iterator<View> menosUsadas = vistas.keySet().iterator();
+        while (vistas.size() > maxVistas && menosUsadas.hasNext()) {
+            menosUsadas.next();
+            menosUsadas.remove();
+        }
+    }
+
+    private void descartarCaducadas() {
+        if (retencionVistasNanos > 0) {
+            long ahora = System.nanoTime();
+            vistas.values().removeIf(vista -> ahora - vista.mostradaEn() > retencionVistasNanos);
+        }
+    }
+
+    /**
+     * Construye en segundo plano las vistas a las que puede ir el usuario de la sesión y que aún no
+     * están conservadas. Al terminar se guardan en la caché desde el hilo de JavaFX, salvo que la
+     * sesión haya cambiado entretanto. Sus controladores no lanzan tareas desde el hilo de la
+     * precarga: lo hacen con {@link #ejecutarEnSesion}, que las descarta si la sesión ya no es la suya.
+     */
+    private void precargarVistas() {
+        if (maxVistas <= 0) {
+            return;
+        }
+        Sesion propietaria = sesion;
+        for (View view : vistasAccesibles(propietaria)) {
+            if (vistas.containsKey(view) || precargas.containsKey(view) || vistas.size() + precargas.size() >= maxVistas) {
+                continue;
+            }
+            CompletableFuture<VistaCargada> precarga = CompletableFuture.supplyAsync(() -> {
+                if (sesion != propietaria) {
+                    throw new CancellationException("La sesión ha cambiado");
+                }
+                try {
+                    return construirVista(view, propietaria);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+            precargas.put(view, precarga);
+            precarga.whenComplete((vista, error) -> Platform.runLater(() -> {
+                if (precargas.remove(view, precarga)) {
+                    guardarPrecargada(view, precarga, propietaria);
+                }
+            }));
+        }
+    }
+
+    /**
+     * Guarda en la caché una precarga terminada que nadie espera para mostrarse. Solo se guarda si
+     * la sesión sigue siendo la suya y cabe sin desplazar a las vistas ya visitadas.
+     */
+    private void guardarPrecargada(View view, CompletableFuture<VistaCargada> precarga, Sesion propietaria) {
+        VistaCargada vista;
+        try {
+            vista = precarga.join();
+        } catch (CompletionException | CancellationException e) {
+            LOGGER.log(Level.FINE, "No se pudo precargar la vista " + view, e);
+            return;
+        }
+        if (sesion == propietaria && !vistas.containsKey(view) && vistas.size() < maxVistas) {
+            vistas.put(view, vista);
+        }
+    }
+
+    /**
+     * Ejecuta en el hilo de JavaFX el trabajo con efectos de la inicialización de un controlador
+     * (consultas y tareas con clave), solo si la sesión para la que se construyó sigue abierta.
+     * Un controlador precargado para una sesión ya cerrada no lanza nada que pueda cancelar las
+     * tareas de la vista visible.
+     *
+     * @param propietaria La sesión que devolvió {@link #getSesion()} en {@code initialize()}.
+     * @param accion      El trabajo que se ejecuta si la sesión sigue siendo la actual.
+     */
+    public void ejecutarEnSesion(Sesion propietaria, Runnable accion) {
+        Runnable comprobada = () -> {
+            if (sesion == propietaria) {
+                accion.run();
+            }
+        };
+        if (Platform.isFxApplicationThread()) {
+            comprobada.run();
+        } else {
+            Platform.runLater(comprobada);
+        }
+    }
+
+    /**
+     * Vistas a las que puede navegar el usuario de una sesión.
+     */
+    private static List<View> vistasAccesibles(Sesion sesion) {
+        List<View> accesibles = new ArrayList<>();
+        accesibles.add(View.JUGADORES);
+        if (sesion != null && sesion.puede(Permiso.GESTIONAR_USUARIOS)) {
+            accesibles.add(View.USUARIOS);
+        }
+        return accesibles;
+    }
+
+    /**
+     * Instala la sesión de un usuario recién autenticado y empieza a vigilar su inactividad.
+     * Si había otra sesión abierta, se cierra antes. Debe llamarse en el hilo de JavaFX.
+     *
+     * @param nueva La sesión preparada con {@link Sesion#abrir}.
+     */
+    public void iniciarSesion(Sesion nueva) {
+        if (sesion != null) {
+            liberarSesion();
+        }
+        sesion = nueva;
+        precargaPendiente = true;
+        if (inactividadMaximaMs > 0) {
+            // Se comprueba varias veces dentro del plazo para no pasarse mucho de él
+            vigilanteInactividad = new Timeline(new KeyFrame(Duration.millis(Math.min(inactividadMaximaMs / 4, 30_000)),
+                    e -> comprobarInactividad()));
+            vigilanteInactividad.setCycleCount(Animation.INDEFINITE);
+            vigilanteInactividad.play();
+        }
+    }
+
+    /**
+     * Obtiene la sesión actual. Mientras se construye una vista (p. ej. en el {@code initialize()}
+     * de un controlador precargado) devuelve la sesión para la que se construye.
+     *
+     * @return La sesión del usuario autenticado, o null si no hay ninguna.
+     */
+    public Sesion getSesion() {
+        Sesion enConstruccion = SESION_EN_CONSTRUCCION.get();
+        return enConstruccion != null ? enConstruccion : sesion;
+    }
+
+    /**
+     * Cierra la sesión actual, libera sus recursos y vuelve a la pantalla de login.
+     * Debe llamarse en el hilo de JavaFX.
+     *
+     * @param motivo Mensaje que se muestra en el login, o null si el usuario cerró la sesión.
+     */
+    public void cerrarSesion(String motivo) {
+        liberarSesion();
+        avisoLogin = motivo;
+        loadView(View.LOGIN);
+    }
+
+    /**
+     * Recoge el motivo del último cierre de sesión para mostrarlo en el login (solo una vez).
+     *
+     * @return El mensaje, o null si no hay ninguno pendiente.
+     */
+    public String tomarAvisoLogin() {
+        String aviso = avisoLogin;
+        avisoLogin = null;
+        return aviso;
+    }
+
+    private void comprobarInactividad() {
+        if (sesion != null && sesion.millisInactiva() >= inactividadMaximaMs) {
+            LOGGER.info("Sesión de " + sesion.getUsuario().getNombre() + " cerrada por inactividad");
+            cerrarSesion("Sesión cerrada por inactividad");
+        }
+    }
+
+    /**
+     * Descarta la sesión y lo que ha ido acumulando: su quinteto y el estado de sus vistas, las
+     * tareas pendientes de sus vistas, las imágenes en memoria (la caché en disco se conserva) y
+     * las conexiones ociosas por encima del mínimo del pool.
+     */
+    private void liberarSesion() {
+        if (vigilanteInactividad != null) {
+            vigilanteInactividad.stop();
+            vigilanteInactividad = null;
+        }
+        if (sesion == null) {
+            return;
+        }
+        sesion.cerrar();
+        sesion = null;
+        // Las vistas conservadas muestran datos de la sesión: se descartan con ella
+        vistas.clear();
+        precargas.clear();
+        navegacionPendiente = null;
+        precargaPendiente = false;
+        executor.cancelAll();
+        imageCache.clearMemory();
+        // Cerrar conexiones físicas puede tardar: no se hace en el hilo de JavaFX
+        executor.execute(DatabaseConnection::liberarOciosas);
+    }
+
+    /**
+     * Lanza en segundo plano, mientras se muestra el login, el trabajo que si no pagaría el primer
+     * uso de cada parte: abrir el pool de conexiones (carga del driver y primera conexión), leer
+     * la copia en disco del catálogo, calibrar el hash de contraseñas y cargar las clases de las
+     * plantillas FXML. Al terminar anota
+     * el hito {@link MetricasArranque#PRECALENTADO}.
+     * <p>
+     * Con {@code startup.exitAfterWarmup=true} la aplicación se cierra sola en cuanto el arranque
+     * termina; así se hace la ejecución de entrenamiento del perfil Maven {@code cds}.
+     */
+    public void precalentar() {
+        if (AppConfig.getBoolean("startup.exitAfterWarmup", false)) {
+            MetricasArranque.completado().thenRun(() -> Platform.runLater(Platform::exit));
+        }
+        executor.execute(() -> {
+            try {
+                DaoFactory.precalentar();
+                JugadorCache.getInstance().precargar();
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "No se pudo precalentar el acceso a datos", e);
+            }
+            // El primer inicio de sesión no debe pagar la calibración del coste del hash
+            HashContrasenas.getInstance().calibrar();
+            try {
+                precalentarVistas();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "No se pudieron precalentar las vistas", e);
+            }
+            MetricasArranque.marcar(MetricasArranque.PRECALENTADO);
+        });
+    }
+
+    /**
+     * Carga las clases que importan las vistas y construye una tarjeta de jugador con
+     * {@link JugadorCardFactory}, como hará la rejilla con cada celda; no tiene efectos secundarios
+     * (los controladores de las vistas sí: lanzan consultas al inicializarse). Los nodos se pueden
+     * crear fuera del hilo de JavaFX mientras no formen parte de una escena.
+     */
+    private void precalentarVistas() throws IOException {
+        for (View view : View.values()) {
+            try (InputStream in = getClass().getResourceAsStream(view.getFxmlPath())) {
+                if (in == null) {
+                    continue;
+                }
+                Matcher importacion = IMPORT_FXML.matcher(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+                while (importacion.find()) {
+                    try {
+                        Class.forName(importacion.group(1));
+                    } catch (ClassNotFoundException e) {
+                        LOGGER.fine("Clase importada no encontrada: " + importacion.group(1));
+                    }
+                }
+            }
+        }
+        JugadorCardFactory.crear();
+    }
+
     /**
      * Método auxiliar para obtener el Stage principal si es necesario (ej. para diálogos modales).
      * @return El Stage principal.
@@ -88,11 +494,36 @@ public class AppShell {
         return primaryStage;
     }
 
-    public Usuario getCurrentUser() {
-        return currentUser;
+    /**
+     * Obtiene el ejecutor compartido para lanzar tareas en segundo plano.
+     * @return El ejecutor de la aplicación.
+     */
+    public TaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Obtiene la caché compartida de imágenes.
+     * @return La caché de imágenes de la aplicación.
+     */
+    public ImageCache getImageCache() {
+        return imageCache;
     }
 
-    public void setCurrentUser(Usuario currentUser) {
-        this.currentUser = currentUser;
+    /**
+     * Libera los recursos globales de la aplicación: espera a las tareas en curso, guarda la
+     * instantánea del almacén en memoria (si se usa) y cierra el pool de conexiones.
+     * Se invoca al cerrar el Stage principal.
+     */
+    public void shutdown() {
+        if (sesion != null) {
+            sesion.cerrar();
+            sesion = null;
+        }
+        imageCache.shutdown();
+        executor.shutdown(AppConfig.getLong("executor.shutdownTimeoutMs", 5_000));
+        JugadorCache.cerrar();
+        DaoFactory.cerrar();
+        DatabaseConnection.shutdown();
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package edu.rico.nbafx.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escritura con buffer sobre un FileChannel: los datos se acumulan en un ByteBuffer directo y
+ * se vuelcan al canal cuando se llena, en bloques de {@link #TAMANO_BLOQUE} bytes.
+ */
+final class CanalBuffer implements Closeable {
+
+    static final int TAMANO_BLOQUE = 64 * 1024;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BLOQUE);
+    private long volcados;
+
+    private CanalBuffer(FileChannel canal) {
+        this.canal = canal;
+    }
+
+    static CanalBuffer crear(Path fichero) throws IOException {
+        return new CanalBuffer(FileChannel.open(fichero, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    void put(byte[] datos) throws IOException {
+        put(datos, 0, datos.length);
+    }
+
+    void put(byte[] datos, int desde, int longitud) throws IOException {
+        while (longitud > 0) {
+            if (!buffer.hasRemaining()) {
+                volcar();
+            }
+            int trozo = Math.min(longitud, buffer.remaining());
+            buffer.put(datos, desde, trozo);
+            desde += trozo;
+            longitud -= trozo;
+        }
+    }
+
+    void put(byte valor) throws IOException {
+        asegurar(1);
+        buffer.put(valor);
+    }
+
+    void putShort(short valor) throws IOException {
+        asegurar(2);
+        buffer.putShort(valor);
+    }
+
+    void putInt(int valor) throws IOException {
+        asegurar(4);
+        buffer.putInt(valor);
+    }
+
+    void putLong(long valor) throws IOException {
+        asegurar(8);
+        buffer.putLong(valor);
+    }
+
+    void putDouble(double valor) throws IOException {
+        asegurar(8);
+        buffer.putDouble(valor);
+    }
+
+    long bytesEscritos() {
+        return volcados + buffer.position();
+    }
+
+    /**
+     * Vuelca al canal lo que haya en el buffer.
+     */
+    void volcar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            volcados += canal.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            volcar();
+        } finally {
+            canal.close();
+        }
+    }
+
+    private void asegurar(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            volcar();
+        }
+    }
+}
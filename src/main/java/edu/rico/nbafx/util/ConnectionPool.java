@@ -0,0 +1,668 @@
+package edu.rico.nbafx.util;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de conexiones JDBC acotado.
+ * <p>
+ * Mantiene entre {@code minSize} y {@code maxSize} conexiones físicas abiertas. Cada llamada a
+ * {@link #getConnection()} presta una conexión envuelta en un proxy cuyo {@code close()} la devuelve
+ * al pool en lugar de cerrarla, de modo que los DAO pueden seguir usando try-with-resources.
+ * Incluye validación al prestar, expulsión de conexiones ociosas, detección de fugas y métricas.
+ * <p>
+ * Cada conexión física guarda además una caché LRU de sentencias preparadas indexada por el texto
+ * SQL: {@code prepareStatement} devuelve la sentencia ya preparada si existe y su {@code close()}
+ * la limpia y la deja disponible en lugar de cerrarla. Con {@code useServerPrepStmts=true} en la
+ * URL, las consultas repetidas se ahorran el análisis y el plan en el servidor.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** Si la conexión se usó hace menos de este tiempo no se vuelve a validar al prestarla. */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final Settings settings;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Métricas
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+
+    /**
+     * Parámetros de configuración del pool.
+     *
+     * @param url URL JDBC.
+     * @param user Usuario de la base de datos.
+     * @param password Contraseña de la base de datos.
+     * @param minSize Número mínimo de conexiones que se mantienen abiertas.
+     * @param maxSize Número máximo de conexiones simultáneas.
+     * @param acquireTimeoutMs Tiempo máximo de espera para obtener una conexión.
+     * @param validationTimeoutSec Tiempo máximo para validar una conexión al prestarla.
+     * @param idleTimeoutMs Tiempo tras el cual una conexión ociosa puede cerrarse (0 = nunca).
+     * @param leakDetectionThresholdMs Tiempo prestada tras el cual se avisa de una posible fuga (0 = desactivado).
+     * @param housekeepingIntervalMs Periodo de la tarea de mantenimiento.
+     * @param statementCacheSize Sentencias preparadas guardadas por conexión (0 = sin caché).
+     */
+    public record Settings(String url, String user, String password,
+                           int minSize, int maxSize,
+                           long acquireTimeoutMs, int validationTimeoutSec,
+                           long idleTimeoutMs, long leakDetectionThresholdMs,
+                           long housekeepingIntervalMs, int statementCacheSize) {
+
+        /**
+         * Construye la configuración a partir de config.properties, según el motor de {@code db.backend}.
+         */
+        public static Settings fromConfig() {
+            DatabaseBackend backend = DatabaseBackend.fromConfig();
+            int max = Math.max(1, AppConfig.getInt("db.pool.maxSize", 10));
+            int min = Math.min(max, Math.max(0, AppConfig.getInt("db.pool.minSize", 2)));
+            return new Settings(
+                    backend.url(),
+                    backend.user(),
+                    backend.password(),
+                    min, max,
+                    AppConfig.getLong("db.pool.acquireTimeoutMs", 5_000),
+                    AppConfig.getInt("db.pool.validationTimeoutSec", 2),
+                    AppConfig.getLong("db.pool.idleTimeoutMs", 600_000),
+                    AppConfig.getLong("db.pool.leakDetectionThresholdMs", 30_000),
+                    AppConfig.getLong("db.pool.housekeepingIntervalMs", 30_000),
+                    Math.max(0, AppConfig.getInt("db.pool.statementCacheSize", 64)));
+        }
+    }
+
+    /**
+     * Instantánea de las métricas del pool.
+     *
+     * @param active Conexiones prestadas en este momento.
+     * @param idle Conexiones disponibles en el pool.
+     * @param total Conexiones físicas abiertas.
+     * @param waiting Hilos esperando una conexión.
+     * @param borrowCount Número total de préstamos.
+     * @param createdCount Conexiones físicas creadas desde el arranque.
+     * @param destroyedCount Conexiones físicas cerradas desde el arranque.
+     * @param timeoutCount Préstamos que agotaron el tiempo de espera.
+     * @param leakCount Posibles fugas detectadas.
+     * @param avgWaitMillis Tiempo medio de espera por préstamo.
+     * @param maxWaitMillis Tiempo máximo de espera observado.
+     * @param statementHits Sentencias preparadas servidas desde la caché.
+     * @param statementMisses Sentencias preparadas que hubo que preparar en el driver.
+     * @param statementHitRatio Proporción de aciertos de la caché de sentencias (0-1).
+     */
+    public record Stats(int active, int idle, int total, int waiting,
+                        long borrowCount, long createdCount, long destroyedCount,
+                        long timeoutCount, long leakCount,
+                        double avgWaitMillis, double maxWaitMillis,
+                        long statementHits, long statementMisses, double statementHitRatio) {
+    }
+
+    /**
+     * Crea el pool y lanza en segundo plano el llenado hasta el tamaño mínimo.
+     *
+     * @param settings La configuración del pool.
+     */
+    public ConnectionPool(Settings settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "nbafx-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1_000, settings.housekeepingIntervalMs());
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool. Debe cerrarse (try-with-resources) para devolverla.
+     *
+     * @return Una conexión válida.
+     * @throws SQLException Si el pool está cerrado, se agota el tiempo de espera o falla la conexión.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.acquireTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("No hay conexiones disponibles tras " + settings.acquireTimeoutMs() + " ms "
+                    + "(activas=" + borrowed.size() + ", máximo=" + settings.maxSize() + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = createPhysical();
+            }
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+            borrowCount.increment();
+
+            pooled.borrowedAt = System.nanoTime();
+            pooled.leakReported = false;
+            pooled.borrowTrace = settings.leakDetectionThresholdMs() > 0
+                    ? new Throwable("Conexión prestada a " + Thread.currentThread().getName())
+                    : null;
+            borrowed.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("El pool usa las credenciales de config.properties");
+    }
+
+    /**
+     * Obtiene las métricas actuales del pool.
+     *
+     * @return Una instantánea de las métricas.
+     */
+    public Stats getStats() {
+        long borrows = borrowCount.sum();
+        long hits = statementHits.sum();
+        long misses = statementMisses.sum();
+        return new Stats(
+                borrowed.size(),
+                idle.size(),
+                total.get(),
+                waiting.get(),
+                borrows,
+                createdCount.sum(),
+                destroyedCount.sum(),
+                timeoutCount.sum(),
+                leakCount.sum(),
+                borrows == 0 ? 0 : totalWaitNanos.sum() / 1_000_000.0 / borrows,
+                maxWaitNanos.get() / 1_000_000.0,
+                hits, misses,
+                hits + misses == 0 ? 0 : (double) hits / (hits + misses));
+    }
+
+    /**
+     * Cierra el pool y todas las conexiones ociosas. Las prestadas se cierran al devolverse.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        if (settings.statementCacheSize() > 0) {
+            Stats stats = getStats();
+            LOGGER.info(String.format("Caché de sentencias: %d aciertos, %d fallos (%.1f%%)",
+                    stats.statementHits(), stats.statementMisses(), stats.statementHitRatio() * 100));
+        }
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Cierra las conexiones ociosas que sobran por encima de {@code minSize}, junto con sus
+     * sentencias preparadas, sin esperar a que caduquen (p. ej. al cerrar sesión).
+     *
+     * @return Número de conexiones cerradas.
+     */
+    public int trimIdle() {
+        int cerradas = 0;
+        PooledConnection pooled;
+        while (total.get() > settings.minSize() && (pooled = idle.pollLast()) != null) {
+            destroy(pooled);
+            cerradas++;
+        }
+        return cerradas;
+    }
+
+    /**
+     * Toma la conexión ociosa usada más recientemente, descartando las que ya no son válidas.
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.lastUsed < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(settings.validationTimeoutSec());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection createPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(settings.url(), settings.user(), settings.password());
+        total.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Devuelve una conexión al pool dejándola en un estado limpio (auto-commit activo).
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        pooled.lastUsed = System.nanoTime();
+        pooled.borrowTrace = null;
+        try {
+            Connection physical = pooled.physical;
+            pooled.releaseStatements();
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (closed || physical.isClosed()) {
+                destroy(pooled);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Conexión descartada al devolverla al pool", e);
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        total.decrementAndGet();
+        destroyedCount.increment();
+        // Cerrar la conexión física cierra también sus sentencias
+        pooled.statements.clear();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error al cerrar una conexión física", e);
+        }
+    }
+
+    /**
+     * Tarea periódica: expulsa conexiones ociosas, avisa de posibles fugas y repone el mínimo.
+     */
+    private void housekeep() {
+        long now = System.nanoTime();
+
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.idleTimeoutMs());
+        if (idleTimeoutNanos > 0) {
+            for (PooledConnection pooled : idle) {
+                if (total.get() > settings.minSize()
+                        && now - pooled.lastUsed > idleTimeoutNanos
+                        && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+        }
+
+        long leakNanos = TimeUnit.MILLISECONDS.toNanos(settings.leakDetectionThresholdMs());
+        if (leakNanos > 0) {
+            for (PooledConnection pooled : borrowed) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakNanos) {
+                    pooled.leakReported = true;
+                    leakCount.increment();
+                    LOGGER.log(Level.WARNING, "Posible fuga de conexión: prestada hace más de "
+                            + settings.leakDetectionThresholdMs() + " ms", pooled.borrowTrace);
+                }
+            }
+        }
+
+        // Se reserva un permiso durante la creación para no superar nunca maxSize
+        while (!closed && total.get() < settings.minSize() && permits.tryAcquire()) {
+            try {
+                idle.offerLast(createPhysical());
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "No se pudo abrir una conexión para el mínimo del pool", e);
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    // Métodos de DataSource sin soporte específico
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // No se usa: el pool registra mediante java.util.logging
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("No es un wrapper de " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Conexión física gestionada por el pool junto con su estado de préstamo.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.nanoTime();
+        private volatile long borrowedAt;
+        private volatile boolean leakReported;
+        private volatile Throwable borrowTrace;
+
+        // Sentencias preparadas por clave (SQL), en orden de uso para expulsar la menos reciente.
+        // Solo la usa el hilo que tiene prestada la conexión.
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= settings.statementCacheSize()) {
+                    return false;
+                }
+                CachedStatement expulsada = eldest.getValue();
+                if (expulsada.inUse) {
+                    // Se cerrará de verdad cuando el DAO la cierre
+                    expulsada.evicted = true;
+                } else {
+                    closeQuietly(expulsada.physical);
+                }
+                return true;
+            }
+        };
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Devuelve la sentencia preparada para la clave, reutilizando la de la caché si está libre.
+         * Si la misma SQL ya está abierta (p. ej. anidada en una transacción) se prepara una
+         * sentencia aparte que no se guarda.
+         */
+        private PreparedStatement prepare(Connection handle, Method method, Object[] args) throws Throwable {
+            String key = args.length == 1 ? (String) args[0] : args[1] + ":" + args[0];
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse) {
+                statementHits.increment();
+            } else {
+                statementMisses.increment();
+                PreparedStatement physicalStatement = (PreparedStatement) invokePhysical(physical, method, args);
+                if (cached != null) {
+                    return newStatementHandle(handle, physicalStatement, null);
+                }
+                cached = new CachedStatement(physicalStatement);
+                statements.put(key, cached);
+            }
+            cached.inUse = true;
+            cached.lease++;
+            return newStatementHandle(handle, cached.physical, cached);
+        }
+
+        /**
+         * Limpia una sentencia que el DAO ha cerrado y la deja disponible.
+         */
+        private void giveBack(CachedStatement cached) {
+            cached.inUse = false;
+            cached.lease++;
+            if (cached.evicted) {
+                closeQuietly(cached.physical);
+                return;
+            }
+            try {
+                ResultSet rs = cached.physical.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                cached.physical.clearParameters();
+                cached.physical.clearBatch();
+                cached.physical.clearWarnings();
+            } catch (SQLException e) {
+                statements.values().remove(cached);
+                closeQuietly(cached.physical);
+            }
+        }
+
+        /**
+         * Libera las sentencias que el DAO no llegó a cerrar antes de devolver la conexión.
+         */
+        private void releaseStatements() {
+            List<CachedStatement> abiertas = new ArrayList<>();
+            for (CachedStatement cached : statements.values()) {
+                if (cached.inUse) {
+                    abiertas.add(cached);
+                }
+            }
+            abiertas.forEach(this::giveBack);
+        }
+
+        private PreparedStatement newStatementHandle(Connection handle, PreparedStatement physicalStatement,
+                                                     CachedStatement cached) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new StatementHandle(this, handle, physicalStatement, cached));
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConnectionHandle(this));
+        }
+    }
+
+    /**
+     * Sentencia preparada guardada en la caché de una conexión física.
+     */
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private boolean inUse;
+        private boolean evicted;
+        // Cambia en cada préstamo y devolución para invalidar los proxies antiguos
+        private int lease;
+
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error al cerrar una sentencia preparada", e);
+        }
+    }
+
+    private static Object invokePhysical(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Proxy de una sentencia preparada. Si viene de la caché, {@code close()} la devuelve a ella
+     * en lugar de cerrarla; cualquier uso posterior del proxy falla.
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final Connection connectionHandle;
+        private final PreparedStatement physical;
+        private final CachedStatement cached;
+        private final int lease;
+        private boolean closed;
+
+        private StatementHandle(PooledConnection pooled, Connection connectionHandle,
+                                PreparedStatement physical, CachedStatement cached) {
+            this.pooled = pooled;
+            this.connectionHandle = connectionHandle;
+            this.physical = physical;
+            this.cached = cached;
+            this.lease = cached != null ? cached.lease : 0;
+        }
+
+        private boolean isClosed() {
+            return closed || (cached != null && cached.lease != lease);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!isClosed()) {
+                        closed = true;
+                        if (cached != null) {
+                            pooled.giveBack(cached);
+                        } else {
+                            physical.close();
+                        }
+                    }
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return isClosed() || physical.isClosed();
+                case "getConnection":
+                    return connectionHandle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + physical + (isClosed() ? ", cerrada]" : "]");
+                default:
+                    break;
+            }
+            if (isClosed()) {
+                throw new SQLException("La sentencia ya está cerrada");
+            }
+            return invokePhysical(physical, method, args);
+        }
+    }
+
+    /**
+     * Proxy que se entrega a los DAO. {@code close()} devuelve la conexión al pool
+     * y cualquier uso posterior del handle falla.
+     */
+    private final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private volatile boolean handleClosed;
+
+        private ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (handleClosed ? ", devuelta]" : "]");
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+            // Solo se cachean prepareStatement(sql) y prepareStatement(sql, autoGeneratedKeys)
+            if (settings.statementCacheSize() > 0 && method.getName().equals("prepareStatement")
+                    && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer))) {
+                return pooled.prepare((Connection) proxy, method, args);
+            }
+            return invokePhysical(pooled.physical, method, args);
+        }
+    }
+}
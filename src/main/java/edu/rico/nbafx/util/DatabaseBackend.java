@@ -0,0 +1,60 @@
+package edu.rico.nbafx.util;
+
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Motor de base de datos que usa la aplicación, elegido con {@code db.backend} en config.properties.
+ * <ul>
+ *     <li>{@link #MYSQL}: servidor MySQL configurado con {@code db.url}, {@code db.user} y {@code db.password}.</li>
+ *     <li>{@link #H2}: base H2 embebida en el propio proceso, en fichero ({@code db.h2.url}) y en modo
+ *     de compatibilidad MySQL, de modo que los DAO usan el mismo SQL. No necesita red ni servidor y
+ *     el esquema se crea automáticamente al arrancar (ver {@link EsquemaBaseDatos}).</li>
+ *     <li>{@link #MEMORIA}: sin base de datos. Los DAO trabajan sobre un almacén en memoria
+ *     (ver {@code dao.DaoFactory}) con instantáneas opcionales en {@code db.memoria.snapshotDir};
+ *     no se abre ningún pool ni conexión JDBC.</li>
+ * </ul>
+ */
+public enum DatabaseBackend {
+    MYSQL,
+    H2,
+    MEMORIA;
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseBackend.class.getName());
+
+    /** Base en fichero dentro del directorio del usuario; se crea si no existe. */
+    static final String DEFAULT_H2_URL = "jdbc:h2:file:~/.nbafx/nbafx;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    /**
+     * Obtiene el motor configurado. Si el valor no es válido se usa MySQL.
+     */
+    public static DatabaseBackend fromConfig() {
+        String valor = AppConfig.get("db.backend", "mysql");
+        try {
+            return valueOf(valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "db.backend no válido ({0}); se usa MySQL", valor);
+            return MYSQL;
+        }
+    }
+
+    public String url() {
+        return this == H2 ? AppConfig.get("db.h2.url", DEFAULT_H2_URL) : AppConfig.get("db.url");
+    }
+
+    public String user() {
+        return this == H2 ? AppConfig.get("db.h2.user", "sa") : AppConfig.get("db.user");
+    }
+
+    public String password() {
+        return this == H2 ? AppConfig.get("db.h2.password", "") : AppConfig.get("db.password");
+    }
+
+    /**
+     * Indica si la base de datos se ejecuta dentro del proceso de la aplicación.
+     */
+    public boolean isEmbedded() {
+        return this == H2;
+    }
+}
@@ -1,60 +1,103 @@
 package edu.rico.nbafx.util;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
-import java.io.InputStream;
-import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Clase de utilidad para gestionar la conexión a la base de datos.
- * Implementa el patrón Singleton para asegurar una única instancia de conexión compartida.
+ * Clase de utilidad para gestionar el acceso a la base de datos.
+ * Expone un único {@link ConnectionPool} compartido, configurado desde config.properties.
+ * Las conexiones obtenidas deben cerrarse (try-with-resources) para devolverlas al pool.
+ * Con un motor embebido ({@link DatabaseBackend#H2}) el esquema se crea o se actualiza al abrir el pool;
+ * sobre MySQL nunca se modifica (las migraciones están en {@code sql/}).
  */
 public class DatabaseConnection {
-    
-    private static Connection connection = null;
+
+    /**
+     * Constructor privado para evitar instanciación de la clase utilitaria.
+     */
+    private DatabaseConnection() { }
+
     private static final Logger LOGGER = Logger.getLogger(DatabaseConnection.class.getName());
-    private static final Properties PROPERTIES = new Properties();
-
-    // Carga estática de la configuración para hacerlo solo una vez
-    static {
-        try (InputStream input = DatabaseConnection.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (input != null) {
-                PROPERTIES.load(input);
-            } else {
-                LOGGER.log(Level.SEVERE, "No se encontró el archivo config.properties");
+
+    private static volatile boolean started = false;
+
+    // El pool se crea en el primer acceso (inicialización perezosa y segura entre hilos)
+    private static final class PoolHolder {
+        private static final ConnectionPool POOL = new ConnectionPool(ConnectionPool.Settings.fromConfig());
+
+        static {
+            started = true;
+            if (DatabaseBackend.fromConfig().isEmbedded()) {
+                try {
+                    if (!EsquemaBaseDatos.inicializarSiFalta(POOL)) {
+                        EsquemaBaseDatos.actualizarSiFalta(POOL);
+                    }
+                } catch (SQLException e) {
+                    LOGGER.log(Level.SEVERE, "No se pudo crear el esquema de la base de datos embebida", e);
+                }
             }
-        } catch (IOException ex) {
-            LOGGER.log(Level.SEVERE, "Error al cargar la configuración de base de datos", ex);
         }
     }
 
     /**
-     * Constructor privado para evitar instanciación de la clase utilitaria.
+     * Presta una conexión del pool.
+     *
+     * @return Una conexión válida; al cerrarla vuelve al pool.
+     * @throws SQLException Si no se puede obtener una conexión en el tiempo configurado.
      */
-    private DatabaseConnection() { }
+    public static Connection getConnection() throws SQLException {
+        return PoolHolder.POOL.getConnection();
+    }
 
     /**
-     * Obtiene la conexión actual a la base de datos.
-     * Si la conexión no existe o está cerrada, intenta establecer una nueva.
-     * El método es sincronizado para garantizar seguridad en entornos multihilo (Tasks).
+     * Abre el pool y toma y devuelve una conexión, para que el primer uso real no pague la carga
+     * del driver, el establecimiento de la conexión ni (en H2) la creación del esquema.
      *
-     * @return La conexión activa a la base de datos o null si ocurre un error.
+     * @throws SQLException Si no se puede conectar.
      */
-    public static synchronized Connection getConnection() {
-        try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(
-                        PROPERTIES.getProperty("db.url"),
-                        PROPERTIES.getProperty("db.user"),
-                        PROPERTIES.getProperty("db.password"));
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Error al conectar con la base de datos", e);
+    public static void precalentar() throws SQLException {
+        try (Connection connection = PoolHolder.POOL.getConnection()) {
+            connection.isValid(AppConfig.getInt("db.pool.validationTimeoutSec", 2));
+        }
+    }
+
+    /**
+     * Obtiene el DataSource compartido.
+     *
+     * @return El pool de conexiones como DataSource.
+     */
+    public static DataSource getDataSource() {
+        return PoolHolder.POOL;
+    }
+
+    /**
+     * Obtiene las métricas actuales del pool de conexiones.
+     *
+     * @return Una instantánea de las métricas.
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return PoolHolder.POOL.getStats();
+    }
+
+    /**
+     * Cierra las conexiones ociosas por encima del mínimo del pool, si está abierto.
+     * Se invoca al cerrar sesión.
+     */
+    public static void liberarOciosas() {
+        if (started) {
+            PoolHolder.POOL.trimIdle();
+        }
+    }
+
+    /**
+     * Cierra el pool de conexiones. Se invoca al cerrar la aplicación.
+     */
+    public static void shutdown() {
+        if (started) {
+            PoolHolder.POOL.close();
         }
-        return connection;
     }
-}
\ No newline at end of file
+}
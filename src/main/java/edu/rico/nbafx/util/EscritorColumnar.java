@@ -0,0 +1,153 @@
+package edu.rico.nbafx.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escritor del formato binario por columnas de la aplicación (extensión .nbac), pensado para
+ * recargar datos rápidamente. Las filas se acumulan en grupos de {@link #FILAS_POR_GRUPO} y cada
+ * grupo se escribe columna a columna, de modo que los valores de un mismo tipo quedan contiguos.
+ * <p>
+ * Estructura (enteros en big-endian):
+ * <pre>
+ * cabecera:  "NBAC" | versión (1 byte) | nº columnas (int) | por columna: tipo (1 byte), nombre (short + UTF-8)
+ * grupo:     nº filas (int &gt; 0) | por columna: longitud en bytes (int) + datos
+ *              INT: int por fila · LONG: long por fila · DOUBLE: double por fila
+ *              STRING: diccionario del grupo (nº entradas int, cada entrada int + UTF-8),
+ *                      ancho del índice (1, 2 o 4 bytes) e índice por fila (0 = null, k = entrada k-1)
+ * fin:       0 (int) | total de filas (long)
+ * </pre>
+ * El diccionario por grupo hace que columnas repetitivas como equipo o posición ocupen uno o
+ * dos bytes por fila. Se lee con {@link LectorColumnar}.
+ */
+public class EscritorColumnar implements EscritorFilas {
+
+    static final byte[] MAGIC = {'N', 'B', 'A', 'C'};
+    static final byte VERSION = 1;
+    static final int FILAS_POR_GRUPO = 4096;
+
+    private final CanalBuffer canal;
+    private final List<Columna> columnas;
+    private final Object[][] grupo;
+    private int filasEnGrupo;
+    private long totalFilas;
+
+    EscritorColumnar(CanalBuffer canal, List<Columna> columnas) throws IOException {
+        this.canal = canal;
+        this.columnas = List.copyOf(columnas);
+        this.grupo = new Object[columnas.size()][FILAS_POR_GRUPO];
+
+        canal.put(MAGIC);
+        canal.put(VERSION);
+        canal.putInt(columnas.size());
+        for (Columna columna : columnas) {
+            byte[] nombre = columna.nombre().getBytes(StandardCharsets.UTF_8);
+            canal.put((byte) columna.tipo().ordinal());
+            canal.putShort((short) nombre.length);
+            canal.put(nombre);
+        }
+    }
+
+    @Override
+    public void escribir(Object[] valores) throws IOException {
+        for (int c = 0; c < grupo.length; c++) {
+            grupo[c][filasEnGrupo] = valores[c];
+        }
+        filasEnGrupo++;
+        totalFilas++;
+        if (filasEnGrupo == FILAS_POR_GRUPO) {
+            escribirGrupo();
+        }
+    }
+
+    @Override
+    public long bytesEscritos() {
+        return canal.bytesEscritos();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (filasEnGrupo > 0) {
+                escribirGrupo();
+            }
+            canal.putInt(0);
+            canal.putLong(totalFilas);
+        } finally {
+            canal.close();
+        }
+    }
+
+    private void escribirGrupo() throws IOException {
+        canal.putInt(filasEnGrupo);
+        for (int c = 0; c < columnas.size(); c++) {
+            Object[] valores = grupo[c];
+            switch (columnas.get(c).tipo()) {
+                case INT -> {
+                    canal.putInt(filasEnGrupo * 4);
+                    for (int i = 0; i < filasEnGrupo; i++) {
+                        canal.putInt(valores[i] == null ? 0 : ((Number) valores[i]).intValue());
+                    }
+                }
+                case LONG -> {
+                    canal.putInt(filasEnGrupo * 8);
+                    for (int i = 0; i < filasEnGrupo; i++) {
+                        canal.putLong(valores[i] == null ? 0 : ((Number) valores[i]).longValue());
+                    }
+                }
+                case DOUBLE -> {
+                    canal.putInt(filasEnGrupo * 8);
+                    for (int i = 0; i < filasEnGrupo; i++) {
+                        canal.putDouble(valores[i] == null ? 0 : ((Number) valores[i]).doubleValue());
+                    }
+                }
+                case STRING -> escribirTexto(valores);
+            }
+            Arrays.fill(valores, 0, filasEnGrupo, null);
+        }
+        filasEnGrupo = 0;
+    }
+
+    private void escribirTexto(Object[] valores) throws IOException {
+        Map<String, Integer> indices = new HashMap<>();
+        List<byte[]> diccionario = new ArrayList<>();
+        int[] filas = new int[filasEnGrupo];
+        int bytesDiccionario = 4;
+        for (int i = 0; i < filasEnGrupo; i++) {
+            if (valores[i] == null) {
+                continue;
+            }
+            String texto = valores[i].toString();
+            Integer indice = indices.get(texto);
+            if (indice == null) {
+                byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                diccionario.add(bytes);
+                bytesDiccionario += 4 + bytes.length;
+                indice = diccionario.size();
+                indices.put(texto, indice);
+            }
+            filas[i] = indice;
+        }
+        int ancho = diccionario.size() < 0xFF ? 1 : diccionario.size() < 0xFFFF ? 2 : 4;
+
+        canal.putInt(bytesDiccionario + 1 + filasEnGrupo * ancho);
+        canal.putInt(diccionario.size());
+        for (byte[] entrada : diccionario) {
+            canal.putInt(entrada.length);
+            canal.put(entrada);
+        }
+        canal.put((byte) ancho);
+        for (int i = 0; i < filasEnGrupo; i++) {
+            switch (ancho) {
+                case 1 -> canal.put((byte) filas[i]);
+                case 2 -> canal.putShort((short) filas[i]);
+                default -> canal.putInt(filas[i]);
+            }
+        }
+    }
+}
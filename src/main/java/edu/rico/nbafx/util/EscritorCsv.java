@@ -0,0 +1,57 @@
+package edu.rico.nbafx.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escritor CSV (separador ',', UTF-8, fin de línea '\n'). Los campos con separador, comillas o
+ * saltos de línea se encierran entre comillas dobles; null se escribe como campo vacío.
+ * Es compatible con {@link LectorCsv}, de modo que un fichero exportado se puede reimportar.
+ */
+public class EscritorCsv implements EscritorFilas {
+
+    private final CanalBuffer canal;
+    private final StringBuilder linea = new StringBuilder(256);
+
+    EscritorCsv(CanalBuffer canal, List<Columna> columnas) throws IOException {
+        this.canal = canal;
+        Object[] cabecera = new Object[columnas.size()];
+        for (int i = 0; i < cabecera.length; i++) {
+            cabecera[i] = columnas.get(i).nombre();
+        }
+        escribir(cabecera);
+    }
+
+    @Override
+    public void escribir(Object[] valores) throws IOException {
+        linea.setLength(0);
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                linea.append(',');
+            }
+            Object valor = valores[i];
+            if (valor == null) {
+                continue;
+            }
+            String texto = valor.toString();
+            if (texto.indexOf(',') >= 0 || texto.indexOf('"') >= 0 || texto.indexOf('\n') >= 0 || texto.indexOf('\r') >= 0) {
+                linea.append('"').append(texto.replace("\"", "\"\"")).append('"');
+            } else {
+                linea.append(texto);
+            }
+        }
+        linea.append('\n');
+        canal.put(linea.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public long bytesEscritos() {
+        return canal.bytesEscritos();
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
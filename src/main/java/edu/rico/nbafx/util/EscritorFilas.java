@@ -0,0 +1,99 @@
+package edu.rico.nbafx.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Escritor secuencial de filas tipadas en un fichero de datos.
+ * <p>
+ * Las implementaciones escriben sobre un {@link java.nio.channels.FileChannel} a través de un
+ * buffer de tamaño fijo que se vuelca por bloques, de modo que la memoria usada no depende del
+ * número de filas. Los valores de cada fila siguen el orden y el tipo de las columnas declaradas.
+ */
+public interface EscritorFilas extends Closeable {
+
+    /**
+     * Tipo de una columna. Los numéricos no admiten null (se escribe 0); el texto sí.
+     */
+    enum Tipo { INT, LONG, DOUBLE, STRING }
+
+    /**
+     * Columna del fichero.
+     */
+    record Columna(String nombre, Tipo tipo) {
+    }
+
+    /**
+     * Formatos de fichero soportados, con su extensión.
+     */
+    enum Formato {
+        CSV(".csv"),
+        JSON(".json"),
+        /** Formato binario por columnas propio de la aplicación (ver {@link EscritorColumnar}). */
+        COLUMNAR(".nbac");
+
+        private final String extension;
+
+        Formato(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Deduce el formato por la extensión del fichero.
+         *
+         * @return El formato o null si la extensión no es conocida.
+         */
+        public static Formato desdeFichero(Path fichero) {
+            String nombre = fichero.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Formato formato : values()) {
+                if (nombre.endsWith(formato.extension)) {
+                    return formato;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Escribe una fila.
+     *
+     * @param valores Valores en el orden de las columnas.
+     * @throws IOException Si no se puede escribir.
+     */
+    void escribir(Object[] valores) throws IOException;
+
+    /**
+     * Bytes escritos hasta ahora (incluidos los pendientes en el buffer).
+     */
+    long bytesEscritos();
+
+    /**
+     * Crea un escritor del formato indicado, que escribe la cabecera al abrirse.
+     *
+     * @param fichero El fichero destino (se crea o se sobrescribe).
+     * @param formato El formato de salida.
+     * @param columnas Las columnas de cada fila.
+     * @return El escritor abierto.
+     * @throws IOException Si no se puede crear el fichero.
+     */
+    static EscritorFilas abrir(Path fichero, Formato formato, List<Columna> columnas) throws IOException {
+        CanalBuffer canal = CanalBuffer.crear(fichero);
+        try {
+            return switch (formato) {
+                case CSV -> new EscritorCsv(canal, columnas);
+                case JSON -> new EscritorJson(canal, columnas);
+                case COLUMNAR -> new EscritorColumnar(canal, columnas);
+            };
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+}
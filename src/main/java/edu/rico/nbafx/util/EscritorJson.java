@@ -0,0 +1,83 @@
+package edu.rico.nbafx.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escritor JSON: un array de objetos planos, uno por línea. Compatible con {@link LectorJson}.
+ */
+public class EscritorJson implements EscritorFilas {
+
+    private final CanalBuffer canal;
+    private final List<Columna> columnas;
+    private final StringBuilder objeto = new StringBuilder(256);
+    private boolean primera = true;
+
+    EscritorJson(CanalBuffer canal, List<Columna> columnas) throws IOException {
+        this.canal = canal;
+        this.columnas = List.copyOf(columnas);
+        canal.put("[\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void escribir(Object[] valores) throws IOException {
+        objeto.setLength(0);
+        objeto.append(primera ? "  {" : ",\n  {");
+        primera = false;
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                objeto.append(", ");
+            }
+            Columna columna = columnas.get(i);
+            texto(columna.nombre());
+            objeto.append(": ");
+            Object valor = valores[i];
+            if (valor == null) {
+                objeto.append("null");
+            } else if (columna.tipo() == Tipo.STRING) {
+                texto(valor.toString());
+            } else {
+                objeto.append(valor);
+            }
+        }
+        objeto.append('}');
+        canal.put(objeto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public long bytesEscritos() {
+        return canal.bytesEscritos();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            canal.put("\n]\n".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            canal.close();
+        }
+    }
+
+    private void texto(String valor) {
+        objeto.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> objeto.append("\\\"");
+                case '\\' -> objeto.append("\\\\");
+                case '\n' -> objeto.append("\\n");
+                case '\r' -> objeto.append("\\r");
+                case '\t' -> objeto.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        objeto.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        objeto.append(c);
+                    }
+                }
+            }
+        }
+        objeto.append('"');
+    }
+}
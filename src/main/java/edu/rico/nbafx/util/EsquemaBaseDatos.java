@@ -0,0 +1,236 @@
+package edu.rico.nbafx.util;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.logging.Logger;
+
+/**
+ * Creación del esquema a partir de {@code sql/init_jugadores.sql}.
+ * <p>
+ * Se usa con las bases embebidas, que arrancan vacías: si la tabla 'jugadores' no existe se ejecuta
+ * el script completo (tablas, índices y datos de prueba) en una sola transacción. Las bases ya
+ * embebidas creadas con una versión anterior del script se actualizan con {@link #actualizarSiFalta};
+ * las de MySQL, a mano con los scripts de migración de {@code sql/}. El almacén en memoria, que no ejecuta SQL, toma los datos de prueba de los INSERT del mismo script
+ * ({@link #leerInserciones()}).
+ */
+public final class EsquemaBaseDatos {
+
+    private static final Logger LOGGER = Logger.getLogger(EsquemaBaseDatos.class.getName());
+    private static final String SCRIPT = "/sql/init_jugadores.sql";
+
+    private EsquemaBaseDatos() {
+    }
+
+    /**
+     * Sentencia INSERT del script.
+     *
+     * @param tabla Tabla destino.
+     * @param columnas Columnas, en el orden de los valores.
+     * @param filas Valores de cada fila como texto (null para NULL).
+     */
+    public record Insercion(String tabla, List<String> columnas, List<List<String>> filas) {
+    }
+
+    private static final Pattern INSERT = Pattern.compile(
+            "INSERT\\s+INTO\\s+(\\w+)\\s*\\(([^)]*)\\)\\s*VALUES\\s*(.*)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /**
+     * Crea el esquema si todavía no existe.
+     *
+     * @param dataSource Origen de las conexiones.
+     * @return true si se ha creado, false si ya existía.
+     * @throws SQLException Si falla alguna sentencia del script.
+     */
+    public static boolean inicializarSiFalta(DataSource dataSource) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            if (existeTabla(conn, "jugadores")) {
+                return false;
+            }
+            List<String> sentencias = leerScript();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sentencia : sentencias) {
+                    stmt.execute(sentencia);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            LOGGER.info("Esquema creado desde " + SCRIPT + " (" + sentencias.size() + " sentencias)");
+            return true;
+        }
+    }
+
+    /**
+     * Añade a un esquema existente las columnas que el script incorporó después de crearlo: por
+     * ahora, la columna 'version' de 'jugadores' ({@code sql/migracion_version_jugadores.sql}). No
+     * hace nada si la tabla no existe o ya la tiene. Solo se aplica a las bases embebidas.
+     *
+     * @param dataSource Origen de las conexiones.
+     * @return true si se ha modificado la tabla.
+     * @throws SQLException Si falla la consulta o la modificación.
+     */
+    public static boolean actualizarSiFalta(DataSource dataSource) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            if (!existeTabla(conn, "jugadores") || existeColumna(conn, "jugadores", "version")) {
+                return false;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE jugadores ADD COLUMN version INT NOT NULL DEFAULT 0");
+            }
+            LOGGER.info("Añadida la columna 'version' a la tabla 'jugadores'");
+            return true;
+        }
+    }
+
+    /**
+     * Comprueba si una tabla tiene una columna.
+     *
+     * @param dataSource Origen de las conexiones.
+     * @param tabla Nombre de la tabla.
+     * @param columna Nombre de la columna.
+     * @return true si la tabla existe y tiene la columna.
+     * @throws SQLException Si falla la consulta de metadatos.
+     */
+    public static boolean existeColumna(DataSource dataSource, String tabla, String columna) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return existeColumna(conn, tabla, columna);
+        }
+    }
+
+    /**
+     * Extrae los datos de las sentencias INSERT ... VALUES del script. Admite literales entre
+     * comillas simples (con '' como escape), números y NULL.
+     *
+     * @return Las inserciones, en el orden del script.
+     * @throws SQLException Si no se puede leer el script o un INSERT está mal formado.
+     */
+    public static List<Insercion> leerInserciones() throws SQLException {
+        List<Insercion> inserciones = new ArrayList<>();
+        for (String sentencia : leerScript()) {
+            String sinComentarios = sentencia.lines()
+                    .filter(l -> !l.strip().startsWith("--"))
+                    .collect(Collectors.joining("\n"))
+                    .strip();
+            Matcher m = INSERT.matcher(sinComentarios);
+            if (m.matches()) {
+                List<String> columnas = new ArrayList<>();
+                for (String columna : m.group(2).split(",")) {
+                    columnas.add(columna.strip());
+                }
+                inserciones.add(new Insercion(m.group(1), columnas, leerValores(m.group(3))));
+            }
+        }
+        return inserciones;
+    }
+
+    private static List<List<String>> leerValores(String valores) throws SQLException {
+        List<List<String>> filas = new ArrayList<>();
+        List<String> fila = null;
+        StringBuilder actual = new StringBuilder();
+        boolean literal = false;
+        boolean entreComillas = false;
+        for (int i = 0; i < valores.length(); i++) {
+            char c = valores.charAt(i);
+            if (entreComillas) {
+                if (c == '\'' && i + 1 < valores.length() && valores.charAt(i + 1) == '\'') {
+                    actual.append(c);
+                    i++;
+                } else if (c == '\'') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '\'' && fila != null) {
+                // Se descartan los espacios previos a las comillas
+                actual.setLength(0);
+                entreComillas = true;
+                literal = true;
+            } else if (c == '(' && fila == null) {
+                fila = new ArrayList<>();
+            } else if ((c == ',' || c == ')') && fila != null) {
+                String valor = literal ? actual.toString() : actual.toString().strip();
+                fila.add(!literal && valor.equalsIgnoreCase("NULL") ? null : valor);
+                actual.setLength(0);
+                literal = false;
+                if (c == ')') {
+                    filas.add(fila);
+                    fila = null;
+                }
+            } else if (fila != null) {
+                // Tras cerrar las comillas solo se espera el separador
+                if (!literal) {
+                    actual.append(c);
+                }
+            } else if (c != ',' && !Character.isWhitespace(c)) {
+                throw new SQLException("INSERT mal formado en " + SCRIPT + " cerca de: " + valores.substring(i, Math.min(valores.length(), i + 20)));
+            }
+        }
+        if (fila != null || entreComillas) {
+            throw new SQLException("INSERT sin terminar en " + SCRIPT);
+        }
+        return filas;
+    }
+
+    private static boolean existeTabla(Connection conn, String tabla) throws SQLException {
+        // Según el motor el nombre se guarda en minúsculas o en mayúsculas
+        for (String nombre : new String[]{tabla, tabla.toUpperCase()}) {
+            try (ResultSet rs = conn.getMetaData().getTables(conn.getCatalog(), null, nombre, new String[]{"TABLE"})) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean existeColumna(Connection conn, String tabla, String columna) throws SQLException {
+        for (String[] nombres : new String[][]{{tabla, columna}, {tabla.toUpperCase(), columna.toUpperCase()}}) {
+            try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, nombres[0], nombres[1])) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lee el script y lo separa en sentencias, descartando las que solo contienen comentarios.
+     */
+    static List<String> leerScript() throws SQLException {
+        String script;
+        try (InputStream input = EsquemaBaseDatos.class.getResourceAsStream(SCRIPT)) {
+            if (input == null) {
+                throw new SQLException("No se encontró el script " + SCRIPT);
+            }
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("No se pudo leer el script " + SCRIPT, e);
+        }
+        List<String> sentencias = new ArrayList<>();
+        for (String sentencia : script.split(";")) {
+            boolean soloComentarios = sentencia.lines().allMatch(l -> l.isBlank() || l.strip().startsWith("--"));
+            if (!soloComentarios) {
+                sentencias.add(sentencia.strip());
+            }
+        }
+        return sentencias;
+    }
+}
@@ -0,0 +1,325 @@
+package edu.rico.nbafx.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Hash de contraseñas con PBKDF2-HMAC-SHA256, sal aleatoria y coste ajustable.
+ * <p>
+ * El formato guardado es {@code pbkdf2-sha256$iteraciones$sal$hash} (sal y hash en Base64), de
+ * modo que cada contraseña conserva el coste con el que se calculó. El coste se calibra al
+ * arrancar para que un hash tarde unos {@code auth.hash.targetMillis} en esta máquina, sin bajar
+ * de {@code auth.hash.minIterations} ({@code auth.hash.iterations} lo fija y evita la calibración).
+ * <p>
+ * Los hashes se calculan en un pool propio de hilos de plataforma, tantos como núcleos, con una
+ * cola acotada: una avalancha de inicios de sesión ocupa CPU aquí, no los hilos ni las conexiones
+ * de las tareas de base de datos, y lo que no cabe en la cola se rechaza en lugar de acumularse.
+ * Cada hilo reutiliza su propia instancia de {@link Mac} y de {@link MessageDigest}.
+ * <p>
+ * También verifica los hashes antiguos (SHA-256 sin sal en Base64) e indica cuándo conviene
+ * recalcular uno porque es de ese tipo o se calculó con un coste muy inferior al actual.
+ */
+public final class HashContrasenas {
+
+    private static final Logger LOGGER = Logger.getLogger(HashContrasenas.class.getName());
+
+    private static final String PREFIJO = "pbkdf2-sha256";
+    private static final int BYTES_SAL = 16;
+    private static final int BYTES_HASH = 32;
+    private static final int ITERACIONES_CALIBRADO = 20_000;
+
+    private static final SecureRandom ALEATORIO = new SecureRandom();
+
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    });
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    /**
+     * Resultado de una verificación.
+     *
+     * @param correcta Si la contraseña coincide con el hash.
+     * @param nuevoHash Hash recalculado con el coste actual si la contraseña es correcta y el
+     *                  guardado está anticuado; null si no hay que cambiarlo.
+     */
+    public record Verificacion(boolean correcta, String nuevoHash) {
+    }
+
+    /**
+     * Métricas del pool de hash.
+     *
+     * @param iteraciones Coste actual de los hashes nuevos.
+     * @param hilos Hilos del pool.
+     * @param activos Hashes calculándose en este momento.
+     * @param enCola Hashes esperando un hilo.
+     * @param completados Hashes y verificaciones terminados.
+     * @param rechazados Peticiones rechazadas por tener la cola llena.
+     * @param mediaMillis Duración media de cada hash.
+     * @param verificacionesUltimoMinuto Verificaciones (inicios de sesión) en los últimos 60 segundos.
+     */
+    public record Stats(int iteraciones, int hilos, int activos, int enCola, long completados,
+                        long rechazados, double mediaMillis, long verificacionesUltimoMinuto) {
+    }
+
+    private static final class Holder {
+        private static final HashContrasenas INSTANCE = fromConfig();
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final int minIteraciones;
+    private final long objetivoNanos;
+    private volatile int iteraciones;
+
+    private final LongAdder completados = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final LongAdder nanosHash = new LongAdder();
+    private final long[] segundos = new long[60];
+    private final long[] verificaciones = new long[60];
+
+    /**
+     * Crea el pool de hash.
+     *
+     * @param hilos Hilos del pool.
+     * @param tamanoCola Peticiones que pueden esperar un hilo antes de rechazarse.
+     * @param objetivoMillis Duración buscada para cada hash al calibrar.
+     * @param minIteraciones Coste mínimo aunque la calibración dé menos.
+     * @param iteracionesFijas Coste fijo (sin calibrar), o 0 para calibrar.
+     */
+    public HashContrasenas(int hilos, int tamanoCola, long objetivoMillis, int minIteraciones, int iteracionesFijas) {
+        AtomicInteger contador = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(hilos, hilos, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, tamanoCola)), r -> {
+                    Thread t = new Thread(r, "nbafx-hash-" + contador.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.minIteraciones = minIteraciones;
+        this.objetivoNanos = TimeUnit.MILLISECONDS.toNanos(objetivoMillis);
+        this.iteraciones = iteracionesFijas;
+    }
+
+    /**
+     * Obtiene el pool compartido, configurado desde config.properties ({@code auth.hash.*}).
+     */
+    public static HashContrasenas getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static HashContrasenas fromConfig() {
+        return new HashContrasenas(
+                AppConfig.getInt("auth.hash.threads", Runtime.getRuntime().availableProcessors()),
+                AppConfig.getInt("auth.hash.queueSize", 64),
+                AppConfig.getLong("auth.hash.targetMillis", 100),
+                AppConfig.getInt("auth.hash.minIterations", 100_000),
+                AppConfig.getInt("auth.hash.iterations", 0));
+    }
+
+    /**
+     * Calcula el hash de una contraseña con una sal nueva y el coste actual.
+     *
+     * @param password La contraseña en texto plano.
+     * @return Un futuro con el hash en el formato guardado; falla con
+     *         {@link RejectedExecutionException} si la cola está llena.
+     */
+    public CompletableFuture<String> hash(String password) {
+        return enviar(() -> calcular(password));
+    }
+
+    /**
+     * Comprueba una contraseña contra un hash guardado (actual o antiguo).
+     *
+     * @param password La contraseña en texto plano.
+     * @param guardado El hash guardado; si es null se hace el mismo trabajo y se responde que no
+     *                 coincide, para que no se distinga por el tiempo si el usuario existe.
+     * @return Un futuro con el resultado; falla con {@link RejectedExecutionException} si la cola está llena.
+     */
+    public CompletableFuture<Verificacion> verificar(String password, String guardado) {
+        anotarVerificacion();
+        return enviar(() -> {
+            if (guardado == null) {
+                calcular(password);
+                return new Verificacion(false, null);
+            }
+            if (!guardado.startsWith(PREFIJO + "$")) {
+                return verificarAntiguo(password, guardado)
+                        ? new Verificacion(true, calcular(password))
+                        : new Verificacion(false, null);
+            }
+            String[] partes = guardado.split("\\$");
+            int coste;
+            byte[] sal;
+            byte[] esperado;
+            try {
+                coste = Integer.parseInt(partes[1]);
+                sal = Base64.getDecoder().decode(partes[2]);
+                esperado = Base64.getDecoder().decode(partes[3]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                return new Verificacion(false, null);
+            }
+            if (coste < 1 || !MessageDigest.isEqual(esperado, pbkdf2(password, sal, coste))) {
+                return new Verificacion(false, null);
+            }
+            int actual = iteraciones();
+            return new Verificacion(true, coste < actual / 2 ? calcular(password) : null);
+        });
+    }
+
+    /**
+     * Ajusta el coste para que un hash tarde el tiempo configurado en esta máquina. Si hay un
+     * coste fijo, o ya se ha calibrado, no hace nada.
+     *
+     * @return Las iteraciones resultantes.
+     */
+    public synchronized int calibrar() {
+        if (iteraciones > 0) {
+            return iteraciones;
+        }
+        byte[] sal = new byte[BYTES_SAL];
+        // Dos pasadas de calentamiento para que la medida no incluya la compilación JIT
+        pbkdf2("calibrado", sal, ITERACIONES_CALIBRADO);
+        pbkdf2("calibrado", sal, ITERACIONES_CALIBRADO);
+        long inicio = System.nanoTime();
+        pbkdf2("calibrado", sal, ITERACIONES_CALIBRADO);
+        long duracion = Math.max(1, System.nanoTime() - inicio);
+        long calculadas = ITERACIONES_CALIBRADO * objetivoNanos / duracion;
+        // Redondeado a miles para que pequeñas variaciones no cambien el formato guardado
+        int resultado = (int) Math.min(Integer.MAX_VALUE, Math.max(minIteraciones, calculadas / 1000 * 1000));
+        iteraciones = resultado;
+        LOGGER.info(String.format("Coste de PBKDF2 calibrado en %d iteraciones (objetivo %d ms)",
+                resultado, TimeUnit.NANOSECONDS.toMillis(objetivoNanos)));
+        return resultado;
+    }
+
+    /**
+     * Obtiene las métricas actuales del pool.
+     */
+    public Stats getStats() {
+        long c = completados.sum();
+        return new Stats(iteraciones, workers.getMaximumPoolSize(), workers.getActiveCount(),
+                workers.getQueue().size(), c, rechazados.sum(),
+                c == 0 ? 0 : nanosHash.sum() / 1_000_000.0 / c, verificacionesUltimoMinuto());
+    }
+
+    private int iteraciones() {
+        int actual = iteraciones;
+        return actual > 0 ? actual : calibrar();
+    }
+
+    private <T> CompletableFuture<T> enviar(Supplier<T> trabajo) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long inicio = System.nanoTime();
+                try {
+                    return trabajo.get();
+                } finally {
+                    nanosHash.add(System.nanoTime() - inicio);
+                    completados.increment();
+                }
+            }, workers);
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Demasiadas peticiones de hash en cola", e));
+        }
+    }
+
+    private String calcular(String password) {
+        int coste = iteraciones();
+        byte[] sal = new byte[BYTES_SAL];
+        ALEATORIO.nextBytes(sal);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return PREFIJO + "$" + coste + "$" + base64.encodeToString(sal) + "$"
+                + base64.encodeToString(pbkdf2(password, sal, coste));
+    }
+
+    private static boolean verificarAntiguo(String password, String guardado) {
+        byte[] esperado;
+        try {
+            esperado = Base64.getDecoder().decode(guardado);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        MessageDigest sha = SHA256.get();
+        return MessageDigest.isEqual(esperado, sha.digest(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * PBKDF2-HMAC-SHA256 de un solo bloque (32 bytes), sobre el Mac del hilo.
+     */
+    private static byte[] pbkdf2(String password, byte[] sal, int iteraciones) {
+        Mac mac = HMAC.get();
+        byte[] clave = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            // HMAC rellena la clave con ceros, así que una clave vacía equivale a un byte cero
+            mac.init(new SecretKeySpec(clave.length == 0 ? new byte[1] : clave, "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar HmacSHA256", e);
+        }
+        mac.update(sal);
+        mac.update(new byte[]{0, 0, 0, 1});
+        byte[] u = mac.doFinal();
+        byte[] resultado = u.clone();
+        try {
+            for (int i = 1; i < iteraciones; i++) {
+                mac.update(u);
+                mac.doFinal(u, 0);
+                for (int j = 0; j < BYTES_HASH; j++) {
+                    resultado[j] ^= u[j];
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Error al calcular PBKDF2", e);
+        }
+        return resultado;
+    }
+
+    private void anotarVerificacion() {
+        long segundo = System.currentTimeMillis() / 1000;
+        int i = (int) (segundo % segundos.length);
+        synchronized (verificaciones) {
+            if (segundos[i] != segundo) {
+                segundos[i] = segundo;
+                verificaciones[i] = 0;
+            }
+            verificaciones[i]++;
+        }
+    }
+
+    private long verificacionesUltimoMinuto() {
+        long desde = System.currentTimeMillis() / 1000 - segundos.length;
+        long total = 0;
+        synchronized (verificaciones) {
+            for (int i = 0; i < segundos.length; i++) {
+                if (segundos[i] > desde) {
+                    total += verificaciones[i];
+                }
+            }
+        }
+        return total;
+    }
+}
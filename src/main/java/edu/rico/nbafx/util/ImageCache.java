@@ -0,0 +1,324 @@
+package edu.rico.nbafx.util;
+
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché compartida y asíncrona de imágenes (fotos de jugadores).
+ * <p>
+ * Las imágenes se identifican por URL normalizada y tamaño de destino. Tiene dos niveles:
+ * <ul>
+ *     <li>Memoria: LRU acotada por bytes decodificados (ancho x alto x 4).</li>
+ *     <li>Disco: copia persistente de las imágenes remotas, para no volver a descargarlas
+ *     entre ejecuciones.</li>
+ * </ul>
+ * Las peticiones simultáneas de la misma imagen comparten una única carga.
+ */
+public class ImageCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ImageCache.class.getName());
+
+    private static final String DEFAULT_IMAGE_RESOURCE = "/imagenes/default.png";
+    private static final String FALLBACK_ONLINE = "https://via.placeholder.com/150";
+    private static final int TIMEOUT_MS = 10_000;
+
+    /**
+     * Clave de la caché: URL normalizada y tamaño al que se decodifica.
+     */
+    public record Key(String url, int width, int height) {
+    }
+
+    /**
+     * Instantánea de las métricas de la caché.
+     *
+     * @param hits Peticiones servidas desde memoria.
+     * @param misses Peticiones que requirieron cargar la imagen.
+     * @param diskHits Cargas resueltas desde la caché en disco sin descargar.
+     * @param coalesced Peticiones que se unieron a una carga ya en curso.
+     * @param evictions Imágenes expulsadas de memoria.
+     * @param errors Cargas fallidas (se sirvió la imagen por defecto).
+     * @param entries Imágenes en memoria.
+     * @param bytesInMemory Bytes decodificados en memoria.
+     */
+    public record Stats(long hits, long misses, long diskHits, long coalesced, long evictions, long errors,
+                        int entries, long bytesInMemory) {
+    }
+
+    private final long maxBytes;
+    private final Path diskDir;
+    private final TaskExecutor executor;
+
+    // LRU en orden de acceso; protegida por su propio monitor
+    private final LinkedHashMap<Key, Image> memoria = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytesEnMemoria;
+
+    private final Map<Key, CompletableFuture<Image>> enCurso = new ConcurrentHashMap<>();
+    private volatile Image placeholder;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Crea la caché.
+     *
+     * @param maxBytes Límite de bytes decodificados en memoria.
+     * @param diskDir Directorio de la caché en disco para imágenes remotas.
+     * @param executor Ejecutor en el que se descargan y decodifican las imágenes.
+     */
+    public ImageCache(long maxBytes, Path diskDir, TaskExecutor executor) {
+        this.maxBytes = maxBytes;
+        this.diskDir = diskDir;
+        this.executor = executor;
+    }
+
+    /**
+     * Crea la caché a partir de config.properties ({@code images.*}).
+     */
+    public static ImageCache fromConfig() {
+        long maxBytes = AppConfig.getLong("images.memoryCacheMb", 64) * 1024 * 1024;
+        String dir = AppConfig.get("images.diskCacheDir",
+                Paths.get(System.getProperty("user.home"), ".nbafx", "imagenes").toString());
+        TaskExecutor executor = new TaskExecutor(AppConfig.getInt("images.maxConcurrency", 4));
+        return new ImageCache(maxBytes, Paths.get(dir), executor);
+    }
+
+    /**
+     * Obtiene una imagen de forma asíncrona. Si está en memoria, el futuro ya está completado.
+     * Nunca falla: ante cualquier error se completa con la imagen por defecto.
+     *
+     * @param url URL web, URI file: o ruta local (relativa al directorio de trabajo).
+     * @param width Ancho de destino.
+     * @param height Alto de destino.
+     * @return Un futuro con la imagen.
+     */
+    public CompletableFuture<Image> load(String url, int width, int height) {
+        String normalizada = normalizeUrl(url);
+        if (normalizada == null) {
+            return CompletableFuture.completedFuture(getPlaceholder());
+        }
+        Key key = new Key(normalizada, width, height);
+
+        Image cached = getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<Image> nuevo = new CompletableFuture<>();
+        CompletableFuture<Image> existente = enCurso.putIfAbsent(key, nuevo);
+        if (existente != null) {
+            coalesced.increment();
+            return existente;
+        }
+        misses.increment();
+        try {
+            executor.execute(() -> {
+                try {
+                    nuevo.complete(cargar(key));
+                } catch (Exception e) {
+                    errors.increment();
+                    LOGGER.log(Level.WARNING, "Error cargando imagen: " + key.url(), e);
+                    nuevo.complete(getPlaceholder());
+                } finally {
+                    enCurso.remove(key, nuevo);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // La aplicación se está cerrando
+            enCurso.remove(key, nuevo);
+            nuevo.complete(getPlaceholder());
+        }
+        return nuevo;
+    }
+
+    /**
+     * Devuelve la imagen si ya está en memoria, sin cargarla.
+     */
+    public Image getIfPresent(Key key) {
+        synchronized (memoria) {
+            Image image = memoria.get(key);
+            if (image != null) {
+                hits.increment();
+            }
+            return image;
+        }
+    }
+
+    /**
+     * Imagen por defecto, decodificada una sola vez y compartida por todas las tarjetas.
+     */
+    public Image getPlaceholder() {
+        Image image = placeholder;
+        if (image == null) {
+            synchronized (this) {
+                image = placeholder;
+                if (image == null) {
+                    URL resource = ImageCache.class.getResource(DEFAULT_IMAGE_RESOURCE);
+                    image = new Image(resource != null ? resource.toExternalForm() : FALLBACK_ONLINE);
+                    placeholder = image;
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Vacía el nivel de memoria (la caché en disco se conserva).
+     */
+    public void clearMemory() {
+        synchronized (memoria) {
+            memoria.clear();
+            bytesEnMemoria = 0;
+        }
+    }
+
+    /**
+     * Obtiene las métricas actuales de la caché.
+     */
+    public Stats getStats() {
+        synchronized (memoria) {
+            return new Stats(hits.sum(), misses.sum(), diskHits.sum(), coalesced.sum(), evictions.sum(),
+                    errors.sum(), memoria.size(), bytesEnMemoria);
+        }
+    }
+
+    /**
+     * Detiene el ejecutor de descargas.
+     */
+    public void shutdown() {
+        executor.shutdown(1_000);
+    }
+
+    /**
+     * Normaliza una URL de imagen: las rutas locales se resuelven contra el directorio de trabajo
+     * y se convierten a URI file:. Devuelve null si está vacía o el fichero local no existe.
+     *
+     * @param url La URL o ruta tal como se guarda en la base de datos.
+     * @return La URL normalizada o null.
+     */
+    public static String normalizeUrl(String url) {
+        if (url == null || url.trim().isEmpty()) {
+            return null;
+        }
+        String urlTrimmed = url.trim();
+        if (urlTrimmed.startsWith("http") || urlTrimmed.startsWith("file:") || urlTrimmed.startsWith("jar:")) {
+            return urlTrimmed;
+        }
+        File file = new File(urlTrimmed);
+        if (!file.isAbsolute()) {
+            file = Paths.get(System.getProperty("user.dir"), urlTrimmed).toFile();
+        }
+        if (!file.exists()) {
+            LOGGER.log(Level.FINE, "Imagen local no encontrada: {0}", file.getAbsolutePath());
+            return null;
+        }
+        return file.toURI().normalize().toString();
+    }
+
+    private Image cargar(Key key) throws IOException {
+        Image image;
+        if (key.url().startsWith("http")) {
+            Path enDisco = diskDir.resolve(hash(key.url()) + ".img");
+            if (Files.exists(enDisco)) {
+                diskHits.increment();
+            } else {
+                descargar(key.url(), enDisco);
+            }
+            image = decodificar(Files.newInputStream(enDisco), key);
+            if (image.isError()) {
+                // Copia corrupta en disco: se descarta para reintentar en la próxima carga
+                Files.deleteIfExists(enDisco);
+            }
+        } else {
+            image = decodificar(URI.create(key.url()).toURL().openStream(), key);
+        }
+
+        if (image.isError()) {
+            errors.increment();
+            LOGGER.log(Level.WARNING, "Error cargando imagen: {0}", key.url());
+            return getPlaceholder();
+        }
+        guardarEnMemoria(key, image);
+        return image;
+    }
+
+    private Image decodificar(InputStream in, Key key) throws IOException {
+        try (InputStream input = in) {
+            return new Image(input, key.width(), key.height(), true, true);
+        }
+    }
+
+    private void descargar(String url, Path destino) throws IOException {
+        Files.createDirectories(diskDir);
+        Path temporal = Files.createTempFile(diskDir, "descarga", ".tmp");
+        try {
+            URLConnection connection = URI.create(url).toURL().openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            try (InputStream in = connection.getInputStream()) {
+                Files.copy(in, temporal, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private void guardarEnMemoria(Key key, Image image) {
+        long bytes = (long) image.getWidth() * (long) image.getHeight() * 4;
+        synchronized (memoria) {
+            Image anterior = memoria.put(key, image);
+            if (anterior != null) {
+                bytesEnMemoria -= (long) anterior.getWidth() * (long) anterior.getHeight() * 4;
+            }
+            bytesEnMemoria += bytes;
+
+            Iterator<Map.Entry<Key, Image>> it = memoria.entrySet().iterator();
+            while (bytesEnMemoria > maxBytes && memoria.size() > 1 && it.hasNext()) {
+                Map.Entry<Key, Image> eldest = it.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                Image expulsada = eldest.getValue();
+                bytesEnMemoria -= (long) expulsada.getWidth() * (long) expulsada.getHeight() * 4;
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static String hash(String url) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package edu.rico.nbafx.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lector del formato por columnas .nbac (ver {@link EscritorColumnar}).
+ * <p>
+ * Lee un grupo de filas completo con una sola lectura del canal por columna y después sirve las
+ * filas desde memoria, de modo que también puede usarse como origen de la importación.
+ */
+public class LectorColumnar implements LectorFilas {
+
+    private final FileChannel canal;
+    private final List<EscritorFilas.Columna> columnas = new ArrayList<>();
+    private final List<String> claves = new ArrayList<>();
+    private Object[][] grupo;
+    private int filasEnGrupo;
+    private int siguienteFila;
+    private long filasLeidas;
+    private boolean terminado;
+
+    LectorColumnar(Path fichero) throws IOException {
+        this.canal = FileChannel.open(fichero, StandardOpenOption.READ);
+        try {
+            ByteBuffer cabecera = leer(9);
+            byte[] magic = new byte[4];
+            cabecera.get(magic);
+            if (!Arrays.equals(magic, EscritorColumnar.MAGIC)) {
+                throw new IOException("El fichero no tiene formato .nbac");
+            }
+            byte version = cabecera.get();
+            if (version != EscritorColumnar.VERSION) {
+                throw new IOException("Versión de .nbac no soportada: " + version);
+            }
+            int numColumnas = cabecera.getInt();
+            EscritorFilas.Tipo[] tipos = EscritorFilas.Tipo.values();
+            for (int i = 0; i < numColumnas; i++) {
+                ByteBuffer definicion = leer(3);
+                EscritorFilas.Tipo tipo = tipos[definicion.get()];
+                byte[] nombre = new byte[definicion.getShort()];
+                leer(nombre.length).get(nombre);
+                String texto = new String(nombre, StandardCharsets.UTF_8);
+                columnas.add(new EscritorFilas.Columna(texto, tipo));
+                claves.add(LectorFilas.normalizarClave(texto));
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Columnas declaradas en la cabecera del fichero.
+     */
+    public List<EscritorFilas.Columna> getColumnas() {
+        return List.copyOf(columnas);
+    }
+
+    @Override
+    public Fila siguiente() throws IOException {
+        if (siguienteFila == filasEnGrupo && !leerGrupo()) {
+            return null;
+        }
+        Map<String, String> valores = new LinkedHashMap<>();
+        for (int c = 0; c < columnas.size(); c++) {
+            Object valor = grupo[c][siguienteFila];
+            if (valor != null) {
+                valores.put(claves.get(c), valor.toString());
+            }
+        }
+        siguienteFila++;
+        return new Fila(++filasLeidas, valores);
+    }
+
+    @Override
+    public long bytesLeidos() {
+        try {
+            return canal.position();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    private boolean leerGrupo() throws IOException {
+        if (terminado) {
+            return false;
+        }
+        int filas = leer(4).getInt();
+        if (filas == 0) {
+            terminado = true;
+            return false;
+        }
+        grupo = new Object[columnas.size()][];
+        for (int c = 0; c < columnas.size(); c++) {
+            ByteBuffer datos = leer(leer(4).getInt());
+            Object[] valores = new Object[filas];
+            switch (columnas.get(c).tipo()) {
+                case INT -> { for (int i = 0; i < filas; i++) valores[i] = datos.getInt(); }
+                case LONG -> { for (int i = 0; i < filas; i++) valores[i] = datos.getLong(); }
+                case DOUBLE -> { for (int i = 0; i < filas; i++) valores[i] = datos.getDouble(); }
+                case STRING -> {
+                    String[] diccionario = new String[datos.getInt()];
+                    for (int d = 0; d < diccionario.length; d++) {
+                        byte[] bytes = new byte[datos.getInt()];
+                        datos.get(bytes);
+                        diccionario[d] = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                    int ancho = datos.get();
+                    for (int i = 0; i < filas; i++) {
+                        int indice = switch (ancho) {
+                            case 1 -> Byte.toUnsignedInt(datos.get());
+                            case 2 -> Short.toUnsignedInt(datos.getShort());
+                            default -> datos.getInt();
+                        };
+                        valores[i] = indice == 0 ? null : diccionario[indice - 1];
+                    }
+                }
+            }
+            grupo[c] = valores;
+        }
+        filasEnGrupo = filas;
+        siguienteFila = 0;
+        return true;
+    }
+
+    private ByteBuffer leer(int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer) < 0) {
+                throw new EOFException("Fichero .nbac truncado");
+            }
+        }
+        return buffer.flip();
+    }
+}
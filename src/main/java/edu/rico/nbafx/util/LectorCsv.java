@@ -0,0 +1,192 @@
+package edu.rico.nbafx.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lector incremental de ficheros CSV con cabecera.
+ * <p>
+ * Admite separador ',' o ';' (se detecta en la cabecera), campos entre comillas dobles con
+ * comillas escapadas ("") y saltos de línea dentro de los campos. Las líneas vacías se ignoran.
+ */
+public class LectorCsv implements LectorFilas {
+
+    private final Reader reader;
+    private final AtomicLong bytes;
+    private final List<String> cabecera;
+    private final char separador;
+    private long linea = 1;
+    private int pendiente = -2; // carácter leído por adelantado (-2 = ninguno)
+
+    /**
+     * @param reader Origen de los datos (se recomienda con buffer).
+     * @param bytes Contador de bytes leídos del fichero.
+     * @throws IOException Si el fichero está vacío o no se puede leer la cabecera.
+     */
+    LectorCsv(Reader reader, AtomicLong bytes) throws IOException {
+        this.reader = reader;
+        this.bytes = bytes;
+        String primeraLinea = leerLineaCruda();
+        if (primeraLinea == null || primeraLinea.isBlank()) {
+            throw new IOException("El fichero CSV está vacío o no tiene cabecera");
+        }
+        this.separador = contar(primeraLinea, ';') > contar(primeraLinea, ',') ? ';' : ',';
+        this.cabecera = new ArrayList<>();
+        for (String columna : dividir(primeraLinea)) {
+            cabecera.add(LectorFilas.normalizarClave(columna));
+        }
+    }
+
+    @Override
+    public Fila siguiente() throws IOException {
+        while (true) {
+            long inicio = linea;
+            List<String> campos = leerRegistro();
+            if (campos == null) {
+                return null;
+            }
+            if (campos.size() == 1 && campos.get(0).isBlank()) {
+                continue;
+            }
+            if (campos.size() > cabecera.size()) {
+                throw new IOException("Línea " + inicio + ": tiene " + campos.size()
+                        + " campos y la cabecera " + cabecera.size());
+            }
+            Map<String, String> valores = new LinkedHashMap<>();
+            for (int i = 0; i < campos.size(); i++) {
+                valores.put(cabecera.get(i), campos.get(i));
+            }
+            return new Fila(inicio, valores);
+        }
+    }
+
+    @Override
+    public long bytesLeidos() {
+        return bytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Lee un registro completo, que puede ocupar varias líneas si tiene campos entre comillas.
+     */
+    private List<String> leerRegistro() throws IOException {
+        int c = leer();
+        if (c < 0) {
+            return null;
+        }
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        while (true) {
+            if (c < 0) {
+                if (entreComillas) {
+                    throw new IOException("Línea " + linea + ": comillas sin cerrar al final del fichero");
+                }
+                campos.add(campo.toString());
+                return campos;
+            }
+            char ch = (char) c;
+            if (entreComillas) {
+                if (ch == '"') {
+                    int siguiente = leer();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        entreComillas = false;
+                        c = siguiente;
+                        continue;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        linea++;
+                    }
+                    campo.append(ch);
+                }
+            } else if (ch == '"' && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (ch == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    int siguiente = leer();
+                    if (siguiente != '\n') {
+                        pendiente = siguiente;
+                    }
+                }
+                linea++;
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append(ch);
+            }
+            c = leer();
+        }
+    }
+
+    /**
+     * La cabecera se lee como una línea sin interpretar para detectar antes el separador.
+     */
+    private String leerLineaCruda() throws IOException {
+        int c = leer();
+        if (c < 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        while (c >= 0 && c != '\n') {
+            if (c != '\r') {
+                sb.append((char) c);
+            }
+            c = leer();
+        }
+        linea++;
+        return sb.toString();
+    }
+
+    private List<String> dividir(String lineaCabecera) {
+        List<String> columnas = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < lineaCabecera.length(); i++) {
+            char ch = lineaCabecera.charAt(i);
+            if (ch == '"') {
+                entreComillas = !entreComillas;
+            } else if (ch == separador && !entreComillas) {
+                columnas.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(ch);
+            }
+        }
+        columnas.add(actual.toString());
+        return columnas;
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != -2) {
+            int c = pendiente;
+            pendiente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static int contar(String texto, char caracter) {
+        int n = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == caracter) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,115 @@
+package edu.rico.nbafx.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lector secuencial de registros planos (clave → valor) de un fichero de datos.
+ * <p>
+ * Las implementaciones leen de forma incremental, sin cargar el fichero completo en memoria.
+ * Las claves se normalizan con {@link #normalizarClave(String)} para que "numero_anillos",
+ * "Numero Anillos" o "numeroAnillos" se traten igual.
+ */
+public interface LectorFilas extends Closeable {
+
+    /**
+     * Registro leído junto con la línea del fichero en la que empieza.
+     */
+    record Fila(long linea, Map<String, String> valores) {
+    }
+
+    /**
+     * Lee el siguiente registro.
+     *
+     * @return El registro o null si se ha llegado al final del fichero.
+     * @throws IOException Si el fichero no se puede leer o tiene un formato incorrecto.
+     */
+    Fila siguiente() throws IOException;
+
+    /**
+     * Bytes del fichero consumidos hasta ahora (para calcular el progreso).
+     */
+    long bytesLeidos();
+
+    /**
+     * Abre el lector adecuado según la extensión del fichero (.csv, .json o .nbac).
+     *
+     * @param fichero El fichero a leer.
+     * @return Un lector posicionado al principio de los datos.
+     * @throws IOException Si no se puede abrir o el formato no está soportado.
+     */
+    static LectorFilas abrir(Path fichero) throws IOException {
+        String nombre = fichero.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(EscritorFilas.Formato.COLUMNAR.getExtension())) {
+            return new LectorColumnar(fichero);
+        }
+        ContadorBytes contador = new ContadorBytes(Files.newInputStream(fichero));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(contador, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (nombre.endsWith(".csv")) {
+                return new LectorCsv(reader, contador.leidos);
+            }
+            if (nombre.endsWith(".json")) {
+                return new LectorJson(reader, contador.leidos);
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        reader.close();
+        throw new IOException("Formato no soportado (se espera .csv, .json o .nbac): " + fichero.getFileName());
+    }
+
+    /**
+     * Normaliza un nombre de columna: minúsculas, sin espacios, guiones ni guiones bajos.
+     */
+    static String normalizarClave(String clave) {
+        StringBuilder sb = new StringBuilder(clave.length());
+        for (int i = 0; i < clave.length(); i++) {
+            char c = clave.charAt(i);
+            if (c != '_' && c != '-' && !Character.isWhitespace(c) && c != '\uFEFF') {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Flujo que cuenta los bytes leídos del fichero subyacente.
+     */
+    final class ContadorBytes extends FilterInputStream {
+        private final AtomicLong leidos = new AtomicLong();
+
+        ContadorBytes(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                leidos.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                leidos.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package edu.rico.nbafx.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lector incremental de ficheros JSON con un array de objetos planos:
+ * {@code [ {"nombre": "...", "dorsal": 23, ...}, ... ]}.
+ * <p>
+ * Se tokeniza carácter a carácter, sin construir el documento en memoria. Los valores pueden
+ * ser texto, números, booleanos o null (que se lee como ausencia del campo); no se admiten
+ * objetos ni arrays anidados.
+ */
+public class LectorJson implements LectorFilas {
+
+    private final Reader reader;
+    private final AtomicLong bytes;
+    private long linea = 1;
+    private int pendiente = -2; // carácter leído por adelantado (-2 = ninguno)
+    private boolean terminado;
+
+    /**
+     * @param reader Origen de los datos (se recomienda con buffer).
+     * @param bytes Contador de bytes leídos del fichero.
+     * @throws IOException Si el fichero no empieza por un array.
+     */
+    LectorJson(Reader reader, AtomicLong bytes) throws IOException {
+        this.reader = reader;
+        this.bytes = bytes;
+        int c = saltarEspacios();
+        if (c == '\uFEFF') {
+            c = saltarEspacios();
+        }
+        if (c != '[') {
+            throw error("se esperaba '[' al principio del fichero");
+        }
+    }
+
+    @Override
+    public Fila siguiente() throws IOException {
+        if (terminado) {
+            return null;
+        }
+        int c = saltarEspacios();
+        if (c == ',') {
+            c = saltarEspacios();
+        }
+        if (c == ']') {
+            terminado = true;
+            return null;
+        }
+        if (c != '{') {
+            throw error("se esperaba '{'");
+        }
+        long inicio = linea;
+        Map<String, String> valores = new LinkedHashMap<>();
+        c = saltarEspacios();
+        while (c != '}') {
+            if (c == ',') {
+                c = saltarEspacios();
+            }
+            if (c != '"') {
+                throw error("se esperaba el nombre de un campo");
+            }
+            String clave = leerTexto();
+            if (saltarEspacios() != ':') {
+                throw error("se esperaba ':' tras \"" + clave + "\"");
+            }
+            String valor = leerValor(saltarEspacios());
+            if (valor != null) {
+                valores.put(LectorFilas.normalizarClave(clave), valor);
+            }
+            c = saltarEspacios();
+            if (c != ',' && c != '}') {
+                throw error("se esperaba ',' o '}'");
+            }
+        }
+        return new Fila(inicio, valores);
+    }
+
+    @Override
+    public long bytesLeidos() {
+        return bytes.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String leerValor(int c) throws IOException {
+        if (c == '"') {
+            return leerTexto();
+        }
+        if (c == '{' || c == '[') {
+            throw error("no se admiten objetos ni arrays anidados");
+        }
+        StringBuilder sb = new StringBuilder();
+        while (c >= 0 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+            sb.append((char) c);
+            c = leer();
+        }
+        pendiente = c;
+        String literal = sb.toString();
+        if (literal.isEmpty()) {
+            throw error("falta el valor de un campo");
+        }
+        return "null".equals(literal) ? null : literal;
+    }
+
+    private String leerTexto() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = leer();
+            if (c < 0) {
+                throw error("texto sin cerrar");
+            }
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c == '\\') {
+                int e = leer();
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append((char) e);
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            int h = leer();
+                            if (h < 0) {
+                                throw error("secuencia \\u incompleta");
+                            }
+                            hex[i] = (char) h;
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("secuencia \\u no válida");
+                        }
+                    }
+                    default -> throw error("secuencia de escape no válida");
+                }
+            } else {
+                if (c == '\n') {
+                    linea++;
+                }
+                sb.append((char) c);
+            }
+        }
+    }
+
+    private int saltarEspacios() throws IOException {
+        int c = leer();
+        while (c >= 0 && Character.isWhitespace(c)) {
+            if (c == '\n') {
+                linea++;
+            }
+            c = leer();
+        }
+        if (c < 0) {
+            throw error("fin de fichero inesperado");
+        }
+        return c;
+    }
+
+    private int leer() throws IOException {
+        if (pendiente != -2) {
+            int c = pendiente;
+            pendiente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private IOException error(String mensaje) {
+        return new IOException("JSON no válido en la línea " + linea + ": " + mensaje);
+    }
+}
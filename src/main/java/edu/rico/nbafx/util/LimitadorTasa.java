@@ -0,0 +1,96 @@
+package edu.rico.nbafx.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de peticiones por clave con el algoritmo de cubo de fichas (token bucket).
+ * <p>
+ * Cada clave tiene un cubo de {@code capacidad} fichas que se rellena a ritmo constante; cada
+ * petición gasta una y, sin fichas, se rechaza. El estado de cada cubo cabe en un único
+ * {@link AtomicLong} (milésimas de ficha en los 21 bits altos y el instante de la última
+ * reposición, en milisegundos, en los 43 bajos), así que se actualiza con un CAS sin cerrojos.
+ * Los cubos llenos se descartan cuando hay demasiados, porque equivalen a uno nuevo.
+ */
+public final class LimitadorTasa {
+
+    private static final int BITS_TIEMPO = 43;
+    private static final long MASCARA_TIEMPO = (1L << BITS_TIEMPO) - 1;
+    private static final long MAX_MILIFICHAS = (1L << (64 - BITS_TIEMPO - 1)) - 1;
+
+    private final long capacidad;
+    private final double milifichasPorMilli;
+    private final int maxClaves;
+    private final long origen = System.nanoTime();
+    private final ConcurrentHashMap<String, AtomicLong> cubos = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacidad Fichas de un cubo lleno (ráfaga máxima), como mucho 1048.
+     * @param fichasPorSegundo Fichas que recupera cada cubo por segundo.
+     * @param maxClaves Cubos a partir de los cuales se descartan los que estén llenos.
+     */
+    public LimitadorTasa(int capacidad, double fichasPorSegundo, int maxClaves) {
+        if (capacidad < 1 || capacidad * 1000L > MAX_MILIFICHAS) {
+            throw new IllegalArgumentException("Capacidad fuera de rango: " + capacidad);
+        }
+        this.capacidad = capacidad * 1000L;
+        this.milifichasPorMilli = fichasPorSegundo;
+        this.maxClaves = maxClaves;
+    }
+
+    /**
+     * Gasta una ficha del cubo de la clave.
+     *
+     * @param clave La clave limitada (un usuario, un cliente...).
+     * @return true si había ficha y la petición puede seguir; false si hay que rechazarla.
+     */
+    public boolean intentar(String clave) {
+        long ahora = ahora();
+        AtomicLong cubo = cubos.computeIfAbsent(clave, k -> new AtomicLong(estado(capacidad, ahora)));
+        while (true) {
+            long actual = cubo.get();
+            long fichas = reponer(actual, ahora);
+            if (fichas < 1000) {
+                return false;
+            }
+            if (cubo.compareAndSet(actual, estado(fichas - 1000, ahora))) {
+                if (cubos.size() > maxClaves) {
+                    purgar(ahora);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Devuelve las fichas a su estado inicial para una clave (p. ej. tras un inicio de sesión correcto).
+     */
+    public void reiniciar(String clave) {
+        cubos.remove(clave);
+    }
+
+    /**
+     * Número de claves con cubo en memoria.
+     */
+    public int claves() {
+        return cubos.size();
+    }
+
+    private void purgar(long ahora) {
+        cubos.values().removeIf(cubo -> reponer(cubo.get(), ahora) >= capacidad);
+    }
+
+    private long reponer(long estado, long ahora) {
+        long milifichas = estado >>> BITS_TIEMPO;
+        long transcurrido = Math.max(0, ahora - (estado & MASCARA_TIEMPO));
+        return Math.min(capacidad, milifichas + (long) (transcurrido * milifichasPorMilli));
+    }
+
+    private long ahora() {
+        return ((System.nanoTime() - origen) / 1_000_000) & MASCARA_TIEMPO;
+    }
+
+    private static long estado(long milifichas, long ahora) {
+        return (milifichas << BITS_TIEMPO) | ahora;
+    }
+}
@@ -0,0 +1,122 @@
+package edu.rico.nbafx.util;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.logging.Logger;
+
+/**
+ * Tiempos del arranque de la aplicación, medidos desde que se creó el proceso de la JVM.
+ * <p>
+ * Cada hito se anota una sola vez. El primer frame es el primer pulso de JavaFX que maqueta la
+ * escena con la vista de login; la aplicación se considera interactiva cuando, tras ese pulso,
+ * el hilo de JavaFX queda libre para atender eventos. Cuando se han alcanzado ese hito y el
+ * precalentamiento en segundo plano se escribe el informe en el log.
+ */
+public final class MetricasArranque {
+
+    public static final String MAIN = "main";
+    public static final String START = "start";
+    public static final String PRIMER_FRAME = "primer frame";
+    public static final String INTERACTIVO = "interactivo";
+    public static final String PRECALENTADO = "precalentado";
+
+    private static final Logger LOGGER = Logger.getLogger(MetricasArranque.class.getName());
+
+    private static final long INICIO_JVM;
+    private static final Map<String, Long> HITOS = new LinkedHashMap<>();
+    private static final CompletableFuture<Void> COMPLETO = new CompletableFuture<>();
+
+    static {
+        // El instante de creación del proceso se traslada a la escala de System.nanoTime()
+        long ahoraNanos = System.nanoTime();
+        long ahoraMillis = System.currentTimeMillis();
+        long inicioMillis = ProcessHandle.current().info().startInstant()
+                .map(Instant::toEpochMilli).orElse(ahoraMillis);
+        INICIO_JVM = ahoraNanos - Math.max(0, ahoraMillis - inicioMillis) * 1_000_000;
+    }
+
+    /**
+     * Constructor privado para evitar instanciación de la clase utilitaria.
+     */
+    private MetricasArranque() { }
+
+    /**
+     * Anota un hito con el instante actual, salvo que ya estuviera anotado.
+     *
+     * @param hito Nombre del hito (ver las constantes de esta clase).
+     */
+    public static void marcar(String hito) {
+        long ahora = System.nanoTime();
+        boolean completo;
+        synchronized (HITOS) {
+            if (HITOS.putIfAbsent(hito, ahora) != null) {
+                return;
+            }
+            completo = HITOS.containsKey(INTERACTIVO) && HITOS.containsKey(PRECALENTADO);
+        }
+        if (completo) {
+            LOGGER.info(informe());
+            COMPLETO.complete(null);
+        }
+    }
+
+    /**
+     * Anota el primer frame y el momento interactivo a partir del primer pulso que maqueta la escena.
+     * Debe llamarse en el hilo de JavaFX antes de mostrar la ventana.
+     *
+     * @param scene La escena principal.
+     */
+    public static void medirPrimerFrame(Scene scene) {
+        Runnable[] oyente = new Runnable[1];
+        oyente[0] = () -> {
+            if (scene.getRoot() == null || scene.getRoot().getChildrenUnmodifiable().isEmpty()) {
+                return; // Aún no se ha cargado ninguna vista
+            }
+            scene.removePostLayoutPulseListener(oyente[0]);
+            marcar(PRIMER_FRAME);
+            Platform.runLater(() -> marcar(INTERACTIVO));
+        };
+        scene.addPostLayoutPulseListener(oyente[0]);
+    }
+
+    /**
+     * Milisegundos desde el inicio de la JVM hasta un hito.
+     *
+     * @param hito Nombre del hito.
+     * @return Los milisegundos, o -1 si aún no se ha alcanzado.
+     */
+    public static double millisHasta(String hito) {
+        Long instante;
+        synchronized (HITOS) {
+            instante = HITOS.get(hito);
+        }
+        return instante == null ? -1 : (instante - INICIO_JVM) / 1_000_000.0;
+    }
+
+    /**
+     * Se completa cuando la aplicación es interactiva y ha terminado el precalentamiento.
+     */
+    public static CompletionStage<Void> completado() {
+        return COMPLETO;
+    }
+
+    /**
+     * Resume los hitos anotados, en orden, con su tiempo desde el inicio de la JVM.
+     */
+    public static String informe() {
+        StringJoiner partes = new StringJoiner(", ", "Arranque: ", "");
+        synchronized (HITOS) {
+            for (Map.Entry<String, Long> hito : HITOS.entrySet()) {
+                partes.add(String.format("%s %.0f ms", hito.getKey(), (hito.getValue() - INICIO_JVM) / 1_000_000.0));
+            }
+        }
+        return partes.toString();
+    }
+}
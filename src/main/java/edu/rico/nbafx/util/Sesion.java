@@ -0,0 +1,142 @@
+package edu.rico.nbafx.util;
+
+import edu.rico.nbafx.dao.QuintetoCache;
+import edu.rico.nbafx.model.Permiso;
+import edu.rico.nbafx.model.Usuario;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sesión del usuario autenticado.
+ * <p>
+ * Se prepara una sola vez al iniciar sesión ({@link #abrir}), fuera del hilo de JavaFX: copia del
+ * usuario, permisos de su rol y, si tiene quinteto, su carga en {@link QuintetoCache}. Las vistas
+ * leen estos datos en lugar de volver a consultarlos en cada navegación y guardan aquí su estado
+ * (filtros, listas ya cargadas...) para recuperarlo al volver.
+ * <p>
+ * {@link AppShell} la instala, la cierra por inactividad ({@code session.idleTimeoutMinutes}) y
+ * al cerrar sesión llama a {@link #cerrar()}, que descarta todo lo que pertenece a la sesión.
+ */
+public final class Sesion {
+
+    private final Usuario usuario;
+    private final Set<Permiso> permisos;
+    private final Map<View, Object> estadoVistas = new ConcurrentHashMap<>();
+    private volatile long ultimaActividad = System.nanoTime();
+    private volatile boolean cerrada;
+
+    private Sesion(Usuario usuario) {
+        this.usuario = new Usuario(usuario);
+        this.permisos = Permiso.de(usuario.getRol());
+    }
+
+    /**
+     * Prepara la sesión de un usuario recién autenticado. Consulta la base de datos, así que no
+     * debe llamarse en el hilo de JavaFX.
+     *
+     * @param usuario El usuario autenticado.
+     * @return La sesión lista para instalarse con {@link AppShell#iniciarSesion(Sesion)}.
+     * @throws SQLException Si no se puede cargar el quinteto.
+     */
+    public static Sesion abrir(Usuario usuario) throws SQLException {
+        Sesion sesion = new Sesion(usuario);
+        if (sesion.puede(Permiso.TENER_QUINTETO)) {
+            QuintetoCache.getInstance().cargar(usuario.getId());
+        }
+        return sesion;
+    }
+
+    /**
+     * Obtiene el usuario de la sesión. Es una copia propia: modificarlo no afecta a la base de datos.
+     */
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    /**
+     * Obtiene el ID del usuario de la sesión (también el de su quinteto en {@link QuintetoCache}).
+     */
+    public int getUsuarioId() {
+        return usuario.getId();
+    }
+
+    /**
+     * Obtiene los permisos calculados para el rol del usuario.
+     */
+    public Set<Permiso> getPermisos() {
+        return permisos;
+    }
+
+    /**
+     * Indica si el usuario de la sesión tiene un permiso.
+     */
+    public boolean puede(Permiso permiso) {
+        return permisos.contains(permiso);
+    }
+
+    /**
+     * Recupera el estado que guardó una vista en esta sesión.
+     *
+     * @param view La vista.
+     * @param tipo Tipo del estado guardado.
+     * @return El estado, o null si la vista no guardó ninguno de ese tipo.
+     */
+    public <T> T getEstado(View view, Class<T> tipo) {
+        Object estado = estadoVistas.get(view);
+        return tipo.isInstance(estado) ? tipo.cast(estado) : null;
+    }
+
+    /**
+     * Guarda el estado de una vista para recuperarlo al volver a ella.
+     *
+     * @param view La vista.
+     * @param estado El estado (null para descartarlo).
+     */
+    public void setEstado(View view, Object estado) {
+        if (cerrada) {
+            return;
+        }
+        if (estado == null) {
+            estadoVistas.remove(view);
+        } else {
+            estadoVistas.put(view, estado);
+        }
+    }
+
+    /**
+     * Anota actividad del usuario. Se llama con cada evento de entrada, así que solo escribe un campo.
+     */
+    public void registrarActividad() {
+        ultimaActividad = System.nanoTime();
+    }
+
+    /**
+     * Milisegundos transcurridos desde la última actividad del usuario.
+     */
+    public long millisInactiva() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ultimaActividad);
+    }
+
+    /**
+     * Indica si la sesión ya se ha cerrado.
+     */
+    public boolean isCerrada() {
+        return cerrada;
+    }
+
+    /**
+     * Descarta los datos de la sesión: su quinteto en memoria y el estado de las vistas.
+     * Los recursos compartidos (imágenes, conexiones, tareas) los libera {@link AppShell}.
+     */
+    void cerrar() {
+        cerrada = true;
+        estadoVistas.clear();
+        if (puede(Permiso.TENER_QUINTETO)) {
+            QuintetoCache.getInstance().olvidar(usuario.getId());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package edu.rico.nbafx.util;
+
+import javafx.concurrent.Task;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ejecutor compartido para las tareas en segundo plano de los controladores.
+ * <p>
+ * Cada tarea se ejecuta en un hilo virtual con nombre ({@code nbafx-worker-N}), adecuado para
+ * el trabajo bloqueante de JDBC. Un semáforo limita cuántas tareas se ejecutan a la vez para no
+ * saturar el pool de conexiones. Las tareas enviadas con una clave sustituyen a la anterior con
+ * la misma clave, que se cancela (p. ej. una segunda recarga de jugadores cancela la primera).
+ */
+public class TaskExecutor implements Executor {
+
+    private static final Logger LOGGER = Logger.getLogger(TaskExecutor.class.getName());
+
+    private final ExecutorService executor;
+    private final Semaphore concurrencyLimit;
+    private final Map<String, Future<?>> tareasPorClave = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el ejecutor.
+     *
+     * @param maxConcurrency Número máximo de tareas ejecutándose simultáneamente.
+     */
+    public TaskExecutor(int maxConcurrency) {
+        this.concurrencyLimit = new Semaphore(Math.max(1, maxConcurrency), true);
+        this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("nbafx-worker-", 0).factory());
+    }
+
+    /**
+     * Crea el ejecutor con el límite definido en config.properties ({@code executor.maxConcurrency}).
+     * Por defecto coincide con el tamaño máximo del pool de conexiones.
+     */
+    public static TaskExecutor fromConfig() {
+        int defecto = AppConfig.getInt("db.pool.maxSize", 10);
+        return new TaskExecutor(AppConfig.getInt("executor.maxConcurrency", defecto));
+    }
+
+    /**
+     * Ejecuta una acción respetando el límite de concurrencia.
+     *
+     * @param command La acción a ejecutar.
+     * @throws RejectedExecutionException Si el ejecutor ya se ha cerrado.
+     */
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(() -> {
+            try {
+                concurrencyLimit.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                concurrencyLimit.release();
+            }
+        });
+    }
+
+    /**
+     * Envía una tarea de JavaFX para su ejecución en segundo plano.
+     *
+     * @param task La tarea a ejecutar.
+     * @return La misma tarea, para encadenar llamadas.
+     */
+    public <T> Task<T> submit(Task<T> task) {
+        execute(task);
+        return task;
+    }
+
+    /**
+     * Envía una tarea que sustituye a cualquier otra enviada con la misma clave.
+     * La tarea anterior se cancela sin interrumpir su hilo: si ya está consultando la base de
+     * datos termina la consulta (la conexión vuelve sana al pool), pero su resultado se descarta
+     * y no se invoca su {@code onSucceeded}.
+     *
+     * @param clave Identificador de la operación (p. ej. "jugadores.cargar").
+     * @param task La nueva tarea.
+     * @return La misma tarea, para encadenar llamadas.
+     */
+    public <T> Task<T> submit(String clave, Task<T> task) {
+        Future<?> anterior = tareasPorClave.put(clave, task);
+        if (anterior != null && !anterior.isDone()) {
+            anterior.cancel(false);
+        }
+        execute(() -> {
+            try {
+                task.run();
+            } finally {
+                tareasPorClave.remove(clave, task);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Cancela la tarea pendiente asociada a una clave, si existe.
+     *
+     * @param clave Identificador de la operación.
+     */
+    public void cancel(String clave) {
+        Future<?> tarea = tareasPorClave.remove(clave);
+        if (tarea != null) {
+            tarea.cancel(false);
+        }
+    }
+
+    /**
+     * Cancela todas las tareas con clave pendientes (p. ej. las de una vista al cerrar sesión).
+     * Las tareas sin clave siguen su curso.
+     */
+    public void cancelAll() {
+        tareasPorClave.values().forEach(tarea -> tarea.cancel(false));
+        tareasPorClave.clear();
+    }
+
+    /**
+     * Cierra el ejecutor de forma ordenada: cancela las tareas con clave pendientes, espera a que
+     * terminen las que están en curso y, si se supera el tiempo, las interrumpe.
+     *
+     * @param timeoutMs Tiempo máximo de espera en milisegundos.
+     */
+    public void shutdown(long timeoutMs) {
+        cancelAll();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                LOGGER.log(Level.WARNING, "Tareas en segundo plano sin terminar al cerrar; se interrumpen");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package edu.rico.nbafx.util;
+
+/**
+ * Controlador de una vista que {@link AppShell} puede conservar entre navegaciones.
+ * <p>
+ * Al volver a mostrar una vista de la caché no se vuelve a cargar el FXML ni a llamar a
+ * {@code initialize()}; en su lugar se invoca {@link #refrescar()} para que actualice sus datos
+ * sobre los nodos que ya tiene.
+ */
+public interface VistaRefrescable {
+
+    /**
+     * Actualiza los datos de la vista al volver a mostrarla. Se llama en el hilo de JavaFX.
+     */
+    void refrescar();
+}
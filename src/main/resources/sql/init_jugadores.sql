@@ -2,13 +2,13 @@
 CREATE TABLE IF NOT EXISTS usuarios (
     id INT AUTO_INCREMENT PRIMARY KEY,
     nombre VARCHAR(50) NOT NULL UNIQUE,
-    password VARCHAR(255) NOT NULL, -- En producción, usar hash!
+    password VARCHAR(255) NOT NULL, -- Hash PBKDF2 (ver HashContrasenas)
     rol VARCHAR(20) NOT NULL,
     fecha_creacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Usuario de prueba inicial
-INSERT INTO usuarios (nombre, password, rol) VALUES ('admin', 'admin123', 'ADMIN');
+-- Usuario de prueba inicial (contraseña admin123, hash SHA-256 antiguo que se convierte a PBKDF2 al iniciar sesión)
+INSERT INTO usuarios (nombre, password, rol) VALUES ('admin', 'JAvlGPq9JyTdtvBO6x2llnRI1+gxwIyPqCKAn3THIKk=', 'ADMIN');
 
 -- Tabla de Jugadores
 CREATE TABLE IF NOT EXISTS jugadores (
@@ -20,7 +20,12 @@ CREATE TABLE IF NOT EXISTS jugadores (
     numero_anillos INT DEFAULT 0,
     altura DOUBLE NOT NULL,
     peso DOUBLE NOT NULL,
-    image_url VARCHAR(500)
+    image_url VARCHAR(500),
+    version INT NOT NULL DEFAULT 0, -- Se incrementa en cada UPDATE (huella de la caché de jugadores)
+    -- Índices para los filtros y órdenes de la vista paginada (el ID desempata)
+    INDEX idx_jugadores_nombre (nombre, id),
+    INDEX idx_jugadores_equipo (equipo, id),
+    INDEX idx_jugadores_posicion (posicion, id)
 );
 
 INSERT INTO jugadores (nombre, dorsal, equipo, posicion, numero_anillos, altura, peso, image_url) VALUES
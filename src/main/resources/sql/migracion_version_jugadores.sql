@@ -0,0 +1,5 @@
+-- Migración para bases creadas con una versión de init_jugadores.sql anterior a la columna 'version'.
+-- Se ejecuta una sola vez, a mano, con una cuenta que tenga permiso ALTER (la aplicación no la aplica
+-- sobre MySQL). Mientras falte, la aplicación sigue funcionando pero la huella de la caché de
+-- jugadores no detecta las filas modificadas por otros clientes.
+ALTER TABLE jugadores ADD COLUMN version INT NOT NULL DEFAULT 0; -- Se incrementa en cada UPDATE